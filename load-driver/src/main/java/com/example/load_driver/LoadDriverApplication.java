@@ -0,0 +1,63 @@
+package com.example.load_driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drives resilience-app with open-model load and writes the results as JSON, one file per run.
+ * <pre>
+ * ./gradlew run --args="--rate=50 --warmup=10s --ramp=20s --steady=60s --strategies=programmatic,annotation"
+ * </pre>
+ * Options: target, strategies (programmatic, annotation or a path), rate, warmup-rate, warmup, ramp, steady,
+ * timeout, max-in-flight, body (JSON file with the ErrorTestRequest), output.
+ */
+public class LoadDriverApplication {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadDriverConfig config = LoadDriverConfig.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        String requestBody = config.bodyFile() != null ? Files.readString(config.bodyFile()) : null;
+        HttpClient httpClient = OpenLoadGenerator.newHttpClient(Duration.ofSeconds(5));
+        OpenLoadGenerator generator = new OpenLoadGenerator(config, httpClient, objectMapper, requestBody);
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("startedAt", Instant.now().toString());
+        run.put("config", describe(config, requestBody));
+        Map<String, List<Map<String, Object>>> strategies = new LinkedHashMap<>();
+        // strategies run one after another so they do not compete for the same trouble-maker
+        for (String strategy : config.strategies()) {
+            strategies.put(strategy, generator.run(strategy));
+        }
+        run.put("strategies", strategies);
+        run.put("finishedAt", Instant.now().toString());
+
+        if (config.output().getParent() != null) {
+            Files.createDirectories(config.output().getParent());
+        }
+        objectMapper.writeValue(config.output().toFile(), run);
+        System.out.println("Results written to " + config.output().toAbsolutePath());
+    }
+
+    private static Map<String, Object> describe(LoadDriverConfig config, String requestBody) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("target", config.target().toString());
+        description.put("rate", config.rate());
+        description.put("warmupRate", config.warmupRate());
+        description.put("warmup", config.warmup().toString());
+        description.put("ramp", config.ramp().toString());
+        description.put("steady", config.steady().toString());
+        description.put("requestTimeout", config.requestTimeout().toString());
+        description.put("maxInFlight", config.maxInFlight());
+        description.put("requestBody", requestBody);
+        return description;
+    }
+}
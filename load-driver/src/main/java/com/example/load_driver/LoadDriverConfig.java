@@ -0,0 +1,88 @@
+package com.example.load_driver;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, all given as --name=value
+ */
+public record LoadDriverConfig(URI target,
+                               List<String> strategies,
+                               double rate,
+                               double warmupRate,
+                               Duration warmup,
+                               Duration ramp,
+                               Duration steady,
+                               Duration requestTimeout,
+                               int maxInFlight,
+                               Path bodyFile,
+                               Path output) {
+
+    public static LoadDriverConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        double rate = Double.parseDouble(options.getOrDefault("rate", "20"));
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return new LoadDriverConfig(
+                URI.create(options.getOrDefault("target", "http://localhost:8080")),
+                Arrays.stream(options.getOrDefault("strategies", "programmatic,annotation").split(","))
+                        .map(String::trim)
+                        .filter(strategy -> !strategy.isEmpty())
+                        .toList(),
+                rate,
+                Double.parseDouble(options.getOrDefault("warmup-rate", String.valueOf(rate / 4))),
+                parseDuration(options.getOrDefault("warmup", "10s")),
+                parseDuration(options.getOrDefault("ramp", "20s")),
+                parseDuration(options.getOrDefault("steady", "60s")),
+                parseDuration(options.getOrDefault("timeout", "60s")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "10000")),
+                options.containsKey("body") ? Path.of(options.get("body")) : null,
+                Path.of(options.getOrDefault("output", "build/results/load-" + timestamp + ".json")));
+    }
+
+    /**
+     * Warm-up at warmupRate, ramp from warmupRate to rate, steady at rate. Only the steady phase is
+     * measured, the other two are reported separately.
+     */
+    public List<LoadPhase> phases() {
+        return List.of(
+                new LoadPhase("warmup", warmup, warmupRate, warmupRate, false),
+                new LoadPhase("ramp", ramp, warmupRate, rate, false),
+                new LoadPhase("steady", steady, rate, rate, true));
+    }
+
+    /**
+     * @return the endpoint of the given strategy, e.g. programmatic -> /api/test/programmatic/retry
+     */
+    public URI endpoint(String strategy) {
+        String path = strategy.startsWith("/") ? strategy : "/api/test/" + strategy + "/retry";
+        return target.resolve(path);
+    }
+
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        return switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unknown duration: " + value + " (use ms, s, m or h)");
+        };
+    }
+}
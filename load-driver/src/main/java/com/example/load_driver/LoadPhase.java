@@ -0,0 +1,37 @@
+package com.example.load_driver;
+
+import java.time.Duration;
+
+/**
+ * A stretch of the run with an arrival rate that changes linearly from startRate to endRate
+ * (constant when both are equal). Only measured phases are meant to be compared between runs.
+ */
+public record LoadPhase(String name, Duration duration, double startRate, double endRate, boolean measured) {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    public LoadPhase {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("duration of phase " + name + " must not be negative");
+        }
+        if (!(startRate > 0) || !(endRate > 0)) {
+            throw new IllegalArgumentException("rates of phase " + name + " must be positive");
+        }
+    }
+
+    public double rateAt(long elapsedNanos) {
+        long durationNanos = duration.toNanos();
+        if (durationNanos == 0) {
+            return endRate;
+        }
+        double progress = Math.min(1d, (double) elapsedNanos / durationNanos);
+        return startRate + (endRate - startRate) * progress;
+    }
+
+    /**
+     * Gap between the arrival at elapsedNanos and the next one at the rate of that moment
+     */
+    public long interArrivalNanos(long elapsedNanos) {
+        return Math.max(1L, Math.round(NANOS_PER_SECOND / rateAt(elapsedNanos)));
+    }
+}
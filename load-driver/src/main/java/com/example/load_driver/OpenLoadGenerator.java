@@ -0,0 +1,139 @@
+package com.example.load_driver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are started on a fixed arrival schedule, independent of how fast responses come
+ * back, each one on its own virtual thread. A slow system under test therefore accumulates in-flight requests
+ * instead of silently lowering the offered load.
+ */
+public class OpenLoadGenerator {
+
+    private final LoadDriverConfig config;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String requestBody;
+
+    public OpenLoadGenerator(LoadDriverConfig config, HttpClient httpClient, ObjectMapper objectMapper, String requestBody) {
+        this.config = config;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.requestBody = requestBody;
+    }
+
+    /**
+     * Runs all phases against the endpoint of the strategy and waits for the outstanding responses
+     */
+    public List<Map<String, Object>> run(String strategy) throws InterruptedException {
+        URI endpoint = config.endpoint(strategy);
+        AtomicInteger inFlight = new AtomicInteger();
+        List<PhaseStats> phaseStats = new ArrayList<>();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (LoadPhase phase : config.phases()) {
+                PhaseStats stats = new PhaseStats(phase);
+                phaseStats.add(stats);
+                System.out.printf("[%s] %s: %s, %.1f -> %.1f req/s%n",
+                        strategy, phase.name(), phase.duration(), phase.startRate(), phase.endRate());
+
+                long phaseStart = System.nanoTime();
+                long phaseEnd = phaseStart + phase.duration().toNanos();
+                long intendedStart = phaseStart;
+                while (intendedStart < phaseEnd) {
+                    waitUntil(intendedStart);
+                    long scheduled = intendedStart;
+                    if (inFlight.incrementAndGet() > config.maxInFlight()) {
+                        inFlight.decrementAndGet();
+                        stats.dropped(config.requestTimeout());
+                    } else {
+                        stats.sent();
+                        requests.submit(() -> {
+                            try {
+                                send(endpoint, scheduled, stats);
+                            } finally {
+                                inFlight.decrementAndGet();
+                            }
+                        });
+                    }
+                    intendedStart += phase.interArrivalNanos(intendedStart - phaseStart);
+                }
+                if (stats.getDropped() > 0) {
+                    System.out.printf("[%s] WARNING %s: %d requests dropped at maxInFlight=%d, counted as %s timeouts"
+                                    + " in responseTimeMs - the target is saturated, the run does not measure it%n",
+                            strategy, phase.name(), stats.getDropped(), config.maxInFlight(), config.requestTimeout());
+                }
+            }
+        } // closing the executor waits until every outstanding response is recorded
+        return phaseStats.stream().map(PhaseStats::toMap).toList();
+    }
+
+    private void send(URI endpoint, long intendedStart, PhaseStats stats) {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(config.requestTimeout())
+                .header("Content-Type", "application/json")
+                .POST(requestBody == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+        long actualStart = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.recordLatency(intendedStart, actualStart, System.nanoTime());
+            if (response.statusCode() / 100 != 2) {
+                stats.httpError();
+            } else if (isTroubleMakerSuccess(response.body())) {
+                stats.success();
+            } else {
+                stats.fallback();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stats.recordTimeout(config.requestTimeout());
+            stats.failed();
+        } catch (Exception e) {
+            stats.recordLatency(intendedStart, actualStart, System.nanoTime());
+            stats.failed();
+        }
+    }
+
+    /**
+     * The test endpoints answer 200 in both cases: with the trouble-maker body on success,
+     * with the fallback text otherwise
+     */
+    private boolean isTroubleMakerSuccess(String body) {
+        try {
+            JsonNode result = objectMapper.readTree(body).path("result");
+            return "success".equals(result.path("status").asText());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    static HttpClient newHttpClient(Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.load_driver;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes and latencies of one phase of one strategy.
+ * <p>
+ * Two histograms are kept: response time is measured from the intended start of the request, so a request
+ * that started late because the driver or the system under test was stalled counts that wait
+ * (coordinated-omission correction); service time is measured from the actual send and shows what the
+ * naive closed-loop number would have been.
+ * <p>
+ * Requests that never got a response from the system under test - dropped at maxInFlight, or interrupted -
+ * count as timeouts in the response time: leaving them out would make the tail look better exactly when
+ * the target saturates.
+ */
+public class PhaseStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadPhase phase;
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder success = new LongAdder();
+    private final LongAdder fallback = new LongAdder();
+    private final LongAdder httpError = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public PhaseStats(LoadPhase phase) {
+        this.phase = phase;
+    }
+
+    public void recordLatency(long intendedStartNanos, long actualStartNanos, long endNanos) {
+        responseTime.recordValue(toMicros(endNanos - intendedStartNanos));
+        serviceTime.recordValue(toMicros(endNanos - actualStartNanos));
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    public void sent() {
+        sent.increment();
+    }
+
+    public void success() {
+        success.increment();
+    }
+
+    public void fallback() {
+        fallback.increment();
+    }
+
+    public void httpError() {
+        httpError.increment();
+    }
+
+    public void failed() {
+        failed.increment();
+    }
+
+    /**
+     * The open model never waits for responses, requests beyond maxInFlight are not sent; they count as
+     * timed out, with the request timeout as response time
+     */
+    public void dropped(Duration requestTimeout) {
+        dropped.increment();
+        recordTimeout(requestTimeout);
+    }
+
+    /**
+     * A request without response, e.g. interrupted: counts in the response time only, it has no service time
+     */
+    public void recordTimeout(Duration requestTimeout) {
+        responseTime.recordValue(toMicros(requestTimeout.toNanos()));
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public Map<String, Object> toMap() {
+        double durationSeconds = phase.duration().toMillis() / 1000d;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("phase", phase.name());
+        stats.put("measured", phase.measured());
+        stats.put("durationSeconds", durationSeconds);
+        stats.put("sent", sent.sum());
+        stats.put("throughputPerSecond", durationSeconds > 0 ? sent.sum() / durationSeconds : 0);
+        stats.put("success", success.sum());
+        stats.put("fallback", fallback.sum());
+        stats.put("httpError", httpError.sum());
+        stats.put("failed", failed.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("droppedInResponseTimeAsTimeouts", true);
+        stats.put("responseTimeMs", percentiles(responseTime));
+        stats.put("serviceTimeMs", percentiles(serviceTime));
+        return stats;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("count", histogram.getTotalCount());
+        percentiles.put("mean", histogram.getMean() / 1000d);
+        for (double percentile : new double[]{50, 90, 95, 99, 99.9}) {
+            percentiles.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    histogram.getValueAtPercentile(percentile) / 1000d);
+        }
+        percentiles.put("max", histogram.getMaxValue() / 1000d);
+        return percentiles;
+    }
+}
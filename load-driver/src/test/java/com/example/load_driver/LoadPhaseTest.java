@@ -0,0 +1,34 @@
+package com.example.load_driver;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadPhaseTest {
+
+    @Test
+    void constantPhaseSpacesArrivalsEvenly() {
+        LoadPhase steady = new LoadPhase("steady", Duration.ofSeconds(10), 50, 50, true);
+
+        assertThat(steady.interArrivalNanos(0)).isEqualTo(20_000_000L);
+        assertThat(steady.interArrivalNanos(9_000_000_000L)).isEqualTo(20_000_000L);
+    }
+
+    @Test
+    void rampIncreasesRateLinearly() {
+        LoadPhase ramp = new LoadPhase("ramp", Duration.ofSeconds(10), 10, 30, false);
+
+        assertThat(ramp.rateAt(0)).isEqualTo(10);
+        assertThat(ramp.rateAt(5_000_000_000L)).isEqualTo(20);
+        assertThat(ramp.rateAt(20_000_000_000L)).isEqualTo(30);
+    }
+
+    @Test
+    void durationsAcceptCommonUnits() {
+        assertThat(LoadDriverConfig.parseDuration("500ms")).isEqualTo(Duration.ofMillis(500));
+        assertThat(LoadDriverConfig.parseDuration("30s")).isEqualTo(Duration.ofSeconds(30));
+        assertThat(LoadDriverConfig.parseDuration("2m")).isEqualTo(Duration.ofMinutes(2));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.load_driver;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhaseStatsTest {
+
+    @Test
+    void droppedRequestsCountAsTimeoutsInTheResponseTimeOnly() {
+        PhaseStats stats = new PhaseStats(new LoadPhase("steady", Duration.ofSeconds(10), 50, 50, true));
+        for (int i = 0; i < 98; i++) {
+            stats.recordLatency(0, 0, 10_000_000L); // 10ms
+        }
+        stats.dropped(Duration.ofSeconds(30));
+        stats.dropped(Duration.ofSeconds(30));
+
+        Map<String, Object> result = stats.toMap();
+        Map<?, ?> responseTime = (Map<?, ?>) result.get("responseTimeMs");
+        Map<?, ?> serviceTime = (Map<?, ?>) result.get("serviceTimeMs");
+
+        assertThat(result).containsEntry("dropped", 2L);
+        assertThat(responseTime.get("count")).isEqualTo(100L);
+        assertThat((double) responseTime.get("p99")).isGreaterThanOrEqualTo(29_000);
+        assertThat(serviceTime.get("count")).isEqualTo(98L);
+        assertThat((double) serviceTime.get("p99")).isLessThan(11);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.resilience_app.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one call through AdaptiveConcurrencyLimiter, shared by all benchmark threads like the singleton
+ * bean: permit CAS, release and the limit update every completion runs. The limits are high enough that
+ * no call is rejected.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class AdaptiveConcurrencyLimiterBenchmark {
+
+    private static final String RESPONSE = "{\"status\":\"success\"}";
+
+    @Param({"AIMD", "GRADIENT"})
+    public AdaptiveConcurrencyLimiter.Algorithm algorithm;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter("benchmark", true, algorithm, 1_000, 1_000, 10_000, 0.9, 1_000,
+                throwable -> throwable instanceof UncheckedIOException);
+    }
+
+    @Benchmark
+    public String execute() {
+        return limiter.execute(() -> RESPONSE);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.resilience_app.utils;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.core.functions.Either;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of computing the wait interval of one retry, run with all cores ({@code threads} in build.gradle).
+ * exponentialWithJitter draws from the shared Math.random generator; jitterThreadLocalBaseline shows the same
+ * computation without that shared state, so the gap between the two is the contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class IntervalFunctionBenchmark {
+
+    @Param({"1", "3"})
+    public int attempt;
+
+    private IntervalFunction fixed;
+    private IntervalFunction linear;
+    private IntervalFunction exponentialWithJitter;
+    private IntervalFunction resilience4jRandomBackoff;
+    private IntervalBiFunction<Object> retryAfter;
+    private Either<Throwable, Object> withoutHeader;
+    private Either<Throwable, Object> withHeader;
+
+    @Setup
+    public void setUp() {
+        fixed = IntervalFunctionUtils.fixed(Duration.ofMillis(500));
+        linear = IntervalFunctionUtils.linear(Duration.ofMillis(500));
+        exponentialWithJitter = IntervalFunctionUtils.exponentialWithJitter(
+                Duration.ofMillis(500), 2.0, 0.5, Duration.ofSeconds(30));
+        resilience4jRandomBackoff = IntervalFunction.ofExponentialRandomBackoff(
+                Duration.ofMillis(500), 2.0, 0.5, Duration.ofSeconds(30));
+        retryAfter = IntervalFunctionUtils.retryAfter(exponentialWithJitter, Duration.ofSeconds(10));
+        withoutHeader = Either.left(serviceUnavailable(Map.of()));
+        withHeader = Either.left(serviceUnavailable(Map.of("Retry-After", List.of("2"))));
+    }
+
+    private static FeignException serviceUnavailable(Map<String, java.util.Collection<String>> headers) {
+        Request request = Request.create(Request.HttpMethod.POST, "http://localhost:8081/api/errors",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        Response response = Response.builder()
+                .status(503)
+                .reason("Service Unavailable")
+                .request(request)
+                .headers(headers)
+                .build();
+        return FeignException.errorStatus("ProgrammaticRetryClient#simulateError", response);
+    }
+
+    @Benchmark
+    public long fixed() {
+        return fixed.apply(attempt);
+    }
+
+    @Benchmark
+    public long linear() {
+        return linear.apply(attempt);
+    }
+
+    @Benchmark
+    public long exponentialWithJitter() {
+        return exponentialWithJitter.apply(attempt);
+    }
+
+    @Benchmark
+    public long jitterThreadLocalBaseline() {
+        long baseDelay = (long) (500 * Math.pow(2.0, attempt - 1));
+        long cappedDelay = Math.min(baseDelay, 30_000);
+        double jitter = (ThreadLocalRandom.current().nextDouble() - 0.5) * 2 * 0.5;
+        return Math.max((long) (cappedDelay * (1 + jitter)), 0);
+    }
+
+    @Benchmark
+    public long resilience4jRandomBackoff() {
+        return resilience4jRandomBackoff.apply(attempt);
+    }
+
+    @Benchmark
+    public long retryAfterFallback() {
+        return retryAfter.apply(attempt, withoutHeader);
+    }
+
+    @Benchmark
+    public long retryAfterHeader() {
+        return retryAfter.apply(attempt, withHeader);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-call overhead of a Retry built from the RetryConfigUtil configs, shared by all benchmark threads like the
+ * singleton beans. Backoff waits are replaced by zero so the failure path measures bookkeeping, not sleeping.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RetryDecorationBenchmark {
+
+    private static final String RESPONSE = "{\"status\":\"success\"}";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private Supplier<String> undecorated;
+    private Supplier<String> standardSuccess;
+    private Supplier<String> randomBackoffSuccess;
+    private Supplier<String> retryAfterSuccess;
+    private Supplier<String> budgetedSuccess;
+    private Supplier<String> withEventPipelineSuccess;
+    private CheckedSupplier<String> randomBackoffFailure;
+    private CheckedSupplier<String> budgetedFailure;
+    private RetryBudget failureBudget;
+    private RetryEventPipeline pipeline;
+
+    /**
+     * Puts back the tokens one budgetedFailure call spends (one per failed attempt), outside the measured
+     * time. Without it the shared budget is empty after a few iterations and the benchmark only measures
+     * the rejection.
+     */
+    @State(Scope.Thread)
+    public static class BudgetRefill {
+
+        @Setup(Level.Invocation)
+        public void refill(RetryDecorationBenchmark benchmark) {
+            for (int i = 0; i < MAX_ATTEMPTS; i++) {
+                benchmark.failureBudget.refund();
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        undecorated = () -> RESPONSE;
+        standardSuccess = success(RetryConfigUtil.createStandardRetry(MAX_ATTEMPTS, 1, 2.0, null));
+        randomBackoffSuccess = success(RetryConfigUtil.createRandomBackoffRetry(MAX_ATTEMPTS, 500, 2.0, 0.5, 30));
+        retryAfterSuccess = success(RetryConfigUtil.createRetryAfterRetry(MAX_ATTEMPTS, 500, 2.0, 0.5, 30, 10_000));
+        // generous budget, so the CAS on the shared token counter is measured and not the rejection
+        RetryBudget budget = new RetryBudget(true, 1.0, Integer.MAX_VALUE / 1000);
+        budgetedSuccess = success(budget.applyTo(RetryConfigUtil.createRandomBackoffRetry(MAX_ATTEMPTS, 500, 2.0, 0.5, 30)));
+
+        Retry listened = Retry.of("listened", RetryConfigUtil.createRandomBackoffRetry(MAX_ATTEMPTS, 500, 2.0, 0.5, 30));
+        pipeline = new RetryEventPipeline(8192, Duration.ofSeconds(5), 0.0);
+        listened.getEventPublisher().onEvent(pipeline::onRetryEvent);
+        withEventPipelineSuccess = Retry.decorateSupplier(listened, () -> RESPONSE);
+
+        randomBackoffFailure = failure(RetryConfigUtil.createRandomBackoffRetry(MAX_ATTEMPTS, 500, 2.0, 0.5, 30));
+        failureBudget = new RetryBudget(true, 1.0, 10_000);
+        budgetedFailure = failure(failureBudget.applyTo(RetryConfigUtil.createRandomBackoffRetry(MAX_ATTEMPTS, 500, 2.0, 0.5, 30)));
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pipeline.close();
+    }
+
+    private static Supplier<String> success(RetryConfig config) {
+        return Retry.decorateSupplier(Retry.of("success", config), () -> RESPONSE);
+    }
+
+    private static CheckedSupplier<String> failure(RetryConfig config) {
+        RetryConfig withoutWaiting = RetryConfig.from(config).intervalFunction(attempt -> 0L).build();
+        return Retry.decorateCheckedSupplier(Retry.of("failure", withoutWaiting), () -> {
+            throw new ConnectException("Connection refused");
+        });
+    }
+
+    @Benchmark
+    public String undecorated() {
+        return undecorated.get();
+    }
+
+    @Benchmark
+    public String standardSuccess() {
+        return standardSuccess.get();
+    }
+
+    @Benchmark
+    public String randomBackoffSuccess() {
+        return randomBackoffSuccess.get();
+    }
+
+    @Benchmark
+    public String retryAfterSuccess() {
+        return retryAfterSuccess.get();
+    }
+
+    @Benchmark
+    public String budgetedSuccess() {
+        return budgetedSuccess.get();
+    }
+
+    @Benchmark
+    public String withEventPipelineSuccess() {
+        return withEventPipelineSuccess.get();
+    }
+
+    @Benchmark
+    public Object randomBackoffFailure() {
+        return callFailing(randomBackoffFailure);
+    }
+
+    @Benchmark
+    public Object budgetedFailure(BudgetRefill refill) {
+        return callFailing(budgetedFailure);
+    }
+
+    private static Object callFailing(CheckedSupplier<String> supplier) {
+        try {
+            return supplier.get();
+        } catch (Throwable throwable) {
+            return throwable;
+        }
+    }
+}
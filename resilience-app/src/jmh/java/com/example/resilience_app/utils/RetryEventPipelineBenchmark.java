@@ -0,0 +1,59 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.retry.event.RetryEvent;
+import io.github.resilience4j.retry.event.RetryOnErrorEvent;
+import io.github.resilience4j.retry.event.RetryOnRetryEvent;
+import io.github.resilience4j.retry.event.RetryOnSuccessEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of publishing one retry event to RetryEventPipeline from all threads at once. With a buffer sized like
+ * production the consumer falls behind and events are dropped, which is the intended overload behaviour.
+ * Summaries and detail lines go to a file (src/jmh/resources/logback.xml).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RetryEventPipelineBenchmark {
+
+    @Param({"0.0", "0.01"})
+    public double detailSampleRate;
+
+    private RetryEventPipeline pipeline;
+    private RetryEvent retry;
+    private RetryEvent success;
+    private RetryEvent error;
+
+    @Setup
+    public void setUp() {
+        pipeline = new RetryEventPipeline(8192, Duration.ofSeconds(5), detailSampleRate);
+        ConnectException failure = new ConnectException("Connection refused");
+        retry = new RetryOnRetryEvent("programmaticRetry", 1, failure, 500);
+        success = new RetryOnSuccessEvent("programmaticRetry", 2, failure);
+        error = new RetryOnErrorEvent("programmaticRetry", 3, failure);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public void retryEvent() {
+        pipeline.onRetryEvent(retry);
+    }
+
+    @Benchmark
+    public void successEvent() {
+        pipeline.onRetryEvent(success);
+    }
+
+    @Benchmark
+    public void errorEvent() {
+        pipeline.onRetryEvent(error);
+    }
+}
@@ -2,59 +2,213 @@ package com.example.resilience_app.adapter.http.adapter;
 
 import com.example.resilience_app.adapter.http.client.ProgrammaticRetryClient;
 import com.example.resilience_app.adapter.http.client.AnnotationRetryService;
+import com.example.resilience_app.adapter.http.client.ProgrammaticRetryFallBack;
 import com.example.resilience_app.model.ErrorTestRequest;
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.example.resilience_app.utils.AdaptiveConcurrencyLimiter;
+import com.example.resilience_app.utils.Deadline;
+import com.example.resilience_app.utils.LastKnownGoodCache;
+import com.example.resilience_app.utils.RetryMetrics;
+import com.example.resilience_app.utils.SingleFlight;
+import com.example.resilience_app.utils.SwappableRetry;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
-import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class TroubleMakerAdapter {
 
     private static final Logger logger = LoggerFactory.getLogger(TroubleMakerAdapter.class);
+    private static final String ANNOTATION_RETRY_NAME = "annotationRetryConfig";
+    // Single-flight key prefixes, sync and async calls of one path share their flights
+    private static final String PROGRAMMATIC_FLIGHT = "programmatic|";
+    private static final String ANNOTATION_FLIGHT = "annotation|";
 
     private final ProgrammaticRetryClient programmaticRetryClient;
+    private final ProgrammaticRetryClient programmaticAsyncClient;
     private final AnnotationRetryService annotationRetryService;
+    private final SwappableRetry programmaticRetry;
+    private final io.github.resilience4j.circuitbreaker.CircuitBreaker programmaticCircuitBreaker;
+    private final io.github.resilience4j.circuitbreaker.CircuitBreaker annotationCircuitBreaker;
+    private final ExecutorService troubleMakerCallExecutor;
+    private final ScheduledExecutorService retryScheduler;
+    private final RetryMetrics.Instance programmaticMetrics;
+    private final RetryMetrics.Instance annotationMetrics;
+    private final AdaptiveConcurrencyLimiter programmaticConcurrencyLimiter;
+    private final AdaptiveConcurrencyLimiter annotationConcurrencyLimiter;
+    private final SingleFlight<String, TroubleMakerResponse> singleFlight;
+    private final LastKnownGoodCache lastKnownGoodCache;
+    // Proxy of this bean, so calls to the @Retry methods go through the aspect
+    private final TroubleMakerAdapter self;
 
     public TroubleMakerAdapter(
-            ProgrammaticRetryClient programmaticRetryClient,
-            AnnotationRetryService annotationRetryService) {
+            @Qualifier("programmaticRetryClientBean") ProgrammaticRetryClient programmaticRetryClient,
+            @Qualifier("programmaticAsyncClientBean") ProgrammaticRetryClient programmaticAsyncClient,
+            AnnotationRetryService annotationRetryService,
+            @Qualifier("programmaticRetry") SwappableRetry programmaticRetry,
+            @Qualifier("programmaticCircuitBreaker") io.github.resilience4j.circuitbreaker.CircuitBreaker programmaticCircuitBreaker,
+            @Qualifier("annotationCircuitBreakerBean") io.github.resilience4j.circuitbreaker.CircuitBreaker annotationCircuitBreaker,
+            ExecutorService troubleMakerCallExecutor,
+            ScheduledExecutorService retryScheduler,
+            RetryMetrics retryMetrics,
+            @Qualifier("programmaticConcurrencyLimiter") AdaptiveConcurrencyLimiter programmaticConcurrencyLimiter,
+            @Qualifier("annotationConcurrencyLimiter") AdaptiveConcurrencyLimiter annotationConcurrencyLimiter,
+            SingleFlight<String, TroubleMakerResponse> troubleMakerSingleFlight,
+            LastKnownGoodCache lastKnownGoodCache,
+            @Lazy TroubleMakerAdapter self) {
         this.programmaticRetryClient = programmaticRetryClient;
+        this.programmaticAsyncClient = programmaticAsyncClient;
         this.annotationRetryService = annotationRetryService;
+        this.programmaticRetry = programmaticRetry;
+        this.programmaticCircuitBreaker = programmaticCircuitBreaker;
+        this.annotationCircuitBreaker = annotationCircuitBreaker;
+        this.troubleMakerCallExecutor = troubleMakerCallExecutor;
+        this.retryScheduler = retryScheduler;
+        this.programmaticMetrics = retryMetrics.instance(programmaticRetry.getName());
+        this.annotationMetrics = retryMetrics.instance(ANNOTATION_RETRY_NAME);
+        this.programmaticConcurrencyLimiter = programmaticConcurrencyLimiter;
+        this.annotationConcurrencyLimiter = annotationConcurrencyLimiter;
+        this.singleFlight = troubleMakerSingleFlight;
+        this.lastKnownGoodCache = lastKnownGoodCache;
+        this.self = self;
     }
 
     /**
-     * Call service with PROGRAMMATIC retry configuration
+     * Call service with PROGRAMMATIC retry configuration.
+     * Identical concurrent requests share one call (with single-flight enabled), a waiting caller whose
+     * deadline passes first gets the fallback. Failed calls fall back to the last known good response.
      */
-    public String simulateErrorWithProgrammaticRetry(ErrorTestRequest errorRequest) {
-        long startTime = System.currentTimeMillis();
-        String result = programmaticRetryClient.simulateError(errorRequest.getErrorCode(), errorRequest);
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("🏁 [PROGRAMMATIC-RETRY] call end after {}ms: {}", duration, result);
+    public TroubleMakerResponse simulateErrorWithProgrammaticRetry(ErrorTestRequest errorRequest) {
+        Optional<TroubleMakerResponse> cached = cachedWhileCircuitOpen(programmaticCircuitBreaker, errorRequest);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        try {
+            return singleFlight.execute(PROGRAMMATIC_FLIGHT + errorRequest.canonicalKey(),
+                    () -> runProgrammaticRetry(errorRequest));
+        } catch (Deadline.DeadlineExceededException e) {
+            return new ProgrammaticRetryFallBack(e, lastKnownGoodCache).simulateError(errorRequest.getErrorCode(), errorRequest);
+        }
+    }
+
+    private TroubleMakerResponse runProgrammaticRetry(ErrorTestRequest errorRequest) {
+        long startTime = System.nanoTime();
+        TroubleMakerResponse result;
+        // attempts inside the Feign client are counted for the call bound to this thread
+        try (RetryMetrics.Call ignored = programmaticMetrics.startBoundCall()) {
+            result = callTroubleMaker(programmaticRetryClient, errorRequest);
+        }
+        logger.info("🏁 [PROGRAMMATIC-RETRY] call end after {}ms: {}", elapsedMillis(startTime), result);
         return result;
     }
 
+    /**
+     * Non-blocking variant of {@link #simulateErrorWithProgrammaticRetry(ErrorTestRequest)}.
+     * Attempts run on virtual threads, backoff waits are scheduled on the shared retry scheduler.
+     * Every attempt passes the circuit breaker and the concurrency limit, like the decorated Feign client of the sync path.
+     * Attempts run with the caller's deadline bound; when it passes, the fallback is returned without waiting
+     * for a pending backoff.
+     */
+    public CompletionStage<TroubleMakerResponse> simulateErrorWithProgrammaticRetryAsync(ErrorTestRequest errorRequest) {
+        Optional<TroubleMakerResponse> cached = cachedWhileCircuitOpen(programmaticCircuitBreaker, errorRequest);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        return singleFlight.executeAsync(PROGRAMMATIC_FLIGHT + errorRequest.canonicalKey(),
+                        () -> runProgrammaticRetryAsync(errorRequest))
+                .exceptionally(throwable -> new ProgrammaticRetryFallBack(asException(unwrap(throwable)), lastKnownGoodCache)
+                        .simulateError(errorRequest.getErrorCode(), errorRequest));
+    }
+
+    private CompletionStage<TroubleMakerResponse> runProgrammaticRetryAsync(ErrorTestRequest errorRequest) {
+        long startTime = System.nanoTime();
+        RetryMetrics.Call call = programmaticMetrics.startCall();
+        Deadline deadline = Deadline.current();
+        return deadline.within(programmaticRetry.current().executeCompletionStage(retryScheduler,
+                        () -> programmaticCircuitBreaker.executeCompletionStage(
+                                () -> programmaticConcurrencyLimiter.executeCompletionStage(() -> deadline.supplyAsync(
+                                        () -> call.attempt(() -> remember(errorRequest, callTroubleMaker(programmaticAsyncClient, errorRequest))),
+                                        troubleMakerCallExecutor)))))
+                .exceptionally(throwable -> new ProgrammaticRetryFallBack(asException(unwrap(throwable)), lastKnownGoodCache)
+                        .simulateError(errorRequest.getErrorCode(), errorRequest))
+                .whenComplete((result, throwable) -> {
+                    call.close();
+                    logger.info("🏁 [PROGRAMMATIC-RETRY-ASYNC] call end after {}ms: {}", elapsedMillis(startTime), result);
+                });
+    }
+
     /**
      * Call service with @RETRY ANNOTATION configuration
-     * Original method signature: simulateErrorWithAnnotationRetry(ErrorTestRequest errorRequest)
+     * Measures the whole call around the retry aspect, the attempts are measured inside it
      */
-    @Retry(name = "annotationRetryConfig", fallbackMethod = "simulateErrorWithAnnotationRetryFallback")
-    public String simulateErrorWithAnnotationRetry(ErrorTestRequest errorRequest) {
-        long startTime = System.currentTimeMillis();
-        String result = annotationRetryService.simulateError(errorRequest.getErrorCode(), errorRequest);
-        long duration = System.currentTimeMillis() - startTime;
-        logger.info("🏁 [ANNOTATION-RETRY] call end after {}ms: {}", duration, result);
+    public TroubleMakerResponse simulateErrorWithAnnotationRetry(ErrorTestRequest errorRequest) {
+        Optional<TroubleMakerResponse> cached = cachedWhileCircuitOpen(annotationCircuitBreaker, errorRequest);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        try {
+            return singleFlight.execute(ANNOTATION_FLIGHT + errorRequest.canonicalKey(),
+                    () -> runAnnotationRetry(errorRequest));
+        } catch (Deadline.DeadlineExceededException e) {
+            return simulateErrorWithAnnotationRetryFallback(errorRequest, e);
+        }
+    }
+
+    private TroubleMakerResponse runAnnotationRetry(ErrorTestRequest errorRequest) {
+        long startTime = System.nanoTime();
+        TroubleMakerResponse result;
+        try (RetryMetrics.Call call = annotationMetrics.startCall()) {
+            result = self.callWithAnnotationRetry(errorRequest, call);
+        }
+        logger.info("🏁 [ANNOTATION-RETRY] call end after {}ms: {}", elapsedMillis(startTime), result);
         return result;
     }
 
     /**
-     * CRITICAL: The error message shows Resilience4j expects THIS exact signature:
-     * simulateErrorWithAnnotationRetryFallback(ErrorTestRequest, Throwable)
+     * One attempt, repeated by the @Retry aspect. The circuit breaker aspect runs inside the retry,
+     * so an open circuit fails the attempt with CallNotPermittedException, which is not retried.
+     * The same goes for attempts over the concurrency limit.
+     */
+    @CircuitBreaker(name = ANNOTATION_RETRY_NAME)
+    @Retry(name = ANNOTATION_RETRY_NAME, fallbackMethod = "callWithAnnotationRetryFallback")
+    public TroubleMakerResponse callWithAnnotationRetry(ErrorTestRequest errorRequest, RetryMetrics.Call call) {
+        return annotationConcurrencyLimiter.execute(
+                () -> call.attempt(() -> remember(errorRequest, callTroubleMaker(annotationRetryService, errorRequest))));
+    }
+
+    /**
+     * CRITICAL: Resilience4j expects the fallback to take the parameters of the @Retry method plus the Throwable last:
+     * callWithAnnotationRetryFallback(ErrorTestRequest, RetryMetrics.Call, Throwable)
      *
-     * NOT: simulateErrorWithAnnotationRetryFallback(Throwable, ErrorTestRequest)
+     * NOT: (Throwable, ErrorTestRequest, ...)
      */
-    public String simulateErrorWithAnnotationRetryFallback(ErrorTestRequest errorRequest, Throwable throwable) {
+    public TroubleMakerResponse callWithAnnotationRetryFallback(ErrorTestRequest errorRequest, RetryMetrics.Call call, Throwable throwable) {
+        return simulateErrorWithAnnotationRetryFallback(errorRequest, throwable);
+    }
+
+    /**
+     * Fallback response of the sync and async annotation paths
+     */
+    public TroubleMakerResponse simulateErrorWithAnnotationRetryFallback(ErrorTestRequest errorRequest, Throwable throwable) {
+        throwable = unwrap(throwable);
+        Optional<TroubleMakerResponse> stale = lastKnownGoodCache.serveStale(errorRequest.canonicalKey(), throwable);
+        if (stale.isPresent()) {
+            logger.warn("🔙 [ANNOTATION-RETRY-FALLBACK] All retries exhausted ({}), serving last known good response",
+                    throwable.getClass().getSimpleName());
+            return stale.get();
+        }
         logger.warn("🔙 [ANNOTATION-RETRY-FALLBACK] All retries exhausted, executing fallback");
         logger.warn("🔙 [ANNOTATION-RETRY-FALLBACK] Original error: {} - {}",
                 throwable.getClass().getSimpleName(), throwable.getMessage());
@@ -66,17 +220,114 @@ public class TroubleMakerAdapter {
             case "RetryableException":
                 logger.warn("🔙 [ANNOTATION-RETRY-FALLBACK] Feign retry exhausted");
                 break;
+            case "CallNotPermittedException":
+                logger.warn("🔙 [ANNOTATION-RETRY-FALLBACK] Circuit open, call short-circuited");
+                break;
+            case "LimitExceededException":
+                logger.warn("🔙 [ANNOTATION-RETRY-FALLBACK] Concurrency limit reached, call rejected");
+                break;
+            case "DeadlineExceededException":
+                logger.warn("🔙 [ANNOTATION-RETRY-FALLBACK] Deadline of the call exceeded");
+                break;
             default:
                 logger.warn("🔙 [ANNOTATION-RETRY-FALLBACK] General error fallback");
         }
-        //TODO: return a meaningful error response, this is just an example
-        return String.format(
-                "{\"status\":\"FALLBACK\",\"message\":\"Service temporarily unavailable after annotation retry\",\"errorCode\":\"%s\",\"originalError\":\"%s\",\"timestamp\":\"%s\"}",
-                errorRequest.getErrorCode(),
-                throwable.getMessage(),
-                LocalDateTime.now()
-        );
+        TroubleMakerResponse fallback = TroubleMakerResponse.fallback(
+                "Service temporarily unavailable after annotation retry", throwable);
+        fallback.setData("errorCode=" + errorRequest.getErrorCode());
+        return fallback;
+    }
+
+    /**
+     * Non-blocking variant of {@link #simulateErrorWithAnnotationRetry(ErrorTestRequest)}.
+     * The @Retry aspect retries CompletionStages asynchronously on its scheduler, attempts run on virtual threads.
+     * Retries do not run on the caller's thread, so the deadline is passed along explicitly.
+     */
+    public CompletionStage<TroubleMakerResponse> simulateErrorWithAnnotationRetryAsync(ErrorTestRequest errorRequest) {
+        Optional<TroubleMakerResponse> cached = cachedWhileCircuitOpen(annotationCircuitBreaker, errorRequest);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        return singleFlight.executeAsync(ANNOTATION_FLIGHT + errorRequest.canonicalKey(),
+                        () -> runAnnotationRetryAsync(errorRequest))
+                .exceptionally(throwable -> simulateErrorWithAnnotationRetryFallback(errorRequest, throwable));
+    }
+
+    private CompletionStage<TroubleMakerResponse> runAnnotationRetryAsync(ErrorTestRequest errorRequest) {
+        RetryMetrics.Call call = annotationMetrics.startCall();
+        Deadline deadline = Deadline.current();
+        return deadline.within(self.callWithAnnotationRetryAsync(errorRequest, call, deadline))
+                .exceptionally(throwable -> simulateErrorWithAnnotationRetryFallback(errorRequest, throwable))
+                .whenComplete((result, throwable) -> call.close());
+    }
+
+    @CircuitBreaker(name = ANNOTATION_RETRY_NAME)
+    @Retry(name = ANNOTATION_RETRY_NAME, fallbackMethod = "callWithAnnotationRetryAsyncFallback")
+    public CompletionStage<TroubleMakerResponse> callWithAnnotationRetryAsync(ErrorTestRequest errorRequest, RetryMetrics.Call call,
+                                                                              Deadline deadline) {
+        return annotationConcurrencyLimiter.executeCompletionStage(() -> deadline.supplyAsync(
+                () -> call.attempt(() -> remember(errorRequest, callTroubleMaker(annotationRetryService, errorRequest))),
+                troubleMakerCallExecutor));
+    }
+
+    public CompletionStage<TroubleMakerResponse> callWithAnnotationRetryAsyncFallback(ErrorTestRequest errorRequest, RetryMetrics.Call call,
+                                                                                      Deadline deadline, Throwable throwable) {
+        return CompletableFuture.completedFuture(simulateErrorWithAnnotationRetryFallback(errorRequest, throwable));
+    }
+
+    /**
+     * Last known good response of the request while the circuit is open, if answering from the cache is enabled
+     */
+    private Optional<TroubleMakerResponse> cachedWhileCircuitOpen(io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker,
+                                                    ErrorTestRequest errorRequest) {
+        io.github.resilience4j.circuitbreaker.CircuitBreaker.State state = circuitBreaker.getState();
+        if (state != io.github.resilience4j.circuitbreaker.CircuitBreaker.State.OPEN
+                && state != io.github.resilience4j.circuitbreaker.CircuitBreaker.State.FORCED_OPEN) {
+            return Optional.empty();
+        }
+        Optional<TroubleMakerResponse> cached = lastKnownGoodCache.serveWhileOpen(errorRequest.canonicalKey());
+        cached.ifPresent(response -> logger.info("📦 [RESPONSE-CACHE] Circuit {} is {}, answered from the cache",
+                circuitBreaker.getName(), state));
+        return cached;
     }
 
+    /**
+     * Stores the successful response of an attempt of the plain clients, the decorated programmatic client
+     * stores its own
+     */
+    private TroubleMakerResponse remember(ErrorTestRequest errorRequest, TroubleMakerResponse response) {
+        lastKnownGoodCache.store(errorRequest.canonicalKey(), response);
+        return response;
+    }
+
+    /**
+     * Profile-reference requests only send the profile name, all others the full config as body
+     */
+    private static TroubleMakerResponse callTroubleMaker(ProgrammaticRetryClient client, ErrorTestRequest errorRequest) {
+        return errorRequest.usesProfile()
+                ? client.simulateErrorWithProfile(errorRequest.getProfile())
+                : client.simulateError(errorRequest.getErrorCode(), errorRequest);
+    }
 
-}
\ No newline at end of file
+    private static TroubleMakerResponse callTroubleMaker(AnnotationRetryService service, ErrorTestRequest errorRequest) {
+        return errorRequest.usesProfile()
+                ? service.simulateErrorWithProfile(errorRequest.getProfile())
+                : service.simulateError(errorRequest.getErrorCode(), errorRequest);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        while ((throwable instanceof CompletionException || throwable instanceof ExecutionException)
+                && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private static Exception asException(Throwable throwable) {
+        return throwable instanceof Exception exception ? exception : new RuntimeException(throwable);
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.resilience_app.adapter.http.api;
+
+import com.example.resilience_app.adapter.http.adapter.TroubleMakerAdapter;
+import com.example.resilience_app.model.BatchTestRequest;
+import com.example.resilience_app.model.ErrorTestRequest;
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.example.resilience_app.utils.Deadline;
+import com.example.resilience_app.utils.IntervalHistogram;
+import com.example.resilience_app.utils.RetryMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs many test calls in one request: each call on its own virtual thread, at most parallelism at once.
+ * Results are streamed as NDJSON while they arrive, one line per call and a summary line at the end,
+ * so neither the results nor the pending calls of a large batch are held in memory.
+ */
+@RestController
+@RequestMapping("/api/test")
+public class BatchTestController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchTestController.class);
+    private static final double MICROS_PER_MILLI = 1000d;
+
+    private enum Outcome {
+        SUCCESS, STALE, FALLBACK, ERROR
+    }
+
+    private final TroubleMakerAdapter troubleMakerAdapter;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.batch.default-parallelism:32}")
+    private int defaultParallelism;
+
+    @Value("${app.batch.max-parallelism:256}")
+    private int maxParallelism;
+
+    @Value("${app.batch.max-items:100000}")
+    private int maxItems;
+
+    @Value("${app.batch.timeout:600000}")
+    private long timeout;
+
+    @Value("${app.deadline.enabled:true}")
+    private boolean deadlineEnabled;
+
+    @Value("${app.deadline.default-budget:15000}")
+    private long deadlineBudget;
+
+    public BatchTestController(TroubleMakerAdapter troubleMakerAdapter, ObjectMapper objectMapper) {
+        this.troubleMakerAdapter = troubleMakerAdapter;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Streams {"type":"result",...} per call in completion order, then {"type":"summary",...}
+     * with outcome counts, attempts and latency percentiles. Every call gets the default deadline budget.
+     * The declared emitter type is what lets Spring stream the body, invalid batches answer through one as well.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ResponseBodyEmitter> batch(@RequestBody BatchTestRequest batch) throws IOException {
+        Function<ErrorTestRequest, TroubleMakerResponse> call = switch (String.valueOf(batch.getPath()).toLowerCase()) {
+            case "programmatic" -> troubleMakerAdapter::simulateErrorWithProgrammaticRetry;
+            case "annotation" -> troubleMakerAdapter::simulateErrorWithAnnotationRetry;
+            default -> null;
+        };
+        if (call == null) {
+            return badRequest("path must be programmatic or annotation");
+        }
+        int size = batch.size();
+        if (size < 1 || size > maxItems) {
+            return badRequest("Send 1 to " + maxItems + " requests, or one request with a count in that range");
+        }
+        int parallelism = Math.clamp(batch.getParallelism() != null ? batch.getParallelism() : defaultParallelism,
+                1, maxParallelism);
+
+        logger.info("📦 [BATCH] Starting batch: {}, parallelism {}", batch, parallelism);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout);
+        BatchRun run = new BatchRun(batch.getPath(), emitter);
+        emitter.onTimeout(run::abort);
+        emitter.onError(throwable -> run.abort());
+        Thread.ofVirtual().name("batch-", 0).start(() -> run.execute(batch, size, parallelism, call));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    private ResponseEntity<ResponseBodyEmitter> badRequest(String error) throws IOException {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        emitter.send(objectMapper.writeValueAsBytes(Map.of("error", error)), MediaType.APPLICATION_JSON);
+        emitter.complete();
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+
+    /**
+     * State of one running batch
+     */
+    private final class BatchRun {
+
+        private final String path;
+        private final ResponseBodyEmitter emitter;
+        private final AtomicBoolean aborted = new AtomicBoolean();
+        private final Map<Outcome, LongAdder> outcomes = new LinkedHashMap<>();
+        private final LongAdder attempts = new LongAdder();
+        private final IntervalHistogram latency = new IntervalHistogram();
+
+        private BatchRun(String path, ResponseBodyEmitter emitter) {
+            this.path = path;
+            this.emitter = emitter;
+            for (Outcome outcome : Outcome.values()) {
+                outcomes.put(outcome, new LongAdder());
+            }
+        }
+
+        private void execute(BatchTestRequest batch, int size, int parallelism,
+                             Function<ErrorTestRequest, TroubleMakerResponse> call) {
+            long start = System.nanoTime();
+            Semaphore permits = new Semaphore(parallelism);
+            int submitted = 0;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (; submitted < size && !aborted.get(); submitted++) {
+                    permits.acquire();
+                    int index = submitted;
+                    ErrorTestRequest request = batch.requestAt(index);
+                    executor.execute(() -> {
+                        try {
+                            runCall(index, request, call);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                abort();
+            }
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.info("📦 [BATCH] Batch of {} calls done after {}ms, aborted: {}", submitted, durationMs, aborted.get());
+            if (send(summary(submitted, durationMs))) {
+                emitter.complete();
+            }
+        }
+
+        private void runCall(int index, ErrorTestRequest request, Function<ErrorTestRequest, TroubleMakerResponse> call) {
+            long start = System.nanoTime();
+            int[] callAttempts = new int[1];
+            TroubleMakerResponse response = null;
+            Throwable error = null;
+            try (Deadline.Scope ignored = (deadlineEnabled ? Deadline.after(deadlineBudget) : Deadline.NONE).bind()) {
+                response = RetryMetrics.countAttempts(() -> call.apply(request), count -> callAttempts[0] = count);
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            Outcome outcome = error != null ? Outcome.ERROR : outcome(response);
+            outcomes.get(outcome).increment();
+            attempts.add(callAttempts[0]);
+            latency.record(latencyMicros);
+
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("type", "result");
+            line.put("index", index);
+            line.put("outcome", outcome);
+            line.put("latencyMs", latencyMicros / MICROS_PER_MILLI);
+            line.put("attempts", callAttempts[0]);
+            if (error != null) {
+                line.put("error", error.getClass().getSimpleName() + ": " + error.getMessage());
+            } else {
+                line.put("result", response);
+            }
+            send(line);
+        }
+
+        private Map<String, Object> summary(int submitted, long durationMs) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("type", "summary");
+            summary.put("path", path);
+            summary.put("calls", submitted);
+            outcomes.forEach((outcome, count) -> summary.put(outcome.name().toLowerCase(), count.sum()));
+            summary.put("attempts", attempts.sum());
+            summary.put("latencyMs", IntervalHistogram.summarize(latency.cumulative(), MICROS_PER_MILLI));
+            summary.put("durationMs", durationMs);
+            summary.put("aborted", aborted.get());
+            return summary;
+        }
+
+        /**
+         * One NDJSON line; a failed send means the client is gone, no further calls are started
+         */
+        private boolean send(Map<String, Object> line) {
+            if (aborted.get()) {
+                return false;
+            }
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(line);
+                byte[] ndjson = new byte[json.length + 1];
+                System.arraycopy(json, 0, ndjson, 0, json.length);
+                ndjson[json.length] = '\n';
+                emitter.send(ndjson, MediaType.APPLICATION_NDJSON);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                if (aborted.compareAndSet(false, true)) {
+                    logger.warn("📦 [BATCH] Client gone, stopping the batch: {}", e.getMessage());
+                }
+                return false;
+            }
+        }
+
+        private void abort() {
+            aborted.set(true);
+        }
+    }
+
+    /**
+     * Decoded trouble-maker responses are successes, fallbacks tell by their status
+     */
+    private static Outcome outcome(TroubleMakerResponse response) {
+        if (response == null) {
+            return Outcome.ERROR;
+        }
+        return switch (String.valueOf(response.getStatus())) {
+            case TroubleMakerResponse.STATUS_STALE -> Outcome.STALE;
+            case TroubleMakerResponse.STATUS_FALLBACK -> Outcome.FALLBACK;
+            default -> Outcome.SUCCESS;
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.resilience_app.adapter.http.api;
+
+import com.example.resilience_app.utils.Deadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the time budget of each /api/test call to the request thread: the caller's remaining budget from
+ * {@link Deadline#HEADER_NAME} if sent, capped at the default budget.
+ */
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineFilter.class);
+
+    @Value("${app.deadline.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.deadline.default-budget:15000}")
+    private long defaultBudget;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/test");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long budget = defaultBudget;
+        String callerBudget = request.getHeader(Deadline.HEADER_NAME);
+        if (callerBudget != null) {
+            try {
+                budget = Math.min(budget, Long.parseLong(callerBudget.trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("⏱️ [DEADLINE] Ignoring invalid {} header: {}", Deadline.HEADER_NAME, callerBudget);
+            }
+        }
+        try (Deadline.Scope ignored = Deadline.after(budget).bind()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -1,20 +1,21 @@
 package com.example.resilience_app.adapter.http.api;
 
 import com.example.resilience_app.adapter.http.adapter.TroubleMakerAdapter;
-import com.example.resilience_app.config.service.ProgrammaticRetryConfig;
 import com.example.resilience_app.model.ErrorTestRequest;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.resilience_app.model.RetryStrategy;
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.example.resilience_app.utils.SwappableRetry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/test")
@@ -23,8 +24,8 @@ public class ResilienceAppController {
     private static final Logger logger = LoggerFactory.getLogger(ResilienceAppController.class);
 
     private final TroubleMakerAdapter troubleMakerAdapter;
-    private final ProgrammaticRetryConfig programmaticRetryConfig;
-    private final ObjectMapper objectMapper;
+    private final SwappableRetry programmaticRetry;
+    private final SwappableRetry annotationRetry;
 
     @Value("${resilience4j.retry.instances.annotationRetryConfig.max-attempts}")
     private int annotationMaxAttempts;
@@ -36,11 +37,11 @@ public class ResilienceAppController {
     private double annotationMultiplier;
 
     public ResilienceAppController(TroubleMakerAdapter troubleMakerAdapter,
-                                   ProgrammaticRetryConfig programmaticRetryConfig,
-                                   ObjectMapper objectMapper) {
+                                   @Qualifier("programmaticRetry") SwappableRetry programmaticRetry,
+                                   @Qualifier("annotationRetry") SwappableRetry annotationRetry) {
         this.troubleMakerAdapter = troubleMakerAdapter;
-        this.programmaticRetryConfig = programmaticRetryConfig;
-        this.objectMapper = objectMapper;
+        this.programmaticRetry = programmaticRetry;
+        this.annotationRetry = annotationRetry;
     }
 
     /**
@@ -64,7 +65,7 @@ public class ResilienceAppController {
         logger.info("👨‍💻 [PROGRAMMATIC-RETRY] Starting call with FEIGN BUILDER + RetryConfig");
         logger.info("⚙️ [PROGRAMMATIC-RETRY] Error config: errorCode={}, errorRate={}, delay={}ms",
                 errorRequest.getErrorCode(), errorRequest.getErrorRate(), errorRequest.getResponseDelayMs());
-        String result = troubleMakerAdapter.simulateErrorWithProgrammaticRetry(errorRequest);
+        TroubleMakerResponse result = troubleMakerAdapter.simulateErrorWithProgrammaticRetry(errorRequest);
         logger.info("Programmatic retry call successful: {}", result);
 
         return ResponseEntity.ok(Map.of(
@@ -91,14 +92,14 @@ public class ResilienceAppController {
         logger.info("Configuration: @Retry Annotation + YAML Config");
         logger.info("Error request: {}", errorRequest);
 
-        String strategyDescription = "@RETRY ANNOTATION - YAML Configuration";
+        String strategyDescription = buildAnnotationStrategyDescription();
         String configurationDescription = buildAnnotationConfigurationDescription();
 
 
         logger.info("＠ [ANNOTATION-RETRY] Starting call with @RETRY ANNOTATION + YAML configuration");
         logger.info("⚙️ [ANNOTATION-RETRY] Error config: errorCode={}, errorRate={}, delay={}ms",
                 errorRequest.getErrorCode(), errorRequest.getErrorRate(), errorRequest.getResponseDelayMs());
-        String result = troubleMakerAdapter.simulateErrorWithAnnotationRetry(errorRequest);
+        TroubleMakerResponse result = troubleMakerAdapter.simulateErrorWithAnnotationRetry(errorRequest);
         logger.info("Annotation retry call successful: {}", result);
 
         return ResponseEntity.ok(Map.of(
@@ -113,36 +114,101 @@ public class ResilienceAppController {
     }
 
     /**
-     * Build programmatic strategy description from configuration
+     * Non-blocking PROGRAMMATIC retry: the request thread is released while attempts and backoff waits run
+     */
+    @PostMapping("/programmatic/retry/async")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> testProgrammaticRetryAsync(@RequestBody(required = false) ErrorTestRequest errorRequest) {
+        ErrorTestRequest request = errorRequest != null ? errorRequest : createDefaultErrorRequest();
+        logger.info("👨‍💻 [PROGRAMMATIC-RETRY-ASYNC] Starting call with FEIGN BUILDER + RetryConfig, error request: {}", request);
+
+        String strategyDescription = buildProgrammaticStrategyDescription() + " (async)";
+        String configurationDescription = buildProgrammaticConfigurationDescription();
+        return troubleMakerAdapter.simulateErrorWithProgrammaticRetryAsync(request)
+                .thenApply(result -> successResponse(strategyDescription, configurationDescription, result))
+                .toCompletableFuture();
+    }
+
+    /**
+     * Non-blocking @RETRY ANNOTATION retry: the request thread is released while attempts and backoff waits run
+     */
+    @PostMapping("/annotation/retry/async")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> testAnnotationRetryAsync(@RequestBody(required = false) ErrorTestRequest errorRequest) {
+        ErrorTestRequest request = errorRequest != null ? errorRequest : createDefaultErrorRequest();
+        logger.info("＠ [ANNOTATION-RETRY-ASYNC] Starting call with @RETRY ANNOTATION + YAML configuration, error request: {}", request);
+
+        String strategyDescription = buildAnnotationStrategyDescription() + " (async)";
+        String configurationDescription = buildAnnotationConfigurationDescription();
+        return troubleMakerAdapter.simulateErrorWithAnnotationRetryAsync(request)
+                .thenApply(result -> successResponse(strategyDescription, configurationDescription, result))
+                .toCompletableFuture();
+    }
+
+    private ResponseEntity<Map<String, Object>> successResponse(String strategyDescription, String configurationDescription, TroubleMakerResponse result) {
+        return ResponseEntity.ok(Map.of(
+                "status", "SUCCESS",
+                "strategy", strategyDescription,
+                "configuration", configurationDescription,
+                "result", formatResult(result),
+                "timestamp", LocalDateTime.now()
+        ));
+    }
+
+    /**
+     * Build programmatic strategy description from the current strategy
      */
     private String buildProgrammaticStrategyDescription() {
         return String.format("Feign Builder - %s",
-                programmaticRetryConfig.getStrategy().replace("-", " ").toUpperCase());
+                programmaticRetry.getStrategy().strategy().replace("-", " ").toUpperCase());
     }
 
     /**
-     * Build programmatic configuration description from YAML values
+     * Build programmatic configuration description from the current strategy
      */
     private String buildProgrammaticConfigurationDescription() {
-        if ("random-backoff".equals(programmaticRetryConfig.getStrategy())) {
+        return describe(programmaticRetry.getStrategy());
+    }
+
+    private static String describe(RetryStrategy strategy) {
+        if ("random-backoff".equals(strategy.strategy())) {
             return String.format("%d attempts, exponential random backoff (%dms-%ds, multiplier: %.1f, randomization: %.1f)",
-                    programmaticRetryConfig.getMaxAttempts(),
-                    programmaticRetryConfig.getInitialInterval(),
-                    programmaticRetryConfig.getMaxInterval() / 1000,
-                    programmaticRetryConfig.getMultiplier(),
-                    programmaticRetryConfig.getRandomizationFactor());
+                    strategy.maxAttempts(),
+                    strategy.initialInterval(),
+                    strategy.maxInterval() / 1000,
+                    strategy.multiplier(),
+                    strategy.randomizationFactor());
+        } else if ("retry-after".equals(strategy.strategy())) {
+            return String.format("%d attempts, Retry-After header (max %dms), fallback exponential jitter backoff (%dms-%ds, multiplier: %.1f)",
+                    strategy.maxAttempts(),
+                    strategy.maxRetryAfter(),
+                    strategy.initialInterval(),
+                    strategy.maxInterval() / 1000,
+                    strategy.multiplier());
         } else {
             return String.format("%d attempts, exponential backoff (%dms, multiplier: %.1f)",
-                    programmaticRetryConfig.getMaxAttempts(),
-                    programmaticRetryConfig.getInitialInterval(),
-                    programmaticRetryConfig.getMultiplier());
+                    strategy.maxAttempts(),
+                    strategy.initialInterval(),
+                    strategy.multiplier());
         }
     }
 
     /**
-     * Build annotation configuration description from YAML values
+     * Build annotation strategy description, YAML unless a strategy has been swapped in
+     */
+    private String buildAnnotationStrategyDescription() {
+        RetryStrategy strategy = annotationRetry.getStrategy();
+        return strategy == null
+                ? "@RETRY ANNOTATION - YAML Configuration"
+                : "@RETRY ANNOTATION - " + strategy.strategy().replace("-", " ").toUpperCase();
+    }
+
+    /**
+     * Build annotation configuration description from YAML values or the swapped in strategy
      */
     private String buildAnnotationConfigurationDescription() {
+        RetryStrategy strategy = annotationRetry.getStrategy();
+        if (strategy != null) {
+            return describe(strategy);
+        }
         return String.format("%d attempts, exponential backoff (%s with %.1fx multiplier)",
                 annotationMaxAttempts,
                 annotationWaitDuration,
@@ -150,27 +216,10 @@ public class ResilienceAppController {
     }
 
     /**
-     * Format the result to be more readable in Bruno/API responses
+     * The typed response is serialized as it is, empty responses get a placeholder
      */
-    private Object formatResult(String result) {
-        if (result == null || result.trim().isEmpty()) {
-            return "Empty response";
-        }
-
-        try {
-            if (result.trim().startsWith("{") || result.trim().startsWith("[")) {
-                return objectMapper.readValue(result, Object.class);
-            }
-        } catch (JsonProcessingException e) {
-            logger.warn("Failed to parse result as JSON: {}", e.getMessage());
-        }
-
-        Map<String, Object> formattedResult = new LinkedHashMap<>();
-        formattedResult.put("message", result);
-        formattedResult.put("type", "text/plain");
-        formattedResult.put("length", result.length());
-
-        return formattedResult;
+    private Object formatResult(TroubleMakerResponse result) {
+        return result != null ? result : "Empty response";
     }
 
     /**
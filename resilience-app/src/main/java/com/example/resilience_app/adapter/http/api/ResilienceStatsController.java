@@ -0,0 +1,257 @@
+package com.example.resilience_app.adapter.http.api;
+
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.example.resilience_app.utils.AdaptiveConcurrencyLimiter;
+import com.example.resilience_app.utils.HedgingDecorator;
+import com.example.resilience_app.utils.HttpTransport;
+import com.example.resilience_app.utils.LastKnownGoodCache;
+import com.example.resilience_app.utils.PinningMonitor;
+import com.example.resilience_app.utils.RetryBudget;
+import com.example.resilience_app.utils.RetryEventPipeline;
+import com.example.resilience_app.utils.RetryMetrics;
+import com.example.resilience_app.utils.SingleFlight;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * View on the runtime state of the resilience layer
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class ResilienceStatsController {
+
+    private final RetryBudget retryBudget;
+    private final HedgingDecorator programmaticHedging;
+    private final RetryEventPipeline retryEventPipeline;
+    private final RetryMetrics retryMetrics;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final List<AdaptiveConcurrencyLimiter> concurrencyLimiters;
+    private final List<HttpTransport> httpTransports;
+    private final SingleFlight<String, TroubleMakerResponse> troubleMakerSingleFlight;
+    private final LastKnownGoodCache lastKnownGoodCache;
+    private final PinningMonitor pinningMonitor;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public ResilienceStatsController(RetryBudget retryBudget, HedgingDecorator programmaticHedging,
+                                     RetryEventPipeline retryEventPipeline, RetryMetrics retryMetrics,
+                                     CircuitBreakerRegistry circuitBreakerRegistry,
+                                     List<AdaptiveConcurrencyLimiter> concurrencyLimiters,
+                                     List<HttpTransport> httpTransports,
+                                     SingleFlight<String, TroubleMakerResponse> troubleMakerSingleFlight,
+                                     LastKnownGoodCache lastKnownGoodCache,
+                                     PinningMonitor pinningMonitor) {
+        this.retryBudget = retryBudget;
+        this.programmaticHedging = programmaticHedging;
+        this.retryEventPipeline = retryEventPipeline;
+        this.retryMetrics = retryMetrics;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.concurrencyLimiters = concurrencyLimiters;
+        this.httpTransports = httpTransports;
+        this.troubleMakerSingleFlight = troubleMakerSingleFlight;
+        this.lastKnownGoodCache = lastKnownGoodCache;
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    /**
+     * Token level and rejection count of the retry budget shared by all retry instances
+     */
+    @GetMapping("/retry-budget")
+    public ResponseEntity<Map<String, Object>> retryBudget() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", retryBudget.isEnabled());
+        stats.put("tokenRatio", retryBudget.getTokenRatio());
+        stats.put("maxTokens", retryBudget.getMaxTokens());
+        stats.put("availableTokens", retryBudget.getAvailableTokens());
+        stats.put("acquiredRetries", retryBudget.getAcquiredRetries());
+        stats.put("rejectedRetries", retryBudget.getRejectedRetries());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Hedge counters of the programmatic client
+     */
+    @GetMapping("/hedging")
+    public ResponseEntity<Map<String, Object>> hedging() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("delayMode", programmaticHedging.getDelayMode());
+        stats.put("currentDelayMs", programmaticHedging.getCurrentDelayMillis());
+        stats.put("maxHedgesInFlight", programmaticHedging.getMaxHedgesInFlight());
+        stats.put("hedgesInFlight", programmaticHedging.getHedgesInFlight());
+        stats.put("calls", programmaticHedging.getCalls());
+        stats.put("hedgesFired", programmaticHedging.getHedgesFired());
+        stats.put("hedgesWon", programmaticHedging.getHedgesWon());
+        stats.put("hedgesRejected", programmaticHedging.getHedgesRejected());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * State and sliding window metrics per circuit breaker
+     */
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<Map<String, Object>> circuitBreakers() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (CircuitBreaker circuitBreaker : circuitBreakerRegistry.getAllCircuitBreakers()) {
+            CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+            Map<String, Object> instance = new LinkedHashMap<>();
+            instance.put("state", circuitBreaker.getState());
+            instance.put("failureRate", metrics.getFailureRate());
+            instance.put("bufferedCalls", metrics.getNumberOfBufferedCalls());
+            instance.put("failedCalls", metrics.getNumberOfFailedCalls());
+            instance.put("successfulCalls", metrics.getNumberOfSuccessfulCalls());
+            instance.put("notPermittedCalls", metrics.getNumberOfNotPermittedCalls());
+            stats.put(circuitBreaker.getName(), instance);
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Current adaptive limit, calls in flight and rejections per client
+     */
+    @GetMapping("/concurrency-limits")
+    public ResponseEntity<Map<String, Object>> concurrencyLimits() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (AdaptiveConcurrencyLimiter limiter : concurrencyLimiters) {
+            Map<String, Object> instance = new LinkedHashMap<>();
+            instance.put("enabled", limiter.isEnabled());
+            instance.put("algorithm", limiter.getAlgorithm());
+            instance.put("limit", limiter.getLimit());
+            instance.put("minLimit", limiter.getMinLimit());
+            instance.put("maxLimit", limiter.getMaxLimit());
+            instance.put("inFlight", limiter.getInFlight());
+            instance.put("accepted", limiter.getAccepted());
+            instance.put("rejected", limiter.getRejected());
+            instance.put("overloadSignals", limiter.getOverloadSignals());
+            stats.put(limiter.getName(), instance);
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Connection pool usage per client: leased connections in use, pending requests waiting for one
+     */
+    @GetMapping("/http-pools")
+    public ResponseEntity<Map<String, Object>> httpPools() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (HttpTransport transport : httpTransports) {
+            Map<String, Object> instance = new LinkedHashMap<>();
+            instance.put("transport", transport.getType());
+            instance.putAll(transport.getPoolStats());
+            stats.put(transport.getName(), instance);
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Calls that led a flight, joined one in flight or bypassed the full in-flight table
+     */
+    @GetMapping("/single-flight")
+    public ResponseEntity<Map<String, Object>> singleFlight() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", troubleMakerSingleFlight.isEnabled());
+        stats.put("maxInFlight", troubleMakerSingleFlight.getMaxInFlight());
+        stats.put("inFlight", troubleMakerSingleFlight.getInFlight());
+        stats.put("leaders", troubleMakerSingleFlight.getLeaders());
+        stats.put("coalesced", troubleMakerSingleFlight.getCoalesced());
+        stats.put("bypassed", troubleMakerSingleFlight.getBypassed());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Last-known-good cache: lookups happen only for failed calls, so a hit is a stale response served
+     * instead of the plain fallback
+     */
+    @GetMapping("/response-cache")
+    public ResponseEntity<Map<String, Object>> responseCache() {
+        CacheStats cacheStats = lastKnownGoodCache.getStats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", lastKnownGoodCache.isEnabled());
+        stats.put("serveWhileCircuitOpen", lastKnownGoodCache.isServeWhileOpen());
+        stats.put("size", lastKnownGoodCache.getSize());
+        stats.put("stored", lastKnownGoodCache.getStored());
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("evictions", cacheStats.evictionCount());
+        stats.put("staleServed", lastKnownGoodCache.getStaleServed());
+        stats.put("servedWhileCircuitOpen", lastKnownGoodCache.getServedWhileOpen());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Execution mode, platform threads and heap of the JVM, and virtual threads pinned to their carrier per site.
+     * Platform thread counts include the carrier threads, virtual threads are not counted.
+     */
+    @GetMapping("/threads")
+    public ResponseEntity<Map<String, Object>> threads() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("virtualThreads", virtualThreads);
+        stats.put("platformThreads", threadBean.getThreadCount());
+        stats.put("peakPlatformThreads", threadBean.getPeakThreadCount());
+        stats.put("heapUsedBytes", heap.getUsed());
+        stats.put("heapCommittedBytes", heap.getCommitted());
+        stats.put("pinning", pinningMonitor.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Cumulative retry event counters per instance, as of the last summary
+     */
+    @GetMapping("/retry-events")
+    public ResponseEntity<Map<String, Object>> retryEvents() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", retryEventPipeline.getCapacity());
+        stats.put("published", retryEventPipeline.getPublished());
+        stats.put("dropped", retryEventPipeline.getDropped());
+        stats.put("detailSampleRate", retryEventPipeline.getDetailSampleRate());
+        stats.put("instances", retryEventPipeline.getTotals());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Logs the given share of retry events in detail (0 = summaries only, 1 = every event)
+     */
+    @PutMapping("/retry-events/detail-sample-rate")
+    public ResponseEntity<Map<String, Object>> detailSampleRate(@RequestParam double rate) {
+        if (rate < 0 || rate > 1) {
+            return ResponseEntity.badRequest().body(Map.of("error", "rate must be between 0 and 1"));
+        }
+        retryEventPipeline.setDetailSampleRate(rate);
+        return ResponseEntity.ok(Map.of("detailSampleRate", rate));
+    }
+
+    /**
+     * Latency and attempt histograms per retry instance since the last reset
+     */
+    @GetMapping("/histograms")
+    public ResponseEntity<Map<String, Object>> histograms() {
+        return ResponseEntity.ok(retryMetrics.cumulative());
+    }
+
+    /**
+     * Histograms of the values recorded since the previous interval snapshot, starts the next interval
+     */
+    @GetMapping("/histograms/interval")
+    public ResponseEntity<Map<String, Object>> histogramInterval() {
+        return ResponseEntity.ok(retryMetrics.interval());
+    }
+
+    @DeleteMapping("/histograms")
+    public ResponseEntity<Void> resetHistograms() {
+        retryMetrics.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.resilience_app.adapter.http.api;
+
+import com.example.resilience_app.model.RetryStrategy;
+import com.example.resilience_app.utils.SwappableRetry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retry strategies of the programmatic and the annotation instance, swappable without a restart.
+ * Calls in flight finish on the strategy they started with.
+ */
+@RestController
+@RequestMapping("/api/retry-strategies")
+public class RetryStrategyController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryStrategyController.class);
+
+    private final List<SwappableRetry> swappableRetries;
+
+    public RetryStrategyController(List<SwappableRetry> swappableRetries) {
+        this.swappableRetries = swappableRetries;
+    }
+
+    /**
+     * Current strategy per instance, null while an instance still runs on its YAML config
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> strategies() {
+        Map<String, Object> strategies = new LinkedHashMap<>();
+        for (SwappableRetry retry : swappableRetries) {
+            strategies.put(retry.getName(), describe(retry));
+        }
+        return ResponseEntity.ok(strategies);
+    }
+
+    /**
+     * Swaps the strategy of one instance. Invalid strategies fail in the RetryStrategy constructor
+     * and are answered with 400 by Spring.
+     */
+    @PutMapping("/{instance}")
+    public ResponseEntity<Map<String, Object>> swap(@PathVariable String instance, @RequestBody RetryStrategy strategy) {
+        SwappableRetry retry = swappableRetries.stream()
+                .filter(candidate -> candidate.getName().equals(instance))
+                .findFirst()
+                .orElse(null);
+        if (retry == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Unknown retry instance: " + instance));
+        }
+        if (retry.swap(strategy)) {
+            logger.info("🔄 [RETRY-STRATEGY] {} swapped to {}", instance, strategy);
+        }
+        return ResponseEntity.ok(describe(retry));
+    }
+
+    private static Map<String, Object> describe(SwappableRetry retry) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("strategy", retry.getStrategy());
+        description.put("maxAttempts", retry.current().getRetryConfig().getMaxAttempts());
+        description.put("swaps", retry.getSwaps());
+        description.put("swappedAt", retry.getSwappedAt());
+        return description;
+    }
+}
@@ -1,13 +1,31 @@
 package com.example.resilience_app.adapter.http.client;
 
 import com.example.resilience_app.model.ErrorTestRequest;
+import com.example.resilience_app.model.SimulationOutcome;
+import com.example.resilience_app.model.TroubleMakerResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "annotationRetryService", url = "${app.troubleMaker.url}")
+import java.util.List;
+
+@FeignClient(name = "annotationRetryService", url = "${app.troubleMaker.url}",
+        configuration = AnnotationRetryServiceConfiguration.class)
 public interface AnnotationRetryService {
     @PostMapping("/api/errors")
-    String simulateError(@RequestParam("errorCode") String errorCode, @RequestBody ErrorTestRequest errorConfig);
-}
\ No newline at end of file
+    TroubleMakerResponse simulateError(@RequestParam("errorCode") String errorCode, @RequestBody ErrorTestRequest errorConfig);
+
+    /**
+     * Uses a named profile stored in trouble-maker, no request body
+     */
+    @PostMapping("/api/errors")
+    TroubleMakerResponse simulateErrorWithProfile(@RequestParam("profile") String profile);
+
+    /**
+     * Evaluates many configs in one round trip, one outcome per item in order. Only the decision is simulated,
+     * trouble-maker does not apply the delays of a batch.
+     */
+    @PostMapping("/api/errors/batch")
+    List<SimulationOutcome> simulateErrorBatch(@RequestBody List<ErrorTestRequest> items);
+}
@@ -0,0 +1,36 @@
+package com.example.resilience_app.adapter.http.client;
+
+import com.example.resilience_app.utils.DeadlineAwareClient;
+import com.example.resilience_app.utils.HttpTransport;
+import com.example.resilience_app.utils.JacksonStreamingDecoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Client;
+import feign.Request;
+import feign.codec.Decoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign client configuration of {@link AnnotationRetryService}, only applied to that client.
+ * Deliberately not a @Configuration, otherwise component scanning would make it the default of every Feign client.
+ */
+public class AnnotationRetryServiceConfiguration {
+
+    @Bean
+    public Client feignClient(@Qualifier("annotationHttpTransport") HttpTransport annotationHttpTransport) {
+        return new DeadlineAwareClient(annotationHttpTransport.client());
+    }
+
+    @Bean
+    public Request.Options feignRequestOptions(@Qualifier("annotationHttpTransport") HttpTransport annotationHttpTransport) {
+        return annotationHttpTransport.options();
+    }
+
+    /**
+     * Same typed, single-pass decoding as the programmatic client, with Spring's shared ObjectMapper
+     */
+    @Bean
+    public Decoder feignDecoder(ObjectMapper objectMapper) {
+        return new JacksonStreamingDecoder(objectMapper);
+    }
+}
@@ -1,15 +1,33 @@
 package com.example.resilience_app.adapter.http.client;
 
 import com.example.resilience_app.model.ErrorTestRequest;
+import com.example.resilience_app.model.SimulationOutcome;
+import com.example.resilience_app.model.TroubleMakerResponse;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 /**
  * Feign client for programmatic retry testing.
  * This client is used to simulate errors and test the retry mechanism.
  */
 public interface ProgrammaticRetryClient {
     @PostMapping("/api/errors")
-    String simulateError(@RequestParam("errorCode") String errorCode, @RequestBody ErrorTestRequest errorConfig);
+    TroubleMakerResponse simulateError(@RequestParam("errorCode") String errorCode, @RequestBody ErrorTestRequest errorConfig);
+
+    /**
+     * Uses a named profile stored in trouble-maker, no request body
+     */
+    @PostMapping("/api/errors")
+    TroubleMakerResponse simulateErrorWithProfile(@RequestParam("profile") String profile);
+
+    /**
+     * Evaluates many configs in one round trip, one outcome per item in order. Only the decision is simulated,
+     * trouble-maker does not apply the delays of a batch. Sent once, never hedged or retried; when it fails,
+     * every item gets a fallback outcome.
+     */
+    @PostMapping("/api/errors/batch")
+    List<SimulationOutcome> simulateErrorBatch(@RequestBody List<ErrorTestRequest> items);
 }
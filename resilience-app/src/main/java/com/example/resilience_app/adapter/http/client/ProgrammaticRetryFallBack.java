@@ -1,35 +1,84 @@
 package com.example.resilience_app.adapter.http.client;
 
 import com.example.resilience_app.model.ErrorTestRequest;
+import com.example.resilience_app.model.SimulationOutcome;
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.example.resilience_app.utils.AdaptiveConcurrencyLimiter;
+import com.example.resilience_app.utils.Deadline;
+import com.example.resilience_app.utils.LastKnownGoodCache;
 import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ProgrammaticRetryFallBack implements ProgrammaticRetryClient {
     private static final Logger logger = LoggerFactory.getLogger(ProgrammaticRetryFallBack.class);
 
     private Exception e;
+    private final LastKnownGoodCache lastKnownGoodCache;
 
-    public ProgrammaticRetryFallBack(Exception cause) {
+    public ProgrammaticRetryFallBack(Exception cause, LastKnownGoodCache lastKnownGoodCache) {
         this.e = cause;
+        this.lastKnownGoodCache = lastKnownGoodCache;
+    }
+
+    public TroubleMakerResponse simulateError(String errorCode, ErrorTestRequest errorConfig) {
+        return staleOrFallback(errorConfig.canonicalKey());
     }
 
-    public String simulateError(String errorCode, ErrorTestRequest errorConfig) {
+    public TroubleMakerResponse simulateErrorWithProfile(String profile) {
+        return staleOrFallback(ErrorTestRequest.profileKey(profile));
+    }
+
+    /**
+     * Batches have no last known good response: every item gets a fallback outcome, in order, so the caller can
+     * tell a failed batch from one whose items were all evaluated
+     */
+    public List<SimulationOutcome> simulateErrorBatch(List<ErrorTestRequest> items) {
+        logger.error("🔙 [PROGRAMMATIC-RETRY-FALLBACK] Batch of {} items FAILED with exception: {}", items.size(),
+                e != null ? e.getClass().getSimpleName() : "unknown exception");
+        List<SimulationOutcome> outcomes = new ArrayList<>(items.size());
+        for (int index = 0; index < items.size(); index++) {
+            outcomes.add(SimulationOutcome.fallback(index, items.get(index), e));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Last known good response of the request if there is one, marked as stale
+     */
+    private TroubleMakerResponse staleOrFallback(String key) {
+        return lastKnownGoodCache.serveStale(key, e)
+                .map(stale -> {
+                    logger.warn("🔙 [PROGRAMMATIC-RETRY-FALLBACK] Call FAILED, serving last known good response: {}",
+                            e != null ? e.getClass().getSimpleName() : "unknown exception");
+                    return stale;
+                })
+                .orElseGet(this::fallback);
+    }
+
+    private TroubleMakerResponse fallback() {
         if (e == null) {
             logger.error("🔙 [PROGRAMMATIC-RETRY-FALLBACK] Call FAILED with unknown exception");
-            return "Unknown exception";
+            return TroubleMakerResponse.fallback("Unknown exception", null);
         } else {
             logger.error("🔙 [PROGRAMMATIC-RETRY-FALLBACK] Call FAILED with exception: {} - {}",
                     e.getClass().getSimpleName(), e.getMessage());
 
-            if (e instanceof FeignException) {
-                return "Feign Exception";
+            if (e instanceof CallNotPermittedException) {
+                return TroubleMakerResponse.fallback("Circuit open", e);
+            } else if (e instanceof AdaptiveConcurrencyLimiter.LimitExceededException) {
+                return TroubleMakerResponse.fallback("Concurrency limit exceeded", e);
+            } else if (e instanceof Deadline.DeadlineExceededException) {
+                return TroubleMakerResponse.fallback("Deadline exceeded", e);
+            } else if (e instanceof FeignException) {
+                return TroubleMakerResponse.fallback("Feign Exception", e);
             } else {
-                return "Other exception";
+                return TroubleMakerResponse.fallback("Other exception", e);
             }
         }
-
-
-
     }
 }
@@ -1,10 +1,17 @@
 package com.example.resilience_app.config.service;
 
-import com.example.resilience_app.utils.RetryEventListener;
-import io.github.resilience4j.retry.Retry;
+import com.example.resilience_app.utils.RetryBudget;
+import com.example.resilience_app.utils.RetryConfigUtil;
+import com.example.resilience_app.utils.RetryEventPipeline;
+import com.example.resilience_app.utils.RetryMetrics;
+import com.example.resilience_app.utils.SwappableRetry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,24 +19,77 @@ import org.springframework.context.annotation.Configuration;
 public class AnnotationRetryConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(AnnotationRetryConfig.class);
+    private final static String retryName = "annotationRetryConfig";
+
+    @Value("${app.annotationRetryConfig.honor-retry-after:false}")
+    private boolean honorRetryAfter;
+
+    @Value("${app.annotationRetryConfig.max-retry-after:10000}")
+    private long maxRetryAfter;
 
     private final RetryRegistry retryRegistry;
+    private final RetryBudget retryBudget;
+    private final RetryEventPipeline retryEventPipeline;
+    private final RetryMetrics retryMetrics;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
 
-    public AnnotationRetryConfig(RetryRegistry retryRegistry) {
+    public AnnotationRetryConfig(RetryRegistry retryRegistry, RetryBudget retryBudget,
+                                 RetryEventPipeline retryEventPipeline, RetryMetrics retryMetrics,
+                                 CircuitBreakerRegistry circuitBreakerRegistry) {
         this.retryRegistry = retryRegistry;
+        this.retryBudget = retryBudget;
+        this.retryEventPipeline = retryEventPipeline;
+        this.retryMetrics = retryMetrics;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
     }
 
+    /**
+     * The YAML-configured instance, customized and swappable at runtime (/api/retry-strategies, app.retry-strategies.file).
+     * The @Retry aspect looks the instance up by name on every call, so replacing it in the registry is enough.
+     * A swap replaces the backoff and max attempts only: the YAML retry-exceptions and honoring Retry-After
+     * are applied to every strategy of this instance.
+     */
     @Bean
-    public Retry annotationRetryConfigBean() {
+    public SwappableRetry annotationRetry() {
         logger.info("🔧 [ANNOTATION-RETRY] Setting up event listener for annotationRetryConfig");
 
         // Get the retry instance that Resilience4j creates automatically from YAML config
-        Retry retry = retryRegistry.retry("annotationRetryConfig");
+        RetryConfig yamlConfig = retryRegistry.retry(retryName).getRetryConfig();
+        if (honorRetryAfter) {
+            logger.info("🔧 [ANNOTATION-RETRY] Honoring Retry-After header (max {}ms)", maxRetryAfter);
+        }
 
-        // Add our custom event listener to get the same logging as programmatic retry
-        retry.getEventPublisher().onEvent(RetryEventListener::onRetryEvent);
+        // Same event pipeline as programmatic retry, so both show up in the same summaries
+        RetryMetrics.Instance metrics = retryMetrics.instance(retryName);
+        SwappableRetry retry = new SwappableRetry(retryRegistry, retryName, yamlConfig, null,
+                config -> retryBudget.applyTo(RetryConfigUtil.withDeadline(withYamlSettings(config, yamlConfig))),
+                instance -> {
+                    instance.getEventPublisher().onEvent(retryEventPipeline::onRetryEvent);
+                    instance.getEventPublisher().onRetry(event -> metrics.recordBackoff(event.getWaitInterval().toMillis()));
+                    instance.getEventPublisher().onError(event -> retryBudget.refund());
+                });
 
         logger.info("✅ [ANNOTATION-RETRY] Event listener registered for annotationRetryConfig");
         return retry;
     }
-}
\ No newline at end of file
+
+    /**
+     * Settings of this instance that outlive a strategy swap. With a retry-after strategy, max-retry-after
+     * caps the server's delay on top of the strategy's own maxRetryAfter.
+     */
+    private RetryConfig withYamlSettings(RetryConfig config, RetryConfig yamlConfig) {
+        RetryConfig withExceptions = RetryConfigUtil.withExceptionsOf(config, yamlConfig);
+        return honorRetryAfter ? RetryConfigUtil.withRetryAfter(withExceptions, maxRetryAfter) : withExceptions;
+    }
+
+    /**
+     * The @CircuitBreaker instance next to @Retry, configured in YAML under the same name
+     */
+    @Bean
+    public CircuitBreaker annotationCircuitBreakerBean() {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(retryName);
+        circuitBreaker.getEventPublisher().onEvent(retryEventPipeline::onCircuitBreakerEvent);
+        logger.info("✅ [ANNOTATION-RETRY] Circuit breaker event listener registered for {}", retryName);
+        return circuitBreaker;
+    }
+}
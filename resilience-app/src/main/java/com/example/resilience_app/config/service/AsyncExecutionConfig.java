@@ -0,0 +1,49 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.utils.Deadline;
+import io.github.resilience4j.core.ContextAwareScheduledThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for non-blocking trouble-maker calls.
+ * Attempts run on virtual threads, backoff waits are timers on a small shared scheduler,
+ * so a waiting retry does not hold any thread.
+ */
+@Configuration
+public class AsyncExecutionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncExecutionConfig.class);
+
+    @Value("${app.async.retry-scheduler-threads:2}")
+    private int retrySchedulerThreads;
+
+    /**
+     * Runs single trouble-maker calls (async attempts, hedges), one virtual thread per call
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService troubleMakerCallExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Schedules the next attempt after the backoff wait of async retries, with the deadline of the call bound.
+     * Being context aware, it is also picked up by the @Retry aspect for async annotation retries.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ContextAwareScheduledThreadPoolExecutor retryScheduler() {
+        logger.info("🔧 [ASYNC-RETRY] Retry scheduler with {} threads", retrySchedulerThreads);
+        ContextAwareScheduledThreadPoolExecutor scheduler = ContextAwareScheduledThreadPoolExecutor.newScheduledThreadPool()
+                .corePoolSize(retrySchedulerThreads)
+                .contextPropagators(new Deadline.Propagator())
+                .build();
+        scheduler.setThreadFactory(Thread.ofPlatform().name("retry-scheduler-", 0).daemon(true).factory());
+        return scheduler;
+    }
+}
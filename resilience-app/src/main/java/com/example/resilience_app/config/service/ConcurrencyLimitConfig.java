@@ -0,0 +1,71 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.utils.AdaptiveConcurrencyLimiter;
+import feign.FeignException;
+import feign.RetryableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Adaptive concurrency limits of the programmatic and the annotation client, one limiter per client
+ * named like its retry instance
+ */
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitConfig.class);
+
+    @Value("${app.concurrency-limit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.concurrency-limit.algorithm:aimd}")
+    private String algorithm;
+
+    @Value("${app.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.concurrency-limit.min-limit:10}")
+    private int minLimit;
+
+    @Value("${app.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${app.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${app.concurrency-limit.latency-threshold:1000}")
+    private long latencyThreshold;
+
+    @Bean
+    public AdaptiveConcurrencyLimiter programmaticConcurrencyLimiter() {
+        return createLimiter("programmaticRetry");
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter annotationConcurrencyLimiter() {
+        return createLimiter("annotationRetryConfig");
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String name) {
+        AdaptiveConcurrencyLimiter.Algorithm limitAlgorithm = AdaptiveConcurrencyLimiter.Algorithm.valueOf(algorithm.toUpperCase());
+        logger.info("🔧 [CONCURRENCY-LIMIT] Name: {}, Enabled: {}, Algorithm: {}, Limit: {} ({}-{}), Backoff Ratio: {}, Latency Threshold: {}ms",
+                name, enabled, limitAlgorithm, initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold);
+        return new AdaptiveConcurrencyLimiter(name, enabled, limitAlgorithm, initialLimit, minLimit, maxLimit,
+                backoffRatio, latencyThreshold, ConcurrencyLimitConfig::isOverload);
+    }
+
+    /**
+     * Errors that mean trouble-maker is overloaded or down, client errors other than 429 do not count
+     */
+    private static boolean isOverload(Throwable throwable) {
+        return throwable instanceof IOException
+                || throwable instanceof RetryableException
+                || throwable instanceof FeignException.FeignServerException
+                || throwable instanceof FeignException.TooManyRequests;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.utils.HttpTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * HTTP transports of the trouble-maker clients: shared pool settings, one pool and one set of timeouts per client.
+ * The read timeout defaults to 10s instead of Feign's 60s, so a hanging attempt ends within the call's deadline.
+ */
+@Configuration
+public class HttpTransportConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpTransportConfig.class);
+
+    @Value("${app.http-client.transport:hc5}")
+    private String transport;
+
+    @Value("${app.http-client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${app.http-client.max-connections-per-route:${app.http-client.max-connections:50}}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${app.http-client.keep-alive:30000}")
+    private long keepAlive;
+
+    @Value("${app.http-client.validate-after-inactivity:2000}")
+    private long validateAfterInactivity;
+
+    @Value("${app.http-client.connection-request-timeout:1000}")
+    private long connectionRequestTimeout;
+
+    @Value("${app.http-client.programmatic.connect-timeout:1000}")
+    private long programmaticConnectTimeout;
+
+    @Value("${app.http-client.programmatic.read-timeout:10000}")
+    private long programmaticReadTimeout;
+
+    @Value("${app.http-client.annotation.connect-timeout:1000}")
+    private long annotationConnectTimeout;
+
+    @Value("${app.http-client.annotation.read-timeout:10000}")
+    private long annotationReadTimeout;
+
+    /**
+     * Shared by the decorated and the plain (async) programmatic client
+     */
+    @Bean(destroyMethod = "close")
+    public HttpTransport programmaticHttpTransport() {
+        return createTransport("programmaticRetry", programmaticConnectTimeout, programmaticReadTimeout);
+    }
+
+    /**
+     * Used by the @FeignClient AnnotationRetryService, see AnnotationRetryServiceConfiguration
+     */
+    @Bean(destroyMethod = "close")
+    public HttpTransport annotationHttpTransport() {
+        return createTransport("annotationRetryConfig", annotationConnectTimeout, annotationReadTimeout);
+    }
+
+    private HttpTransport createTransport(String name, long connectTimeout, long readTimeout) {
+        HttpTransport.Type type = HttpTransport.Type.valueOf(transport.toUpperCase());
+        HttpTransport.PoolSettings pool = new HttpTransport.PoolSettings(maxConnections, maxConnectionsPerRoute,
+                keepAlive, validateAfterInactivity, connectionRequestTimeout);
+        logger.info("🔧 [HTTP-TRANSPORT] Client: {}, Transport: {}, Connect Timeout: {}ms, Read Timeout: {}ms, Pool: {}",
+                name, type, connectTimeout, readTimeout, type == HttpTransport.Type.HC5 ? pool : "managed by the JDK");
+        return HttpTransport.create(name, type, pool, connectTimeout, readTimeout);
+    }
+}
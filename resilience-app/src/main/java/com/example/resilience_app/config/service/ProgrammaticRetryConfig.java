@@ -3,22 +3,37 @@ package com.example.resilience_app.config.service;
 import com.example.resilience_app.adapter.http.client.ProgrammaticRetryClient;
 import com.example.resilience_app.adapter.http.client.ProgrammaticRetryFallBack;
 import com.example.resilience_app.model.ErrorTestRequest;
+import com.example.resilience_app.model.RetryStrategy;
+import com.example.resilience_app.utils.AttemptMetricsDecorator;
+import com.example.resilience_app.utils.AdaptiveConcurrencyLimiter;
+import com.example.resilience_app.utils.CircuitBreakerConfigUtil;
+import com.example.resilience_app.utils.ConcurrencyLimitDecorator;
+import com.example.resilience_app.utils.DeadlineAwareClient;
+import com.example.resilience_app.utils.FeignDecoratorUtils;
+import com.example.resilience_app.utils.HedgingDecorator;
+import com.example.resilience_app.utils.HttpTransport;
+import com.example.resilience_app.utils.JacksonStreamingDecoder;
+import com.example.resilience_app.utils.LastKnownGoodCache;
+import com.example.resilience_app.utils.ResponseCacheDecorator;
+import com.example.resilience_app.utils.RetryBudget;
 import com.example.resilience_app.utils.RetryConfigUtil;
-import com.example.resilience_app.utils.RetryEventListener;
+import com.example.resilience_app.utils.RetryEventPipeline;
+import com.example.resilience_app.utils.RetryMetrics;
+import com.example.resilience_app.utils.SwappableRetry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.Feign;
 import feign.codec.Decoder;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.feign.FeignDecorator;
 import io.github.resilience4j.feign.FeignDecorators;
 import io.github.resilience4j.feign.Resilience4jFeign;
-import io.github.resilience4j.retry.Retry;
-import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
-import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
-import org.springframework.cloud.openfeign.support.SpringDecoder;
 import org.springframework.cloud.openfeign.support.SpringEncoder;
 import org.springframework.cloud.openfeign.support.SpringMvcContract;
 import org.springframework.context.annotation.Bean;
@@ -26,12 +41,15 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
 
 @Configuration
 public class ProgrammaticRetryConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(ProgrammaticRetryConfig.class);
     private final static String clientName = "programmaticRetry";
+    // Neither hedged nor retried, see programmaticRetryClient
+    private static final String BATCH_METHOD = "simulateErrorBatch";
 
     @Value("${app.troubleMaker.url}")
     private String troubleMakerURL;
@@ -54,51 +72,120 @@ public class ProgrammaticRetryConfig {
     @Value("${app.programmaticRetryConfig.maxInterval}")
     private long maxInterval;
 
+    @Value("${app.programmaticRetryConfig.max-retry-after:10000}")
+    private long maxRetryAfter;
+
+    @Value("${app.programmaticRetryConfig.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${app.programmaticRetryConfig.hedging.delay-mode:fixed}")
+    private String hedgingDelayMode;
+
+    @Value("${app.programmaticRetryConfig.hedging.delay:300}")
+    private long hedgingDelay;
+
+    @Value("${app.programmaticRetryConfig.hedging.max-in-flight:10}")
+    private int hedgingMaxInFlight;
+
+    @Value("${app.programmaticRetryConfig.circuit-breaker.enabled:true}")
+    private boolean circuitBreakerEnabled;
+
+    @Value("${app.programmaticRetryConfig.circuit-breaker.sliding-window-type:count_based}")
+    private String slidingWindowType;
+
+    @Value("${app.programmaticRetryConfig.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${app.programmaticRetryConfig.circuit-breaker.minimum-number-of-calls:10}")
+    private int minimumNumberOfCalls;
+
+    @Value("${app.programmaticRetryConfig.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${app.programmaticRetryConfig.circuit-breaker.wait-duration-in-open-state:10000}")
+    private long waitDurationInOpenState;
+
+    @Value("${app.programmaticRetryConfig.circuit-breaker.permitted-calls-in-half-open-state:3}")
+    private int permittedCallsInHalfOpenState;
+
     private final RetryRegistry retryRegistry;
+    private final RetryBudget retryBudget;
+    private final RetryEventPipeline retryEventPipeline;
+    private final RetryMetrics retryMetrics;
+    private final ObjectMapper objectMapper;
 
-    public ProgrammaticRetryConfig(RetryRegistry retryRegistry) {
+    public ProgrammaticRetryConfig(RetryRegistry retryRegistry, RetryBudget retryBudget,
+                                   RetryEventPipeline retryEventPipeline, RetryMetrics retryMetrics,
+                                   ObjectMapper objectMapper) {
         this.retryRegistry = retryRegistry;
+        this.retryBudget = retryBudget;
+        this.retryEventPipeline = retryEventPipeline;
+        this.retryMetrics = retryMetrics;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Strategy from app.programmaticRetryConfig, unknown strategy names fall back to random-backoff
+     */
+    private RetryStrategy initialStrategy() {
+        String name = strategy.toLowerCase();
+        if (!RetryStrategy.STRATEGIES.contains(name)) {
+            logger.warn("Unknown strategy '{}', falling back to random-backoff", strategy);
+            name = "random-backoff";
+        }
+        return new RetryStrategy(name, maxAttempts, initialInterval, multiplier, randomizationFactor, maxInterval, maxRetryAfter);
     }
 
+    /**
+     * Retry of the programmatic client, swappable at runtime (/api/retry-strategies, app.retry-strategies.file)
+     */
     @Bean
-    public Retry programmaticRetry() {
+    public SwappableRetry programmaticRetry() {
         logger.info("🔧 [PROGRAMMATIC-RETRY] Creating retry instance: {}", clientName);
         logger.info("🔧 [PROGRAMMATIC-RETRY] Strategy: {}, Max Attempts: {}, Initial Interval: {}ms, Multiplier: {}, Randomization Factor: {}, Max Interval: {}ms",
                 strategy, maxAttempts, initialInterval, multiplier, randomizationFactor, maxInterval);
 
-        RetryConfig retryConfig = switch (strategy.toLowerCase()) {
-            case "random-backoff" -> RetryConfigUtil.createRandomBackoffRetry(
-                    maxAttempts,
-                    initialInterval,
-                    multiplier,
-                    randomizationFactor,
-                    maxInterval / 1000 // Convert to seconds for maxInterval
-            );
-            case "standard-exponential" -> RetryConfigUtil.createStandardRetry(
-                    maxAttempts,
-                    initialInterval / 1000, // Convert to seconds
-                    multiplier,
-                    null
-            );
-            default -> {
-                logger.warn("Unknown strategy '{}', falling back to random-backoff", strategy);
-                yield RetryConfigUtil.createRandomBackoffRetry(
-                        maxAttempts,
-                        initialInterval,
-                        multiplier,
-                        randomizationFactor,
-                        maxInterval / 1000
-                );
-            }
-        };
-
-        // Create a retry instance and register it with RetryRegistry
-        Retry retry = retryRegistry.retry(clientName, retryConfig);
-        retry.getEventPublisher().onEvent(RetryEventListener::onRetryEvent);
+        RetryStrategy retryStrategy = initialStrategy();
+        RetryMetrics.Instance metrics = retryMetrics.instance(clientName);
+        // Registered with RetryRegistry, every Retry built for a new strategy gets the same decoration and listeners.
+        // The deadline is checked before the budget, so no token is spent on a retry that would come too late
+        SwappableRetry retry = new SwappableRetry(retryRegistry, clientName,
+                RetryConfigUtil.createFromStrategy(retryStrategy), retryStrategy,
+                config -> retryBudget.applyTo(RetryConfigUtil.withDeadline(config)),
+                instance -> {
+                    instance.getEventPublisher().onEvent(retryEventPipeline::onRetryEvent);
+                    instance.getEventPublisher().onRetry(event -> metrics.recordBackoff(event.getWaitInterval().toMillis()));
+                    instance.getEventPublisher().onError(event -> retryBudget.refund());
+                });
         logger.info("✅ [PROGRAMMATIC-RETRY] Retry instance '{}' registered with RetryRegistry", clientName);
         return retry;
     }
 
+    /**
+     * Circuit breaker of the programmatic client, same name as the retry so both show up in the same event summary.
+     * Disabled breakers stay in the chain but permit every call.
+     */
+    @Bean
+    public CircuitBreaker programmaticCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+        logger.info("🔧 [PROGRAMMATIC-RETRY] Circuit breaker enabled: {}, Window: {} x {}, Min Calls: {}, Failure Rate: {}%, Open: {}ms, Half-Open Probes: {}",
+                circuitBreakerEnabled, slidingWindowType, slidingWindowSize, minimumNumberOfCalls,
+                failureRateThreshold, waitDurationInOpenState, permittedCallsInHalfOpenState);
+        CircuitBreakerConfig config = CircuitBreakerConfigUtil.createCircuitBreaker(
+                CircuitBreakerConfig.SlidingWindowType.valueOf(slidingWindowType.toUpperCase()),
+                slidingWindowSize,
+                minimumNumberOfCalls,
+                failureRateThreshold,
+                waitDurationInOpenState,
+                permittedCallsInHalfOpenState
+        );
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(clientName, config);
+        circuitBreaker.getEventPublisher().onEvent(retryEventPipeline::onCircuitBreakerEvent);
+        if (!circuitBreakerEnabled) {
+            circuitBreaker.transitionToDisabledState();
+        }
+        return circuitBreaker;
+    }
+
     /**
      * Spring Contract Bean - WICHTIG für @PostMapping Support!
      */
@@ -107,26 +194,69 @@ public class ProgrammaticRetryConfig {
         return new SpringMvcContract();
     }
 
+    /**
+     * Encoder and decoder share Spring's pre-configured ObjectMapper instead of creating their own
+     */
     @Bean
     SpringEncoder feignEncoder() {
-        var jsonMessageConverters = new MappingJackson2HttpMessageConverter(new ObjectMapper());
+        var jsonMessageConverters = new MappingJackson2HttpMessageConverter(objectMapper);
         return new SpringEncoder(() -> new HttpMessageConverters(jsonMessageConverters));
     }
 
+    /**
+     * Decodes TroubleMakerResponse straight from the response stream, see JacksonStreamingDecoder
+     */
     @Bean
     Decoder feignDecoder() {
-        var jsonMessageConverters = new MappingJackson2HttpMessageConverter(new ObjectMapper());
-        return new ResponseEntityDecoder(new SpringDecoder(() -> new HttpMessageConverters(jsonMessageConverters)));
+        return new JacksonStreamingDecoder(objectMapper);
+    }
+
+    /**
+     * Hedged requests for the programmatic client, only used when hedging is enabled
+     */
+    @Bean
+    public HedgingDecorator programmaticHedging(ExecutorService troubleMakerCallExecutor) {
+        HedgingDecorator.DelayMode delayMode = HedgingDecorator.DelayMode.valueOf(hedgingDelayMode.toUpperCase());
+        logger.info("🔧 [PROGRAMMATIC-RETRY] Hedging enabled: {}, Delay Mode: {}, Delay: {}ms, Max In Flight: {}",
+                hedgingEnabled, delayMode, hedgingDelay, hedgingMaxInFlight);
+        return new HedgingDecorator(delayMode, hedgingDelay, hedgingMaxInFlight, troubleMakerCallExecutor);
     }
 
     @Bean("programmaticRetryClientBean")
-    public ProgrammaticRetryClient programmaticRetryClient(Retry programmaticRetry, SpringMvcContract springContract) {
-        FeignDecorators decorators = FeignDecorators.builder()
-                .withRetry(programmaticRetry)
-                .withFallbackFactory(ProgrammaticRetryFallBack::new)
+    public ProgrammaticRetryClient programmaticRetryClient(SwappableRetry programmaticRetry, SpringMvcContract springContract,
+                                                           HedgingDecorator programmaticHedging,
+                                                           CircuitBreaker programmaticCircuitBreaker,
+                                                           AdaptiveConcurrencyLimiter programmaticConcurrencyLimiter,
+                                                           HttpTransport programmaticHttpTransport,
+                                                           LastKnownGoodCache lastKnownGoodCache) {
+        // The breaker sits inside the retry: an open circuit throws CallNotPermittedException, which is not
+        // retryable, so the call goes straight to the fallback.
+        // The retry is chained on its own, so a swapped strategy applies to the next call without a new client
+        FeignDecorators circuitBreaker = FeignDecorators.builder()
+                .withCircuitBreaker(programmaticCircuitBreaker)
+                .build();
+        FeignDecorators fallback = FeignDecorators.builder()
+                .withFallbackFactory(e -> new ProgrammaticRetryFallBack(e, lastKnownGoodCache))
                 .build();
 
+        // Attempt metrics and hedging wrap each single permitted attempt, so every retry attempt is measured and can be hedged.
+        // The concurrency limit is checked per attempt; rejected attempts are neither sent nor measured.
+        // Successful attempts are stored as last-known-good response for the fallback.
+        // A batch is sent once: a hedge or retry would evaluate every item again and advance seeded and scripted
+        // sequences twice, so a failed batch goes to the fallback, which marks every item
+        ResponseCacheDecorator responseCache = new ResponseCacheDecorator(lastKnownGoodCache, ProgrammaticRetryConfig::cacheKey);
+        AttemptMetricsDecorator attemptMetrics = new AttemptMetricsDecorator(retryMetrics.instance(clientName));
+        ConcurrencyLimitDecorator concurrencyLimit = new ConcurrencyLimitDecorator(programmaticConcurrencyLimiter);
+        FeignDecorator retry = FeignDecoratorUtils.except(programmaticRetry.decorator(), BATCH_METHOD);
+        FeignDecorator decorators = hedgingEnabled
+                ? FeignDecoratorUtils.chain(FeignDecoratorUtils.except(programmaticHedging, BATCH_METHOD), responseCache,
+                        attemptMetrics, concurrencyLimit, circuitBreaker, retry, fallback)
+                : FeignDecoratorUtils.chain(responseCache, attemptMetrics, concurrencyLimit,
+                        circuitBreaker, retry, fallback);
+
         return Feign.builder()
+                .client(new DeadlineAwareClient(programmaticHttpTransport.client()))
+                .options(programmaticHttpTransport.options())
                 .addCapability(Resilience4jFeign.capability(decorators))
                 .encoder(feignEncoder())
                 .decoder(feignDecoder())
@@ -134,28 +264,28 @@ public class ProgrammaticRetryConfig {
                 .target(ProgrammaticRetryClient.class, troubleMakerURL);
     }
 
-    // Getter methods for use in other components
-    public int getMaxAttempts() {
-        return maxAttempts;
-    }
-
-    public String getStrategy() {
-        return strategy;
-    }
-
-    public long getInitialInterval() {
-        return initialInterval;
-    }
-
-    public double getMultiplier() {
-        return multiplier;
-    }
-
-    public double getRandomizationFactor() {
-        return randomizationFactor;
+    /**
+     * Cache key from the arguments of simulateError(errorCode, errorConfig) or simulateErrorWithProfile(profile)
+     */
+    private static String cacheKey(Object[] args) {
+        return args.length == 1
+                ? ErrorTestRequest.profileKey((String) args[0])
+                : ((ErrorTestRequest) args[1]).canonicalKey();
     }
 
-    public long getMaxInterval() {
-        return maxInterval;
+    /**
+     * Plain client without Resilience4j decorators for the async path,
+     * which applies programmaticRetry around CompletionStages itself
+     */
+    @Bean("programmaticAsyncClientBean")
+    public ProgrammaticRetryClient programmaticAsyncClient(SpringMvcContract springContract,
+                                                           HttpTransport programmaticHttpTransport) {
+        return Feign.builder()
+                .client(new DeadlineAwareClient(programmaticHttpTransport.client()))
+                .options(programmaticHttpTransport.options())
+                .encoder(feignEncoder())
+                .decoder(feignDecoder())
+                .contract(springContract)
+                .target(ProgrammaticRetryClient.class, troubleMakerURL);
     }
-}
\ No newline at end of file
+}
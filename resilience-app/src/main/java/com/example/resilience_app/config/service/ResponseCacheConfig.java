@@ -0,0 +1,43 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.utils.LastKnownGoodCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Last-known-good responses of trouble-maker, shared by the programmatic and the annotation path
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheConfig.class);
+
+    @Value("${app.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.response-cache.serve-while-circuit-open:false}")
+    private boolean serveWhileCircuitOpen;
+
+    @Value("${app.response-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${app.response-cache.ttl:300000}")
+    private long ttl;
+
+    /**
+     * Keys are ErrorTestRequest.canonicalKey(), writes and evictions run on the common pool
+     */
+    @Bean
+    public LastKnownGoodCache lastKnownGoodCache() {
+        logger.info("🔧 [RESPONSE-CACHE] Enabled: {}, Serve While Circuit Open: {}, Max Entries: {}, TTL: {}ms",
+                enabled, serveWhileCircuitOpen, maxEntries, ttl);
+        return new LastKnownGoodCache(enabled, serveWhileCircuitOpen, maxEntries, Duration.ofMillis(ttl),
+                ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.utils.RetryBudget;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Retry budget shared by programmaticRetry and annotationRetryConfig
+ */
+@Configuration
+public class RetryBudgetConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryBudgetConfig.class);
+
+    @Value("${app.retry-budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.retry-budget.token-ratio:0.1}")
+    private double tokenRatio;
+
+    @Value("${app.retry-budget.max-tokens:20}")
+    private int maxTokens;
+
+    @Bean
+    public RetryBudget retryBudget() {
+        logger.info("🔧 [RETRY-BUDGET] Enabled: {}, Token Ratio: {}, Max Tokens: {}", enabled, tokenRatio, maxTokens);
+        return new RetryBudget(enabled, tokenRatio, maxTokens);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.utils.RetryEventPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Event pipeline shared by all retry instances, logs aggregated summaries instead of every event
+ */
+@Configuration
+public class RetryEventPipelineConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryEventPipelineConfig.class);
+
+    @Value("${app.retry-events.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${app.retry-events.summary-interval:5s}")
+    private Duration summaryInterval;
+
+    @Value("${app.retry-events.detail-sample-rate:0.0}")
+    private double detailSampleRate;
+
+    @Bean(destroyMethod = "close")
+    public RetryEventPipeline retryEventPipeline() {
+        logger.info("🔧 [RETRY-EVENTS] Buffer Size: {}, Summary Interval: {}, Detail Sample Rate: {}",
+                bufferSize, summaryInterval, detailSampleRate);
+        return new RetryEventPipeline(bufferSize, summaryInterval, detailSampleRate);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.utils.RetryMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Latency and attempt histograms of all retry instances, served by /api/stats/histograms
+ */
+@Configuration
+public class RetryMetricsConfig {
+
+    @Bean
+    public RetryMetrics retryMetrics() {
+        return new RetryMetrics();
+    }
+}
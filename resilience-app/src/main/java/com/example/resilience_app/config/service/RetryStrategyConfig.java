@@ -0,0 +1,32 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.utils.RetryStrategyFileWatcher;
+import com.example.resilience_app.utils.SwappableRetry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Runtime changes of the retry strategies, next to PUT /api/retry-strategies/{instance}
+ */
+@Configuration
+public class RetryStrategyConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryStrategyConfig.class);
+
+    @Value("${app.retry-strategies.file:}")
+    private String file;
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public RetryStrategyFileWatcher retryStrategyFileWatcher(ObjectMapper objectMapper, List<SwappableRetry> swappableRetries) {
+        logger.info("🔧 [RETRY-STRATEGY] Strategy file: {}, Swappable Instances: {}", file.isBlank() ? "none" : file,
+                swappableRetries.stream().map(SwappableRetry::getName).toList());
+        return new RetryStrategyFileWatcher(file.isBlank() ? null : Path.of(file), objectMapper, swappableRetries);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.example.resilience_app.utils.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Coalescing of identical concurrent trouble-maker calls, shared by the programmatic and the annotation path
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightConfig.class);
+
+    @Value("${app.single-flight.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.single-flight.max-in-flight:1024}")
+    private int maxInFlight;
+
+    @Value("${app.single-flight.stripes:16}")
+    private int stripes;
+
+    /**
+     * Keys are the retry path plus ErrorTestRequest.canonicalKey(), values the response or fallback
+     */
+    @Bean
+    public SingleFlight<String, TroubleMakerResponse> troubleMakerSingleFlight() {
+        logger.info("🔧 [SINGLE-FLIGHT] Enabled: {}, Max In Flight: {}, Stripes: {}", enabled, maxInFlight, stripes);
+        return new SingleFlight<>(enabled, maxInFlight, stripes);
+    }
+}
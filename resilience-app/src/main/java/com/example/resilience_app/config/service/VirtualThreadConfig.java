@@ -0,0 +1,40 @@
+package com.example.resilience_app.config.service;
+
+import com.example.resilience_app.utils.PinningMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode (spring.threads.virtual.enabled): Tomcat handles every request on its own virtual thread,
+ * so synchronous trouble-maker calls and their backoff waits park the virtual thread instead of holding a
+ * platform thread of the pool. Pinned virtual threads are reported by the pinning monitor.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.pinning-monitor.enabled:${spring.threads.virtual.enabled:false}}")
+    private boolean pinningMonitorEnabled;
+
+    @Value("${app.pinning-monitor.threshold:20}")
+    private long threshold;
+
+    @Value("${app.pinning-monitor.max-sites:100}")
+    private int maxSites;
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public PinningMonitor pinningMonitor() {
+        logger.info("🔧 [VIRTUAL-THREADS] Request handling on virtual threads: {}, Pinning Monitor: {}, Threshold: {}ms",
+                virtualThreads, pinningMonitorEnabled, threshold);
+        return new PinningMonitor(pinningMonitorEnabled, Duration.ofMillis(threshold), maxSites);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.resilience_app.model;
+
+import java.util.List;
+
+/**
+ * Batch of test calls: either a list of requests, or one request repeated count times
+ */
+public class BatchTestRequest {
+
+    private String path = "programmatic"; // programmatic | annotation
+    private List<ErrorTestRequest> requests;
+    private ErrorTestRequest request;
+    private int count;
+    private Integer parallelism; // Calls in flight at once, default from app.batch.default-parallelism
+
+    // Default constructor
+    public BatchTestRequest() {
+    }
+
+    // Getters and Setters
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public List<ErrorTestRequest> getRequests() {
+        return requests;
+    }
+
+    public void setRequests(List<ErrorTestRequest> requests) {
+        this.requests = requests;
+    }
+
+    public ErrorTestRequest getRequest() {
+        return request;
+    }
+
+    public void setRequest(ErrorTestRequest request) {
+        this.request = request;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Number of calls in the batch
+     */
+    public int size() {
+        return requests != null && !requests.isEmpty() ? requests.size() : (request != null ? count : 0);
+    }
+
+    /**
+     * The index-th call of the batch
+     */
+    public ErrorTestRequest requestAt(int index) {
+        return requests != null && !requests.isEmpty() ? requests.get(index) : request;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchTestRequest{" +
+                "path='" + path + '\'' +
+                ", requests=" + (requests != null ? requests.size() : 0) +
+                ", request=" + request +
+                ", count=" + count +
+                ", parallelism=" + parallelism +
+                '}';
+    }
+}
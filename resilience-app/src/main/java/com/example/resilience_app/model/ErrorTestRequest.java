@@ -12,6 +12,7 @@ public class ErrorTestRequest {
     private long timeoutDelayMs;
     private boolean enabled;
     private String description;
+    private String profile; // Named trouble-maker profile, sent instead of the config fields
 
     // Default constructor
     public ErrorTestRequest() {
@@ -86,6 +87,46 @@ public class ErrorTestRequest {
         this.description = description;
     }
 
+    public String getProfile() {
+        return profile;
+    }
+
+    public void setProfile(String profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Profile-reference mode: trouble-maker resolves the config from its profile registry,
+     * the request carries no JSON body
+     */
+    public boolean usesProfile() {
+        return profile != null && !profile.isBlank();
+    }
+
+    /**
+     * Same string for requests that make trouble-maker behave the same, used to coalesce identical calls.
+     * A profile reference only depends on the profile name.
+     */
+    public String canonicalKey() {
+        if (usesProfile()) {
+            return profileKey(profile);
+        }
+        return "errorCode=" + errorCode +
+                "|errorRate=" + errorRate +
+                "|responseDelayMs=" + responseDelayMs +
+                "|retryAfterSeconds=" + retryAfterSeconds +
+                "|timeoutDelayMs=" + timeoutDelayMs +
+                "|enabled=" + enabled +
+                "|description=" + description;
+    }
+
+    /**
+     * {@link #canonicalKey()} of a profile-reference request
+     */
+    public static String profileKey(String profile) {
+        return "profile=" + profile;
+    }
+
     @Override
     public String toString() {
         return "ErrorTestRequest{" +
@@ -96,6 +137,7 @@ public class ErrorTestRequest {
                 ", timeoutDelayMs=" + timeoutDelayMs +
                 ", enabled=" + enabled +
                 ", description='" + description + '\'' +
+                ", profile='" + profile + '\'' +
                 '}';
     }
 }
\ No newline at end of file
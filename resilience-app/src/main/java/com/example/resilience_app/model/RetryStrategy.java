@@ -0,0 +1,52 @@
+package com.example.resilience_app.model;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Backoff strategy of a retry instance, from app.programmaticRetryConfig or swapped in at runtime.
+ * Invalid strategies fail in the constructor, so they are rejected before any Retry is built.
+ *
+ * @param strategy            random-backoff | standard-exponential | retry-after
+ * @param maxAttempts         attempts including the first call
+ * @param initialInterval     in milliseconds, standard-exponential uses whole seconds of it
+ * @param multiplier          growth of the backoff per attempt
+ * @param randomizationFactor jitter of random-backoff and retry-after, at least 0 and below 1
+ * @param maxInterval         in milliseconds, ceiling of the backoff in whole seconds (random-backoff, retry-after)
+ * @param maxRetryAfter       in milliseconds, ceiling for the Retry-After delay (retry-after)
+ */
+public record RetryStrategy(String strategy,
+                            int maxAttempts,
+                            long initialInterval,
+                            double multiplier,
+                            double randomizationFactor,
+                            long maxInterval,
+                            long maxRetryAfter) {
+
+    public static final Set<String> STRATEGIES = Set.of("random-backoff", "standard-exponential", "retry-after");
+
+    public RetryStrategy {
+        strategy = strategy == null ? null : strategy.toLowerCase(Locale.ROOT);
+        if (strategy == null || !STRATEGIES.contains(strategy)) {
+            throw new IllegalArgumentException("strategy must be one of " + STRATEGIES + ": " + strategy);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (initialInterval < ("standard-exponential".equals(strategy) ? 1000 : 1)) {
+            throw new IllegalArgumentException("initialInterval must be at least 1ms (1000ms for standard-exponential)");
+        }
+        if (!(multiplier >= 1)) {
+            throw new IllegalArgumentException("multiplier must be at least 1");
+        }
+        if (!(randomizationFactor >= 0 && randomizationFactor < 1)) {
+            throw new IllegalArgumentException("randomizationFactor must be at least 0 and below 1");
+        }
+        if (!"standard-exponential".equals(strategy) && maxInterval < Math.max(1000, initialInterval)) {
+            throw new IllegalArgumentException("maxInterval must be at least 1000ms and not below initialInterval");
+        }
+        if (maxRetryAfter < 0) {
+            throw new IllegalArgumentException("maxRetryAfter must not be negative");
+        }
+    }
+}
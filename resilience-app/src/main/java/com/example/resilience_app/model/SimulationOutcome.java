@@ -0,0 +1,116 @@
+package com.example.resilience_app.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of trouble-maker's /api/errors/batch: the decision only, delays are not applied
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SimulationOutcome {
+
+    private int index;
+    private String errorCode;
+    private int status;
+    private boolean error;
+    private Long delayMs;
+    private Integer retryAfter; // Seconds, set for simulated errors
+    private String message; // Why the item could not be evaluated
+    private Boolean fallback; // Set when the batch failed and the item was not evaluated at all
+
+    // Default constructor
+    public SimulationOutcome() {}
+
+    /**
+     * Outcome of an item whose batch failed: not evaluated by trouble-maker, so it has no status
+     */
+    public static SimulationOutcome fallback(int index, ErrorTestRequest item, Throwable cause) {
+        SimulationOutcome outcome = new SimulationOutcome();
+        outcome.setIndex(index);
+        outcome.setErrorCode(item.getErrorCode());
+        outcome.setError(true);
+        outcome.setFallback(true);
+        outcome.setMessage("Batch failed: " + (cause != null ? cause.getClass().getSimpleName() : "unknown exception"));
+        return outcome;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(String errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public void setError(boolean error) {
+        this.error = error;
+    }
+
+    public Long getDelayMs() {
+        return delayMs;
+    }
+
+    public void setDelayMs(Long delayMs) {
+        this.delayMs = delayMs;
+    }
+
+    public Integer getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Integer retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public boolean isFallback() {
+        return Boolean.TRUE.equals(fallback);
+    }
+
+    public void setFallback(Boolean fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationOutcome{" +
+                "index=" + index +
+                ", errorCode='" + errorCode + '\'' +
+                ", status=" + status +
+                ", error=" + error +
+                ", delayMs=" + delayMs +
+                ", retryAfter=" + retryAfter +
+                ", message='" + message + '\'' +
+                ", fallback=" + isFallback() +
+                '}';
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.resilience_app.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.time.LocalDateTime;
 
+/**
+ * Body of trouble-maker's /api/errors, decoded straight from the response stream.
+ * Fallbacks answer with the same type: status FALLBACK, or STALE for a last known good response.
+ */
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class TroubleMakerResponse {
 
+    public static final String STATUS_FALLBACK = "FALLBACK";
+    public static final String STATUS_STALE = "STALE";
+
     private String status;
     private String message;
     private String data;
     private LocalDateTime timestamp;
     private String errorType;
+    private String originalError; // Error that led to the fallback
+    private Long staleAgeMs; // Age of a last known good response
 
     // Default constructor
     public TroubleMakerResponse() {}
@@ -24,6 +35,16 @@ public class TroubleMakerResponse {
         this.errorType = errorType;
     }
 
+    /**
+     * Fallback answer after the call failed, errorType is the simple name of the error
+     */
+    public static TroubleMakerResponse fallback(String message, Throwable cause) {
+        TroubleMakerResponse response = new TroubleMakerResponse(STATUS_FALLBACK, message, null, LocalDateTime.now(),
+                cause != null ? cause.getClass().getSimpleName() : null);
+        response.setOriginalError(cause != null ? cause.getMessage() : null);
+        return response;
+    }
+
     // Getters and Setters
     public String getStatus() {
         return status;
@@ -65,6 +86,22 @@ public class TroubleMakerResponse {
         this.errorType = errorType;
     }
 
+    public String getOriginalError() {
+        return originalError;
+    }
+
+    public void setOriginalError(String originalError) {
+        this.originalError = originalError;
+    }
+
+    public Long getStaleAgeMs() {
+        return staleAgeMs;
+    }
+
+    public void setStaleAgeMs(Long staleAgeMs) {
+        this.staleAgeMs = staleAgeMs;
+    }
+
     @Override
     public String toString() {
         return "TroubleMakerResponse{" +
@@ -73,6 +110,8 @@ public class TroubleMakerResponse {
                 ", data='" + data + '\'' +
                 ", timestamp=" + timestamp +
                 ", errorType='" + errorType + '\'' +
+                ", originalError='" + originalError + '\'' +
+                ", staleAgeMs=" + staleAgeMs +
                 '}';
     }
 }
\ No newline at end of file
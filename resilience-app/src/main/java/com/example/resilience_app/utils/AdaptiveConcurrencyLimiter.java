@@ -0,0 +1,301 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.core.functions.CheckedSupplier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of calls in flight to trouble-maker at a limit that follows the backend's health.
+ * <ul>
+ *   <li>AIMD: +1 per limit's worth of good calls, times backoffRatio on errors and calls slower than the
+ *   latency threshold.</li>
+ *   <li>GRADIENT: compares each call's latency with the no-load latency (Vegas style). Latency above it means
+ *   a queue builds up in the backend and shrinks the limit by that ratio, plus sqrt(limit) headroom, so a
+ *   healthy backend lets the limit grow. The no-load latency is learned from calls at light load.</li>
+ * </ul>
+ * Like TCP, overload shrinks the limit at most once per limit's worth of calls, so a burst of failures of the
+ * calls already in flight counts once. The limit only grows while at least half of it is used, so a quiet
+ * period cannot inflate it.
+ * Calls over the limit fail right away with {@link LimitExceededException}, which is not retryable.
+ * <p>
+ * Acquiring a permit is a CAS on the in-flight counter. The limit update after a call is lock-free as well:
+ * the limit and its bookkeeping form one immutable state that each completion replaces by CAS, recomputing
+ * it from the latest state when another completion got there first.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    public enum Algorithm {
+        AIMD, GRADIENT
+    }
+
+    /**
+     * Thrown instead of calling trouble-maker when the limit is reached
+     */
+    public static final class LimitExceededException extends RuntimeException {
+        public LimitExceededException(String name, int limit) {
+            super("Concurrency limit of " + name + " reached: " + limit + " calls in flight", null, false, false);
+        }
+    }
+
+    // Weight of a light-load sample in the no-load latency of GRADIENT
+    private static final double NO_LOAD_RTT_SMOOTHING = 0.1;
+    // Weight of a new limit estimate of GRADIENT, smooths out single slow calls
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final String name;
+    private final boolean enabled;
+    private final Algorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final Predicate<Throwable> isOverload;
+
+    /**
+     * @param noLoadRttNanos      latency without queueing in the backend (GRADIENT), 0 until the first sample
+     * @param samplesSinceBackoff completions since the limit last shrank
+     */
+    private record LimitState(double estimatedLimit, int limit, double noLoadRttNanos, long samplesSinceBackoff) {
+    }
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<LimitState> state;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overloadSignals = new LongAdder();
+
+    /**
+     * @param backoffRatio       factor applied to the limit on overload (AIMD, and GRADIENT on errors)
+     * @param latencyThresholdMs AIMD treats slower calls like errors
+     * @param isOverload         errors that mean the backend is overloaded, other errors leave the limit alone
+     */
+    public AdaptiveConcurrencyLimiter(String name, boolean enabled, Algorithm algorithm, int initialLimit,
+                                      int minLimit, int maxLimit, double backoffRatio, long latencyThresholdMs,
+                                      Predicate<Throwable> isOverload) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max: "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1: " + backoffRatio);
+        }
+        this.name = name;
+        this.enabled = enabled;
+        this.algorithm = algorithm;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.isOverload = isOverload;
+        this.state = new AtomicReference<>(new LimitState(initialLimit, initialLimit, 0, initialLimit));
+    }
+
+    /**
+     * Runs the call if a permit is free and feeds its latency and outcome into the limit
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        int inFlightAtStart = acquire();
+        long start = System.nanoTime();
+        boolean overload = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            overload = isOverload.test(e);
+            throw e;
+        } finally {
+            release(System.nanoTime() - start, overload, inFlightAtStart);
+        }
+    }
+
+    /**
+     * Checked variant of {@link #execute(Supplier)} for Feign decorators
+     */
+    public <T> T executeCheckedSupplier(CheckedSupplier<T> call) throws Throwable {
+        if (!enabled) {
+            return call.get();
+        }
+        int inFlightAtStart = acquire();
+        long start = System.nanoTime();
+        boolean overload = false;
+        try {
+            return call.get();
+        } catch (Throwable e) {
+            overload = isOverload.test(e);
+            throw e;
+        } finally {
+            release(System.nanoTime() - start, overload, inFlightAtStart);
+        }
+    }
+
+    /**
+     * Like {@link #execute(Supplier)}, the permit is held until the stage completes
+     */
+    public <T> CompletionStage<T> executeCompletionStage(Supplier<CompletionStage<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        int inFlightAtStart;
+        try {
+            inFlightAtStart = acquire();
+        } catch (LimitExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long start = System.nanoTime();
+        CompletionStage<T> stage;
+        try {
+            stage = call.get();
+        } catch (RuntimeException e) {
+            release(System.nanoTime() - start, isOverload.test(e), inFlightAtStart);
+            throw e;
+        }
+        return stage.whenComplete((result, throwable) -> release(System.nanoTime() - start,
+                throwable != null && isOverload.test(unwrap(throwable)), inFlightAtStart));
+    }
+
+    /**
+     * @return calls in flight including this one
+     */
+    private int acquire() {
+        while (true) {
+            int current = inFlight.get();
+            int currentLimit = state.get().limit();
+            if (current >= currentLimit) {
+                rejected.increment();
+                throw new LimitExceededException(name, currentLimit);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return current + 1;
+            }
+        }
+    }
+
+    private void release(long rttNanos, boolean overload, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        onSample(rttNanos, overload, inFlightAtStart);
+    }
+
+    /**
+     * Updates the limit with one finished call
+     *
+     * @param inFlightAtStart calls in flight when this one started, tells whether the limit was actually used
+     */
+    void onSample(long rttNanos, boolean overload, int inFlightAtStart) {
+        if (overload) {
+            overloadSignals.increment();
+        }
+        while (true) {
+            LimitState current = state.get();
+            if (state.compareAndSet(current, nextState(current, rttNanos, overload, inFlightAtStart))) {
+                return;
+            }
+        }
+    }
+
+    private LimitState nextState(LimitState current, long rttNanos, boolean overload, int inFlightAtStart) {
+        double estimatedLimit = current.estimatedLimit();
+        double noLoadRttNanos = current.noLoadRttNanos();
+        long samplesSinceBackoff = current.samplesSinceBackoff() + 1;
+        boolean appLimited = inFlightAtStart * 2 < estimatedLimit;
+        double next;
+        if (overload || (algorithm == Algorithm.AIMD && rttNanos > latencyThresholdNanos)) {
+            if (samplesSinceBackoff < estimatedLimit) {
+                next = estimatedLimit;
+            } else {
+                samplesSinceBackoff = 0;
+                next = estimatedLimit * backoffRatio;
+            }
+        } else if (algorithm == Algorithm.AIMD) {
+            next = appLimited ? estimatedLimit : estimatedLimit + 1 / estimatedLimit;
+        } else {
+            noLoadRttNanos = nextNoLoadRtt(noLoadRttNanos, rttNanos, appLimited || estimatedLimit <= minLimit);
+            next = nextGradientLimit(estimatedLimit, noLoadRttNanos, rttNanos, appLimited);
+        }
+        double bounded = Math.max(minLimit, Math.min(maxLimit, next));
+        return new LimitState(bounded, (int) bounded, noLoadRttNanos, samplesSinceBackoff);
+    }
+
+    /**
+     * @param unqueued whether this call cannot have queued behind our own calls in the backend
+     */
+    private static double nextNoLoadRtt(double noLoadRttNanos, long rttNanos, boolean unqueued) {
+        if (noLoadRttNanos == 0) {
+            return rttNanos;
+        }
+        if (unqueued) {
+            // no queue in the backend caused by us, the latency may also have risen for good
+            return noLoadRttNanos + (rttNanos - noLoadRttNanos) * NO_LOAD_RTT_SMOOTHING;
+        }
+        return Math.min(noLoadRttNanos, rttNanos);
+    }
+
+    private static double nextGradientLimit(double estimatedLimit, double noLoadRttNanos, long rttNanos,
+                                            boolean appLimited) {
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, noLoadRttNanos / Math.max(1, rttNanos)));
+        double estimate = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        if (appLimited && estimate > estimatedLimit) {
+            return estimatedLimit;
+        }
+        return estimatedLimit * (1 - LIMIT_SMOOTHING) + estimate * LIMIT_SMOOTHING;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getLimit() {
+        return state.get().limit();
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getOverloadSignals() {
+        return overloadSignals.sum();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.resilience_app.utils;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Target;
+import io.github.resilience4j.core.functions.CheckedFunction;
+import io.github.resilience4j.feign.FeignDecorator;
+
+import java.lang.reflect.Method;
+
+/**
+ * Records every single Feign attempt in the retry instance's histograms. Chained inside the retry decorator,
+ * so it sees each retry attempt; the call it belongs to is the one bound to the calling thread.
+ */
+public final class AttemptMetricsDecorator implements FeignDecorator {
+
+    private final RetryMetrics.Instance metrics;
+
+    public AttemptMetricsDecorator(RetryMetrics.Instance metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CheckedFunction<Object[], Object> decorate(CheckedFunction<Object[], Object> invocationCall,
+                                                     Method method, MethodHandler methodHandler, Target<?> target) {
+        return args -> {
+            long start = System.nanoTime();
+            try {
+                return invocationCall.apply(args);
+            } finally {
+                metrics.recordAttempt(System.nanoTime() - start);
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.resilience_app.utils;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+
+import java.io.IOException;
+import java.time.Duration;
+
+public final class CircuitBreakerConfigUtil {
+
+    private CircuitBreakerConfigUtil() {
+    }
+
+    /**
+     * Breaker that opens when failureRateThreshold percent of the calls in the sliding window failed,
+     * stays open for waitDurationInOpenState and then lets permittedCallsInHalfOpenState probes through.
+     * Only server errors and I/O failures count, 4xx answers (e.g. 429 from the rate limiter) do not,
+     * and neither do attempts rejected locally by the concurrency limit or the call's deadline.
+     *
+     * @param slidingWindowType COUNT_BASED (last n calls) or TIME_BASED (calls of the last n seconds)
+     */
+    public static CircuitBreakerConfig createCircuitBreaker(
+            CircuitBreakerConfig.SlidingWindowType slidingWindowType,
+            int slidingWindowSize,
+            int minimumNumberOfCalls,
+            float failureRateThreshold,
+            long waitDurationInOpenState, // in milliseconds
+            int permittedCallsInHalfOpenState
+    ) {
+        return CircuitBreakerConfig.custom()
+                .slidingWindowType(slidingWindowType)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .waitDurationInOpenState(Duration.ofMillis(waitDurationInOpenState))
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordExceptions(
+                        IOException.class,                          // Connection refused, timeouts
+                        RetryableException.class,                   // Feign I/O errors
+                        FeignException.FeignServerException.class   // 5xx answers
+                )
+                .ignoreExceptions(
+                        AdaptiveConcurrencyLimiter.LimitExceededException.class,
+                        Deadline.DeadlineExceededException.class
+                )
+                .build();
+    }
+}
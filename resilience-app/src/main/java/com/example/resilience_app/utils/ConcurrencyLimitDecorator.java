@@ -0,0 +1,27 @@
+package com.example.resilience_app.utils;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Target;
+import io.github.resilience4j.core.functions.CheckedFunction;
+import io.github.resilience4j.feign.FeignDecorator;
+
+import java.lang.reflect.Method;
+
+/**
+ * Runs every single Feign attempt through an {@link AdaptiveConcurrencyLimiter}. Chained inside the retry
+ * and the circuit breaker, so each retry attempt needs its own permit.
+ */
+public final class ConcurrencyLimitDecorator implements FeignDecorator {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitDecorator(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public CheckedFunction<Object[], Object> decorate(CheckedFunction<Object[], Object> invocationCall,
+                                                     Method method, MethodHandler methodHandler, Target<?> target) {
+        return args -> limiter.executeCheckedSupplier(() -> invocationCall.apply(args));
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.core.ContextPropagator;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Overall time budget of one call to resilience-app, shared by all its attempts and backoff waits.
+ * <p>
+ * The deadline of the current request is bound to the thread handling it. Feign attempts read it to shorten
+ * their timeouts and send the remaining budget to trouble-maker as {@link #HEADER_NAME}; retries read it to
+ * give up once a backoff would end past the deadline. Work running on other threads (async attempts, hedges)
+ * binds the deadline captured by the caller. Async retries evaluate their retry predicate and backoff on the
+ * thread completing an attempt, so async attempts complete with the deadline still bound
+ * ({@link #supplyAsync}), and the retry scheduler carries it over to the next attempt ({@link Propagator}).
+ */
+public final class Deadline {
+
+    /**
+     * Remaining budget of the caller in milliseconds at the time the request was sent
+     */
+    public static final String HEADER_NAME = "X-Request-Deadline-Ms";
+
+    /**
+     * No time budget, used while no deadline is bound
+     */
+    public static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Thrown instead of starting an attempt after the deadline, not retryable
+     */
+    public static final class DeadlineExceededException extends RuntimeException {
+        public DeadlineExceededException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private final long deadlineNanos;
+    // set when a retry gave up because its next backoff would end past the deadline
+    private volatile boolean abandoned;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(long budgetMs) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+    }
+
+    /**
+     * @return the deadline bound to this thread, or {@link #NONE}
+     */
+    public static Deadline current() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null ? deadline : NONE;
+    }
+
+    /**
+     * Binds this deadline to the current thread until the returned scope is closed
+     */
+    public Scope bind() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Runs the call with this deadline bound, for work handed to another thread
+     */
+    public <T> T call(Supplier<T> call) {
+        try (Scope ignored = bind()) {
+            return call.get();
+        }
+    }
+
+    /**
+     * Runs the call on the executor with this deadline bound, and completes the returned future before the
+     * deadline is unbound again: callbacks of the attempt, like the retry predicate and backoff, see it
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> call, Executor executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try (Scope ignored = bind()) {
+                    try {
+                        result.complete(call.get());
+                    } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * @return a future completed like the stage, or failed with DeadlineExceededException at the deadline,
+     * in which case the stage is cancelled. The timer is removed as soon as the stage completes.
+     */
+    public <T> CompletableFuture<T> within(CompletionStage<T> stage) {
+        CompletableFuture<T> source = stage.toCompletableFuture();
+        if (this == NONE || source.isDone()) {
+            return source;
+        }
+        return source.copy()
+                .orTimeout(Math.max(0, remainingMillis()), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(throwable -> {
+                    if (!(throwable instanceof TimeoutException)) {
+                        return CompletableFuture.failedFuture(throwable);
+                    }
+                    // Async retries do not stop on cancellation, the abandoned deadline fails their next attempt
+                    abandon();
+                    source.cancel(true);
+                    return CompletableFuture.failedFuture(new DeadlineExceededException("Deadline exceeded"));
+                });
+    }
+
+    public boolean isBounded() {
+        return this != NONE;
+    }
+
+    public long remainingMillis() {
+        if (this == NONE) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return abandoned || (this != NONE && System.nanoTime() - deadlineNanos >= 0);
+    }
+
+    /**
+     * No further attempt will finish in time, the next one fails right away
+     */
+    public void abandon() {
+        if (this != NONE) {
+            abandoned = true;
+        }
+    }
+
+    /**
+     * Fails fast if the deadline has passed
+     */
+    public void checkNotExpired() {
+        if (isExpired()) {
+            throw new DeadlineExceededException(abandoned
+                    ? "Deadline abandoned, the next backoff would end past it"
+                    : "Deadline exceeded " + -remainingMillis() + "ms ago");
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Carries the deadline of the scheduling thread over to tasks of a Resilience4j
+     * ContextAwareScheduledThreadPoolExecutor, e.g. the next attempt of an async retry
+     */
+    public static final class Propagator implements ContextPropagator<Deadline> {
+
+        @Override
+        public Supplier<Optional<Deadline>> retrieve() {
+            return () -> Optional.ofNullable(CURRENT.get());
+        }
+
+        @Override
+        public Consumer<Optional<Deadline>> copy() {
+            return deadline -> deadline.ifPresent(CURRENT::set);
+        }
+
+        @Override
+        public Consumer<Optional<Deadline>> clear() {
+            return deadline -> CURRENT.remove();
+        }
+    }
+}
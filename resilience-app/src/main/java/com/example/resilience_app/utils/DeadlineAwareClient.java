@@ -0,0 +1,46 @@
+package com.example.resilience_app.utils;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign client wrapper that fits every attempt into the deadline bound to the calling thread:
+ * attempts after the deadline fail without a request, connect and read timeouts are cut to the remaining
+ * budget, and the remaining budget is sent along as {@link Deadline#HEADER_NAME}.
+ */
+public final class DeadlineAwareClient implements Client {
+
+    private final Client delegate;
+
+    public DeadlineAwareClient(Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        Deadline deadline = Deadline.current();
+        if (!deadline.isBounded()) {
+            return delegate.execute(request, options);
+        }
+        deadline.checkNotExpired();
+        long remainingMs = Math.max(1, deadline.remainingMillis());
+
+        Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        headers.put(Deadline.HEADER_NAME, List.of(String.valueOf(remainingMs)));
+        Request withDeadline = Request.create(request.httpMethod(), request.url(), headers, request.body(),
+                request.charset(), request.requestTemplate());
+        Request.Options withinDeadline = new Request.Options(
+                Math.min(options.connectTimeoutUnit().toMillis(options.connectTimeout()), remainingMs), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutUnit().toMillis(options.readTimeout()), remainingMs), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+        return delegate.execute(withDeadline, withinDeadline);
+    }
+}
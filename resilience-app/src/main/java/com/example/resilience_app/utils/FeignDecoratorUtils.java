@@ -0,0 +1,38 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.feign.FeignDecorator;
+
+import java.util.List;
+import java.util.Set;
+
+public final class FeignDecoratorUtils {
+
+    private FeignDecoratorUtils() {
+    }
+
+    /**
+     * Combines decorators the same way FeignDecorators.Builder does: the first decorator wraps the
+     * actual invocation, every following one wraps the previous. Used for decorators the builder has no
+     * method for.
+     */
+    public static FeignDecorator chain(FeignDecorator... decorators) {
+        List<FeignDecorator> chain = List.of(decorators);
+        return (invocationCall, method, methodHandler, target) -> {
+            var decorated = invocationCall;
+            for (FeignDecorator decorator : chain) {
+                decorated = decorator.decorate(decorated, method, methodHandler, target);
+            }
+            return decorated;
+        };
+    }
+
+    /**
+     * Applies the decorator to every method of the client except the named ones, whose calls pass through as they are
+     */
+    public static FeignDecorator except(FeignDecorator decorator, String... methodNames) {
+        Set<String> skipped = Set.of(methodNames);
+        return (invocationCall, method, methodHandler, target) -> skipped.contains(method.getName())
+                ? invocationCall
+                : decorator.decorate(invocationCall, method, methodHandler, target);
+    }
+}
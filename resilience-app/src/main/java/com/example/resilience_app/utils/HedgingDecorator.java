@@ -0,0 +1,261 @@
+package com.example.resilience_app.utils;
+
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Target;
+import io.github.resilience4j.core.functions.CheckedFunction;
+import io.github.resilience4j.feign.FeignDecorator;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedged requests for Feign calls: if the primary call has not answered after the hedge delay,
+ * a second identical call is fired, the first successful response wins and the other one is cancelled.
+ * <p>
+ * The delay is either fixed or the p95 latency observed over the last interval. The number of hedges
+ * in flight is capped, so hedging can never double the load on the backend.
+ * Both calls run on the executor with the caller's {@link Deadline} and {@link RetryMetrics.Call} bound.
+ */
+public final class HedgingDecorator implements FeignDecorator {
+
+    public enum DelayMode {
+        FIXED, P95
+    }
+
+    private static final long P95_REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long P95_MIN_SAMPLES = 20;
+
+    private final DelayMode delayMode;
+    private final long fixedDelayMillis;
+    private final int maxHedgesInFlight;
+    private final ExecutorService executor;
+
+    private final Recorder latencyRecorder = new Recorder(3);
+    private final AtomicLong nextP95Refresh = new AtomicLong(System.nanoTime() + P95_REFRESH_INTERVAL_NANOS);
+    private volatile long observedP95Millis = -1;
+
+    private final AtomicInteger hedgesInFlight = new AtomicInteger();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedgesFired = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder hedgesRejected = new LongAdder();
+
+    /**
+     * @param fixedDelayMillis hedge delay in FIXED mode, and in P95 mode until enough latencies were observed
+     * @param executor         runs primary and hedge calls, cancelled calls get interrupted
+     */
+    public HedgingDecorator(DelayMode delayMode, long fixedDelayMillis, int maxHedgesInFlight, ExecutorService executor) {
+        this.delayMode = delayMode;
+        this.fixedDelayMillis = fixedDelayMillis;
+        this.maxHedgesInFlight = maxHedgesInFlight;
+        this.executor = executor;
+    }
+
+    @Override
+    public CheckedFunction<Object[], Object> decorate(CheckedFunction<Object[], Object> invocationCall,
+                                                     Method method, MethodHandler methodHandler, Target<?> target) {
+        return args -> invoke(invocationCall, args);
+    }
+
+    private Object invoke(CheckedFunction<Object[], Object> invocationCall, Object[] args) throws Throwable {
+        calls.increment();
+        HedgedCall call = new HedgedCall(invocationCall, args);
+        Attempt primary = call.start(false);
+        Attempt hedge = null;
+        boolean hedgeSlotAcquired = false;
+        try {
+            try {
+                return call.outcome.get(getCurrentDelayMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // primary is slower than the hedge delay
+            }
+            hedgeSlotAcquired = tryAcquireHedgeSlot();
+            if (hedgeSlotAcquired) {
+                // null if the primary has failed in the meantime, the call fails without a useless hedge
+                hedge = call.start(true);
+                if (hedge != null) {
+                    hedgesFired.increment();
+                }
+            } else {
+                hedgesRejected.increment();
+            }
+            return call.outcome.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } finally {
+            primary.cancel();
+            if (hedge != null) {
+                hedge.cancel();
+            }
+            if (hedgeSlotAcquired) {
+                hedgesInFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean tryAcquireHedgeSlot() {
+        while (true) {
+            int current = hedgesInFlight.get();
+            if (current >= maxHedgesInFlight) {
+                return false;
+            }
+            if (hedgesInFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public long getCurrentDelayMillis() {
+        if (delayMode == DelayMode.FIXED) {
+            return fixedDelayMillis;
+        }
+        refreshObservedP95();
+        long p95 = observedP95Millis;
+        return p95 < 0 ? fixedDelayMillis : p95;
+    }
+
+    private void refreshObservedP95() {
+        long now = System.nanoTime();
+        long next = nextP95Refresh.get();
+        // only the thread winning the CAS swaps the recorder interval
+        if (now - next < 0 || !nextP95Refresh.compareAndSet(next, now + P95_REFRESH_INTERVAL_NANOS)) {
+            return;
+        }
+        updateObservedP95();
+    }
+
+    void updateObservedP95() {
+        Histogram interval = latencyRecorder.getIntervalHistogram();
+        if (interval.getTotalCount() >= P95_MIN_SAMPLES) {
+            observedP95Millis = TimeUnit.MICROSECONDS.toMillis(interval.getValueAtPercentile(95));
+        }
+    }
+
+    public DelayMode getDelayMode() {
+        return delayMode;
+    }
+
+    public int getMaxHedgesInFlight() {
+        return maxHedgesInFlight;
+    }
+
+    public int getHedgesInFlight() {
+        return hedgesInFlight.get();
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getHedgesFired() {
+        return hedgesFired.sum();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    public long getHedgesRejected() {
+        return hedgesRejected.sum();
+    }
+
+    /**
+     * Primary and hedge of one call race to complete {@link #outcome}; it fails only once both have failed
+     */
+    private final class HedgedCall {
+
+        private final CheckedFunction<Object[], Object> invocationCall;
+        private final Object[] args;
+        private final CompletableFuture<Object> outcome = new CompletableFuture<>();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicBoolean answered = new AtomicBoolean();
+        // thread-bound state of the caller, captured on its thread and bound on the executor threads
+        private final Deadline deadline = Deadline.current();
+        private final RetryMetrics.Call metricsCall = RetryMetrics.currentCall();
+
+        private HedgedCall(CheckedFunction<Object[], Object> invocationCall, Object[] args) {
+            this.invocationCall = invocationCall;
+            this.args = args;
+        }
+
+        /**
+         * @return the started attempt, null for a hedge once all attempts have failed
+         */
+        private Attempt start(boolean hedge) {
+            if (running.getAndUpdate(attempts -> hedge && attempts == 0 ? 0 : attempts + 1) == 0 && hedge) {
+                return null;
+            }
+            Attempt attempt = new Attempt(hedge);
+            attempt.future = executor.submit(() -> run(attempt));
+            return attempt;
+        }
+
+        private void run(Attempt attempt) {
+            try (Deadline.Scope ignored = deadline.bind();
+                 RetryMetrics.Scope ignoredCall = RetryMetrics.bind(metricsCall)) {
+                Object result = invocationCall.apply(args);
+                attempt.recordLatency();
+                // counted before the caller sees the result
+                if (answered.compareAndSet(false, true)) {
+                    if (attempt.hedge) {
+                        hedgesWon.increment();
+                    }
+                    outcome.complete(result);
+                }
+            } catch (Throwable t) {
+                attempt.recordLatency();
+                if (running.decrementAndGet() == 0) {
+                    outcome.completeExceptionally(t);
+                }
+            }
+        }
+    }
+
+    /**
+     * One call to the backend. Every attempt that completes, successfully or not, is a latency sample.
+     * A primary cancelled because the hedge won counts with the time it had taken so far: leaving out
+     * exactly the slow primaries would bias the p95 delay low and feed more hedging.
+     */
+    private final class Attempt {
+
+        private final boolean hedge;
+        private final long startTime = System.nanoTime();
+        private final AtomicBoolean sampled = new AtomicBoolean();
+        private volatile Future<?> future;
+
+        private Attempt(boolean hedge) {
+            this.hedge = hedge;
+        }
+
+        private void recordLatency() {
+            if (sampled.compareAndSet(false, true)) {
+                latencyRecorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+            }
+        }
+
+        private void cancel() {
+            Future<?> running = future;
+            if (running == null || running.isDone()) {
+                return;
+            }
+            if (hedge) {
+                // a hedge cut short only says the primary was faster
+                sampled.set(true);
+            } else {
+                recordLatency();
+            }
+            running.cancel(true);
+        }
+    }
+}
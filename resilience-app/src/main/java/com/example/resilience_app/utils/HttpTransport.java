@@ -0,0 +1,158 @@
+package com.example.resilience_app.utils;
+
+import feign.Client;
+import feign.Request;
+import feign.hc5.ApacheHttp5Client;
+import feign.http2client.Http2Client;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP transport of one Feign client, replacing Feign's default HttpURLConnection client.
+ * <ul>
+ *   <li>HC5: pooled Apache HttpClient 5 with its own connection pool, whose leased/pending/available
+ *   counts are exposed for sizing the pool under load.</li>
+ *   <li>JDK: java.net.http.HttpClient preferring HTTP/2, the JDK manages its connections itself.</li>
+ * </ul>
+ * Connect and read timeouts are part of the transport, so every client has its own.
+ * Automatic retries of the transport are off, retrying is left to Resilience4j.
+ */
+public final class HttpTransport implements AutoCloseable {
+
+    public enum Type {
+        HC5, JDK
+    }
+
+    /**
+     * Pool settings, only used by HC5
+     *
+     * @param maxConnectionsPerRoute    must not exceed maxConnections, with a single backend it is the effective limit
+     * @param keepAliveMs               how long an idle connection stays in the pool for reuse
+     * @param validateAfterInactivityMs idle time after which a pooled connection is checked before it is leased
+     * @param connectionRequestTimeoutMs longest wait for a free connection when the pool is exhausted
+     */
+    public record PoolSettings(int maxConnections, int maxConnectionsPerRoute, long keepAliveMs,
+                               long validateAfterInactivityMs, long connectionRequestTimeoutMs) {
+
+        public PoolSettings {
+            if (maxConnectionsPerRoute < 1 || maxConnectionsPerRoute > maxConnections) {
+                throw new IllegalArgumentException("maxConnectionsPerRoute must be between 1 and maxConnections ("
+                        + maxConnections + "): " + maxConnectionsPerRoute);
+            }
+        }
+    }
+
+    private final String name;
+    private final Type type;
+    private final Client client;
+    private final Request.Options options;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final AutoCloseable closeable;
+
+    private HttpTransport(String name, Type type, Client client, Request.Options options,
+                          PoolingHttpClientConnectionManager connectionManager, AutoCloseable closeable) {
+        this.name = name;
+        this.type = type;
+        this.client = client;
+        this.options = options;
+        this.connectionManager = connectionManager;
+        this.closeable = closeable;
+    }
+
+    public static HttpTransport create(String name, Type type, PoolSettings pool, long connectTimeoutMs, long readTimeoutMs) {
+        Request.Options options = new Request.Options(connectTimeoutMs, TimeUnit.MILLISECONDS,
+                readTimeoutMs, TimeUnit.MILLISECONDS, true);
+        return type == Type.HC5
+                ? hc5(name, pool, options, connectTimeoutMs, readTimeoutMs)
+                : jdk(name, options, connectTimeoutMs);
+    }
+
+    private static HttpTransport hc5(String name, PoolSettings pool, Request.Options options,
+                                     long connectTimeoutMs, long readTimeoutMs) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.maxConnections())
+                .setMaxConnPerRoute(pool.maxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(pool.validateAfterInactivityMs()))
+                        .build())
+                .build();
+        TimeValue keepAlive = TimeValue.ofMilliseconds(pool.keepAliveMs());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(pool.connectionRequestTimeoutMs()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(keepAlive)
+                .disableAutomaticRetries()
+                .build();
+        return new HttpTransport(name, Type.HC5, new ApacheHttp5Client(httpClient), options, connectionManager, httpClient);
+    }
+
+    private static HttpTransport jdk(String name, Request.Options options, long connectTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        return new HttpTransport(name, Type.JDK, new Http2Client(httpClient), options, null, httpClient);
+    }
+
+    public Client client() {
+        return client;
+    }
+
+    public Request.Options options() {
+        return options;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Leased, pending (waiting for a connection), available and max connections of the pool, empty for JDK
+     */
+    public Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (connectionManager != null) {
+            PoolStats total = connectionManager.getTotalStats();
+            stats.put("leased", total.getLeased());
+            stats.put("pending", total.getPending());
+            stats.put("available", total.getAvailable());
+            stats.put("max", total.getMax());
+            stats.put("maxPerRoute", connectionManager.getDefaultMaxPerRoute());
+        }
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            closeable.close();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.resilience_app.utils;
 
+import io.github.resilience4j.core.IntervalBiFunction;
 import io.github.resilience4j.core.IntervalFunction;
 import java.time.Duration;
 
@@ -26,6 +27,41 @@ public final class IntervalFunctionUtils {
         };
     }
 
+    /**
+     * Waits as long as the server asked for via Retry-After, capped at {@code maxDelay}.
+     * Falls back to the given backoff when the failure carries no Retry-After header.
+     */
+    public static IntervalBiFunction<Object> retryAfter(IntervalFunction fallback, Duration maxDelay) {
+        return retryAfter(IntervalBiFunction.ofIntervalFunction(fallback), maxDelay);
+    }
+
+    public static IntervalBiFunction<Object> retryAfter(IntervalBiFunction<Object> fallback, Duration maxDelay) {
+        long maxDelayMillis = maxDelay.toMillis();
+        return (attempt, either) -> {
+            long requested = either.isLeft() ? RetryAfterHeader.delayMillis(either.getLeft()) : RetryAfterHeader.ABSENT;
+            if (requested == RetryAfterHeader.ABSENT) {
+                return fallback.apply(attempt, either);
+            }
+            return Math.min(requested, maxDelayMillis);
+        };
+    }
+
+    /**
+     * Skips a backoff that would end past the deadline bound to the calling thread: the deadline is abandoned
+     * instead, so the next attempt fails right away rather than after a wait nobody is waiting for
+     */
+    public static IntervalBiFunction<Object> deadlineAware(IntervalBiFunction<Object> backoff) {
+        return (attempt, either) -> {
+            long interval = backoff.apply(attempt, either);
+            Deadline deadline = Deadline.current();
+            if (interval >= deadline.remainingMillis()) {
+                deadline.abandon();
+                return 0L;
+            }
+            return interval;
+        };
+    }
+
 
     public static class Presets {
         public static final IntervalFunction STANDARD_RETRY = linear(Duration.ofSeconds(1));
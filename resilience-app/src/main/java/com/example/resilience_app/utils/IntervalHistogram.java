@@ -0,0 +1,67 @@
+package com.example.resilience_app.utils;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lock-free recording into an HdrHistogram Recorder, with two views for readers:
+ * everything since the last reset, and everything since the previous interval snapshot.
+ * Readers swap the recorder's active histogram and fold it into both views, so recording threads never wait.
+ */
+public final class IntervalHistogram {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Histogram sinceReset = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram sinceLastInterval = new Histogram(SIGNIFICANT_DIGITS);
+
+    public void record(long value) {
+        recorder.recordValue(Math.max(0, value));
+    }
+
+    public synchronized Histogram cumulative() {
+        collect();
+        return sinceReset.copy();
+    }
+
+    /**
+     * @return values recorded since the previous call, which starts a new interval
+     */
+    public synchronized Histogram interval() {
+        collect();
+        Histogram interval = sinceLastInterval.copy();
+        sinceLastInterval.reset();
+        return interval;
+    }
+
+    public synchronized void reset() {
+        collect();
+        sinceReset.reset();
+        sinceLastInterval.reset();
+    }
+
+    private void collect() {
+        Histogram recorded = recorder.getIntervalHistogram();
+        sinceReset.add(recorded);
+        sinceLastInterval.add(recorded);
+    }
+
+    /**
+     * Count, mean, percentiles and max of the histogram, each value divided by unitDivisor
+     */
+    public static Map<String, Object> summarize(Histogram histogram, double unitDivisor) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("mean", histogram.getMean() / unitDivisor);
+        summary.put("p50", histogram.getValueAtPercentile(50) / unitDivisor);
+        summary.put("p90", histogram.getValueAtPercentile(90) / unitDivisor);
+        summary.put("p99", histogram.getValueAtPercentile(99) / unitDivisor);
+        summary.put("p99.9", histogram.getValueAtPercentile(99.9) / unitDivisor);
+        summary.put("max", histogram.getMaxValue() / unitDivisor);
+        return summary;
+    }
+}
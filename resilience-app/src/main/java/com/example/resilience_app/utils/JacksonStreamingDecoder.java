@@ -0,0 +1,47 @@
+package com.example.resilience_app.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes Feign response bodies in one pass: Jackson reads the typed result straight from the response stream,
+ * without copying the body into a String first. Readers are built once per return type from the shared mapper.
+ * String return types still get the raw body.
+ */
+public final class JacksonStreamingDecoder implements Decoder {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JacksonStreamingDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (response.status() == 204 || response.body() == null || Integer.valueOf(0).equals(response.body().length())) {
+            return Util.emptyValueOf(type);
+        }
+        if (type == String.class) {
+            return Util.toString(response.body().asReader(StandardCharsets.UTF_8));
+        }
+        ObjectReader reader = readers.computeIfAbsent(type, t -> objectMapper.readerFor(objectMapper.constructType(t)));
+        try (InputStream body = response.body().asInputStream()) {
+            return reader.readValue(body);
+        } catch (IOException e) {
+            throw new DecodeException(response.status(), "Cannot decode " + type.getTypeName() + ": " + e.getMessage(),
+                    response.request(), e);
+        }
+    }
+}
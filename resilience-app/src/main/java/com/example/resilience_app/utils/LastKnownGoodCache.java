@@ -0,0 +1,141 @@
+package com.example.resilience_app.utils;
+
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Last successful trouble-maker response per request, served as stale response when a call fails for good
+ * (stale-if-error), and optionally right away while the circuit of the client is open.
+ * <p>
+ * Bounded by size and by time since the response was stored. Responses are stored on the given executor,
+ * so storing never delays the response of the call itself.
+ */
+public final class LastKnownGoodCache {
+
+    private record Entry(TroubleMakerResponse response, Instant storedAt) {
+    }
+
+    private final boolean enabled;
+    private final boolean serveWhileOpen;
+    private final Cache<String, Entry> cache;
+    private final Executor writeExecutor;
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private final LongAdder servedWhileOpen = new LongAdder();
+
+    /**
+     * @param serveWhileOpen answer from the cache without calling trouble-maker while the circuit is open
+     */
+    public LastKnownGoodCache(boolean enabled, boolean serveWhileOpen, long maxEntries, Duration ttl,
+                              Executor writeExecutor) {
+        this.enabled = enabled;
+        this.serveWhileOpen = serveWhileOpen;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .executor(writeExecutor)
+                .recordStats()
+                .build();
+        this.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * Stores a successful response, asynchronously
+     */
+    public void store(String key, TroubleMakerResponse response) {
+        if (!enabled || response == null) {
+            return;
+        }
+        Entry entry = new Entry(response, Instant.now());
+        writeExecutor.execute(() -> {
+            cache.put(key, entry);
+            stored.increment();
+        });
+    }
+
+    /**
+     * Cached response after the call failed for good
+     *
+     * @return a copy of the response marked as stale, empty on a miss
+     */
+    public Optional<TroubleMakerResponse> serveStale(String key, Throwable cause) {
+        Optional<TroubleMakerResponse> response = lookup(key, cause);
+        response.ifPresent(stale -> staleServed.increment());
+        return response;
+    }
+
+    /**
+     * Cached response instead of a call, only if serving while the circuit is open is enabled
+     *
+     * @return a copy of the response marked as stale, empty if the call should be made
+     */
+    public Optional<TroubleMakerResponse> serveWhileOpen(String key) {
+        if (!serveWhileOpen) {
+            return Optional.empty();
+        }
+        Optional<TroubleMakerResponse> response = lookup(key, null);
+        response.ifPresent(stale -> servedWhileOpen.increment());
+        return response;
+    }
+
+    private Optional<TroubleMakerResponse> lookup(String key, Throwable cause) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry = cache.getIfPresent(key);
+        return entry == null ? Optional.empty() : Optional.of(markStale(entry, cause));
+    }
+
+    /**
+     * Copy of the cached response with status STALE, its age and the error of the failed call
+     */
+    private static TroubleMakerResponse markStale(Entry entry, Throwable cause) {
+        TroubleMakerResponse cached = entry.response();
+        TroubleMakerResponse stale = new TroubleMakerResponse(TroubleMakerResponse.STATUS_STALE, cached.getMessage(),
+                cached.getData(), cached.getTimestamp(), cause != null ? cause.getClass().getSimpleName() : null);
+        stale.setOriginalError(cause != null ? cause.getMessage() : null);
+        stale.setStaleAgeMs(Duration.between(entry.storedAt(), Instant.now()).toMillis());
+        return stale;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isServeWhileOpen() {
+        return serveWhileOpen;
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    public long getStored() {
+        return stored.sum();
+    }
+
+    /**
+     * Lookups only happen for failed calls (and calls while the circuit is open), so hits and misses
+     * count how often a stale response could be served
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getStaleServed() {
+        return staleServed.sum();
+    }
+
+    public long getServedWhileOpen() {
+        return servedWhileOpen.sum();
+    }
+}
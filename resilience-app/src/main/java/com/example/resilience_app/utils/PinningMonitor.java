@@ -0,0 +1,178 @@
+package com.example.resilience_app.utils;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, e.g. by blocking inside a synchronized block.
+ * Streams the JFR event jdk.VirtualThreadPinned in-process and counts the events per site (the first
+ * non-JDK frame of the stack). The first event of each site is logged with its stack, later ones are only
+ * counted. At most maxSites sites are tracked, events of further sites are counted as untracked.
+ */
+public final class PinningMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private static final class Site {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder pinnedNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final int maxSites;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+    private RecordingStream stream;
+
+    /**
+     * @param threshold pinning shorter than this is not reported (JFR event threshold)
+     */
+    public PinningMonitor(boolean enabled, Duration threshold, int maxSites) {
+        if (threshold.isNegative() || maxSites < 1) {
+            throw new IllegalArgumentException("threshold must not be negative and maxSites at least 1: "
+                    + threshold + ", " + maxSites);
+        }
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxSites = maxSites;
+    }
+
+    /**
+     * Starts streaming pinned events in the background, does nothing when disabled
+     */
+    public synchronized void start() {
+        if (!enabled || stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("📌 [PINNING] Monitoring virtual threads pinned for at least {}ms", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        if (record(site(frames), event.getDuration().toNanos())) {
+            logger.warn("📌 [PINNING] Virtual thread {} pinned for {}ms at:{}",
+                    event.getThread() != null ? event.getThread().getJavaName() : "unknown",
+                    event.getDuration().toMillis(), describe(frames));
+        }
+    }
+
+    /**
+     * Counts one pinned event, true if it is the first one of its site
+     */
+    boolean record(String site, long nanos) {
+        boolean[] first = new boolean[1];
+        Site counters = sites.get(site);
+        if (counters == null && sites.size() >= maxSites) {
+            untracked.increment();
+        } else {
+            if (counters == null) {
+                counters = sites.computeIfAbsent(site, key -> {
+                    first[0] = true;
+                    return new Site();
+                });
+            }
+            counters.count.increment();
+            counters.pinnedNanos.add(nanos);
+            counters.maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+        // Totals last, so a reader who sees the event also sees its site
+        pinnedNanos.add(nanos);
+        events.increment();
+        return first[0];
+    }
+
+    /**
+     * First frame outside the JDK, where application or library code holds the monitor
+     */
+    private static String site(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!isJdkType(type)) {
+                return frameName(frame);
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frameName(frames.getFirst());
+    }
+
+    private static boolean isJdkType(String type) {
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String describe(List<RecordedFrame> frames) {
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\n    at " + frameName(frame))
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * Totals and the sites with the most pinned events first
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("thresholdMs", threshold.toMillis());
+        stats.put("events", events.sum());
+        stats.put("pinnedMs", pinnedNanos.sum() / NANOS_PER_MILLI);
+        stats.put("untrackedEvents", untracked.sum());
+        stats.put("sites", sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Site> entry) -> entry.getValue().count.sum()).reversed())
+                .map(entry -> {
+                    Map<String, Object> site = new LinkedHashMap<>();
+                    site.put("site", entry.getKey());
+                    site.put("events", entry.getValue().count.sum());
+                    site.put("pinnedMs", entry.getValue().pinnedNanos.sum() / NANOS_PER_MILLI);
+                    site.put("maxPinnedMs", entry.getValue().maxNanos.get() / NANOS_PER_MILLI);
+                    return site;
+                })
+                .toList());
+        return stats;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getEvents() {
+        return events.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
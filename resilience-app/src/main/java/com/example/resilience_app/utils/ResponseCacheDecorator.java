@@ -0,0 +1,40 @@
+package com.example.resilience_app.utils;
+
+import com.example.resilience_app.model.TroubleMakerResponse;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Target;
+import io.github.resilience4j.core.functions.CheckedFunction;
+import io.github.resilience4j.feign.FeignDecorator;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * Stores every successful Feign attempt in the last-known-good cache. Chained inside the fallback,
+ * so fallback responses are never stored.
+ */
+public final class ResponseCacheDecorator implements FeignDecorator {
+
+    private final LastKnownGoodCache cache;
+    private final Function<Object[], String> keyFunction;
+
+    /**
+     * @param keyFunction cache key from the arguments of the Feign method
+     */
+    public ResponseCacheDecorator(LastKnownGoodCache cache, Function<Object[], String> keyFunction) {
+        this.cache = cache;
+        this.keyFunction = keyFunction;
+    }
+
+    @Override
+    public CheckedFunction<Object[], Object> decorate(CheckedFunction<Object[], Object> invocationCall,
+                                                     Method method, MethodHandler methodHandler, Target<?> target) {
+        return args -> {
+            Object response = invocationCall.apply(args);
+            if (response instanceof TroubleMakerResponse troubleMakerResponse) {
+                cache.store(keyFunction.apply(args), troubleMakerResponse);
+            }
+            return response;
+        };
+    }
+}
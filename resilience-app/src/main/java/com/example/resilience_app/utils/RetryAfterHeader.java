@@ -0,0 +1,101 @@
+package com.example.resilience_app.utils;
+
+import feign.FeignException;
+import feign.RetryableException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads the server-requested delay from the Retry-After header of a failed Feign call.
+ * Supports both formats of RFC 9110: delay-seconds and HTTP-date, and prefers the millisecond precise
+ * X-Retry-After-Ms header of the trouble-maker rate limiter when present. A retry time already set on a
+ * {@link RetryableException} (by Feign's ErrorDecoder or a custom one) wins over the raw Retry-After header.
+ */
+public final class RetryAfterHeader {
+
+    public static final String HEADER_NAME = "Retry-After";
+    public static final String MILLIS_HEADER_NAME = "X-Retry-After-Ms";
+
+    /** Returned when the throwable carries no usable Retry-After header */
+    public static final long ABSENT = -1L;
+
+    private RetryAfterHeader() {
+    }
+
+    /**
+     * @return the requested delay in milliseconds, or {@link #ABSENT}
+     */
+    public static long delayMillis(Throwable throwable) {
+        return delayMillis(throwable, Instant.now());
+    }
+
+    static long delayMillis(Throwable throwable, Instant now) {
+        if (!(throwable instanceof FeignException feignException)) {
+            return ABSENT;
+        }
+        Map<String, Collection<String>> headers = feignException.responseHeaders();
+        long millis = parseMillis(headerValue(headers, MILLIS_HEADER_NAME));
+        if (millis != ABSENT) {
+            return millis;
+        }
+        if (feignException instanceof RetryableException retryable && retryable.retryAfter() != null) {
+            // Epoch millis of the earliest retry
+            return Math.max(0L, retryable.retryAfter() - now.toEpochMilli());
+        }
+        String value = headerValue(headers, HEADER_NAME);
+        return value == null ? ABSENT : parseDelayMillis(value, now);
+    }
+
+    static long parseMillis(String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+        try {
+            long millis = Long.parseLong(value.trim());
+            return millis < 0 ? ABSENT : millis;
+        } catch (NumberFormatException e) {
+            return ABSENT;
+        }
+    }
+
+    static long parseDelayMillis(String value, Instant now) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return ABSENT;
+        }
+        if (Character.isDigit(trimmed.charAt(0))) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(trimmed)).toMillis();
+            } catch (NumberFormatException | ArithmeticException e) {
+                return ABSENT;
+            }
+        }
+        try {
+            Instant retryAt = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(0L, Duration.between(now, retryAt).toMillis());
+        } catch (DateTimeParseException e) {
+            return ABSENT;
+        }
+    }
+
+    static String headerValue(Map<String, Collection<String>> headers, String name) {
+        if (headers == null || headers.isEmpty()) {
+            return null;
+        }
+        // Feign normalizes header names case-insensitively, but be lenient with other sources
+        for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && header.getValue() != null) {
+                for (String value : header.getValue()) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+}
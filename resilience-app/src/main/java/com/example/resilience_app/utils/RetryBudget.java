@@ -0,0 +1,130 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.retry.RetryConfig;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Token bucket shared by all Retry instances to cap retry load amplification.
+ * Every retry spends one token, every successful call earns {@code tokenRatio} tokens,
+ * so retries stay at most {@code tokenRatio} of the successful traffic plus a {@code maxTokens} reserve.
+ * When the bucket is empty the failure is not retried and the caller falls through to its fallback.
+ * <p>
+ * Token state is a single CAS-updated long (milli-tokens), so the budget never blocks callers.
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000; // one token in milli-tokens
+
+    private final boolean enabled;
+    private final double tokenRatio;
+    private final long maxMilliTokens;
+    private final long depositMilliTokens;
+
+    private final AtomicLong milliTokens;
+    private final LongAdder acquiredRetries = new LongAdder();
+    private final LongAdder rejectedRetries = new LongAdder();
+
+    public RetryBudget(boolean enabled, double tokenRatio, int maxTokens) {
+        if (tokenRatio < 0) {
+            throw new IllegalArgumentException("tokenRatio must not be negative: " + tokenRatio);
+        }
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("maxTokens must be at least 1: " + maxTokens);
+        }
+        this.enabled = enabled;
+        this.tokenRatio = tokenRatio;
+        this.maxMilliTokens = maxTokens * SCALE;
+        this.depositMilliTokens = Math.round(tokenRatio * SCALE);
+        this.milliTokens = new AtomicLong(maxMilliTokens);
+    }
+
+    /**
+     * Copy of the given config whose retries are paid from this budget.
+     * Successful results earn tokens, retryable failures only retry if a token is available.
+     * Returns the config unchanged when the budget is disabled.
+     */
+    public RetryConfig applyTo(RetryConfig baseConfig) {
+        if (!enabled) {
+            return baseConfig;
+        }
+        Predicate<Throwable> retryable = baseConfig.getExceptionPredicate();
+        Predicate<Object> retryOnResult = baseConfig.getResultPredicate();
+        return RetryConfig.from(baseConfig)
+                .retryExceptions() // already part of the base exception predicate
+                .retryOnException(throwable -> retryable.test(throwable) && tryAcquire())
+                .retryOnResult(result -> {
+                    onSuccess();
+                    return retryOnResult != null && retryOnResult.test(result);
+                })
+                .build();
+    }
+
+    /**
+     * Spends one token for a retry.
+     *
+     * @return false if the budget is exhausted and the failure must not be retried
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long current = milliTokens.get();
+            if (current < SCALE) {
+                rejectedRetries.increment();
+                return false;
+            }
+            if (milliTokens.compareAndSet(current, current - SCALE)) {
+                acquiredRetries.increment();
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess() {
+        deposit(depositMilliTokens);
+    }
+
+    /**
+     * Gives back the token spent on the final failure of an exhausted call, which was not followed by a retry
+     */
+    public void refund() {
+        deposit(SCALE);
+    }
+
+    private void deposit(long amount) {
+        while (true) {
+            long current = milliTokens.get();
+            if (current >= maxMilliTokens) {
+                return;
+            }
+            if (milliTokens.compareAndSet(current, Math.min(maxMilliTokens, current + amount))) {
+                return;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getTokenRatio() {
+        return tokenRatio;
+    }
+
+    public double getMaxTokens() {
+        return (double) maxMilliTokens / SCALE;
+    }
+
+    public double getAvailableTokens() {
+        return (double) milliTokens.get() / SCALE;
+    }
+
+    public long getAcquiredRetries() {
+        return acquiredRetries.sum();
+    }
+
+    public long getRejectedRetries() {
+        return rejectedRetries.sum();
+    }
+}
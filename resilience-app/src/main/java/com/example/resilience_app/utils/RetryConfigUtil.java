@@ -1,5 +1,6 @@
 package com.example.resilience_app.utils;
 
+import com.example.resilience_app.model.RetryStrategy;
 import io.github.resilience4j.core.IntervalFunction;
 import io.github.resilience4j.retry.RetryConfig;
 
@@ -7,6 +8,7 @@ import java.net.ConnectException;
 import java.net.SocketTimeoutException;
 import java.time.Duration;
 import java.util.Set;
+import java.util.function.Predicate;
 
 public final class RetryConfigUtil {
 
@@ -59,6 +61,106 @@ public final class RetryConfigUtil {
                 .build();
     }
 
+    /**
+     * Honors the server's Retry-After header (capped at maxRetryAfterDelay) and falls back to
+     * exponential backoff with jitter when the header is missing.
+     */
+    public static RetryConfig createRetryAfterRetry(
+            int maxAttempts,
+            long initialInterval, // in milliseconds
+            double multiplier,
+            double randomizationFactor,
+            long maxInterval, // in seconds
+            long maxRetryAfterDelay // in milliseconds
+    ) {
+        IntervalFunction backoff = IntervalFunctionUtils.exponentialWithJitter(
+                Duration.ofMillis(initialInterval),
+                multiplier,
+                randomizationFactor,
+                Duration.ofSeconds(maxInterval)
+        );
+        return RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .intervalBiFunction(IntervalFunctionUtils.retryAfter(backoff, Duration.ofMillis(maxRetryAfterDelay)))
+                .retryExceptions(
+                        java.net.ConnectException.class,           // Connection refused
+                        java.net.UnknownHostException.class,       // DNS resolution failures
+                        java.io.IOException.class,                 // General I/O errors
+
+                        // Feign specific exceptions
+                        feign.RetryableException.class,            // Feign retryable errors
+                        feign.FeignException.class                // All Feign exceptions
+                )
+                .build();
+    }
+
+    /**
+     * Config of a validated strategy, intervals converted the way the factory methods expect them
+     */
+    public static RetryConfig createFromStrategy(RetryStrategy strategy) {
+        return switch (strategy.strategy()) {
+            case "standard-exponential" -> createStandardRetry(
+                    strategy.maxAttempts(),
+                    strategy.initialInterval() / 1000, // Convert to seconds
+                    strategy.multiplier(),
+                    null
+            );
+            case "retry-after" -> createRetryAfterRetry(
+                    strategy.maxAttempts(),
+                    strategy.initialInterval(),
+                    strategy.multiplier(),
+                    strategy.randomizationFactor(),
+                    strategy.maxInterval() / 1000,
+                    strategy.maxRetryAfter()
+            );
+            default -> createRandomBackoffRetry(
+                    strategy.maxAttempts(),
+                    strategy.initialInterval(),
+                    strategy.multiplier(),
+                    strategy.randomizationFactor(),
+                    strategy.maxInterval() / 1000 // Convert to seconds for maxInterval
+            );
+        };
+    }
+
+    /**
+     * Copy of an existing config (e.g. one built by Resilience4j from YAML) whose wait interval
+     * honors Retry-After and keeps the original interval as fallback.
+     */
+    public static RetryConfig withRetryAfter(RetryConfig baseConfig, long maxRetryAfterDelay) {
+        return RetryConfig.from(baseConfig)
+                .intervalBiFunction(IntervalFunctionUtils.retryAfter(
+                        baseConfig.getIntervalBiFunction(),
+                        Duration.ofMillis(maxRetryAfterDelay)))
+                .build();
+    }
+
+    /**
+     * Copy of the given config that retries exactly the exceptions the source config retries,
+     * e.g. to keep the YAML retry-exceptions of an instance when its backoff strategy is swapped
+     */
+    public static RetryConfig withExceptionsOf(RetryConfig baseConfig, RetryConfig source) {
+        return RetryConfig.from(baseConfig)
+                .retryExceptions() // replaced by the source predicate, which includes its ignored exceptions
+                .ignoreExceptions()
+                .retryOnException(source.getExceptionPredicate())
+                .build();
+    }
+
+    /**
+     * Copy of the given config that respects the deadline of the current call: no retry once it has passed,
+     * and no backoff that would end past it. Both read the deadline bound to the thread completing the attempt,
+     * which async attempts get from {@link Deadline#supplyAsync} and the retry scheduler.
+     */
+    public static RetryConfig withDeadline(RetryConfig baseConfig) {
+        Predicate<Throwable> retryable = baseConfig.getExceptionPredicate();
+        return RetryConfig.from(baseConfig)
+                .retryExceptions() // already part of the base exception predicate
+                .retryOnException(throwable -> retryable.test(throwable) && !Deadline.current().isExpired())
+                .intervalBiFunction(IntervalFunctionUtils.deadlineAware(baseConfig.getIntervalBiFunction()))
+                .build();
+    }
+
     public static RetryConfig createCustomBackoff() {
         return RetryConfig.custom()
                 .maxAttempts(3)
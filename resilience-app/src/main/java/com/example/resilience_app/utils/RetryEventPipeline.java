@@ -0,0 +1,425 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerEvent;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnStateTransitionEvent;
+import io.github.resilience4j.retry.event.RetryEvent;
+import io.github.resilience4j.retry.event.RetryOnRetryEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replaces per-event logging of resilience events (retries and circuit breakers) with aggregated summaries.
+ * <p>
+ * Callers only write a few ints into a pre-allocated lock-free ring buffer (bounded MPSC queue with per-slot
+ * sequence numbers), so publishing neither allocates, formats nor blocks; when the buffer is full the event is
+ * dropped and counted. A single consumer thread keeps counters per instance, event kind and exception type and
+ * logs one summary line per active instance and interval, e.g.
+ * {@code programmaticRetry: 1200 retries, 300 exhausted | 90% FeignException$ServiceUnavailable | last 5s}.
+ * A sampled share of events can additionally be logged in detail, switchable at runtime;
+ * circuit breaker state transitions are rare and always logged.
+ */
+public final class RetryEventPipeline implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryEventPipeline.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int NO_EXCEPTION = 0;
+
+    public enum Kind {
+        RETRY("retries"),
+        RETRY_SUCCESS("recovered"),
+        EXHAUSTED("exhausted"),
+        IGNORED_ERROR("ignored"),
+        CALL_NOT_PERMITTED("short-circuited"),
+        CIRCUIT_OPENED("circuit opened"),
+        CIRCUIT_HALF_OPENED("circuit half-opened"),
+        CIRCUIT_CLOSED("circuit closed");
+
+        private static final Kind[] VALUES = values();
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        // failures carry the exception that caused them
+        boolean isFailure() {
+            return this == RETRY || this == EXHAUSTED || this == IGNORED_ERROR;
+        }
+
+        boolean isWarning() {
+            return isFailure() || this == CALL_NOT_PERMITTED || this == CIRCUIT_OPENED || this == CIRCUIT_HALF_OPENED;
+        }
+
+        boolean isStateTransition() {
+            return this == CIRCUIT_OPENED || this == CIRCUIT_HALF_OPENED || this == CIRCUIT_CLOSED;
+        }
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final int[] instanceIds;
+    private final int[] kinds;
+    private final int[] exceptionIds;
+    private final int[] attempts;
+    private final long[] waitMillis;
+    private final Throwable[] sampledThrowables;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // consumer thread only
+
+    // small-int ids instead of strings in the ring buffer, index 0 of exceptions means "none"
+    private final ConcurrentHashMap<String, Integer> instanceIdsByName = new ConcurrentHashMap<>();
+    private final List<String> instanceNames = new CopyOnWriteArrayList<>();
+    private final List<String> exceptionNames = new CopyOnWriteArrayList<>(List.of("-"));
+    private final ClassValue<Integer> exceptionIdsByType = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            synchronized (exceptionNames) {
+                String name = type.getName();
+                exceptionNames.add(name.substring(name.lastIndexOf('.') + 1));
+                return exceptionNames.size() - 1;
+            }
+        }
+    };
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile double detailSampleRate;
+
+    // consumer thread only
+    private final List<InstanceCounters> counters = new ArrayList<>();
+    private final long summaryIntervalNanos;
+    private long nextSummaryAt;
+    private volatile Map<String, Object> totalsSnapshot = Map.of();
+
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    public RetryEventPipeline(int capacity, Duration summaryInterval, double detailSampleRate) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.instanceIds = new int[size];
+        this.kinds = new int[size];
+        this.exceptionIds = new int[size];
+        this.attempts = new int[size];
+        this.waitMillis = new long[size];
+        this.sampledThrowables = new Throwable[size];
+        this.summaryIntervalNanos = summaryInterval.toNanos();
+        setDetailSampleRate(detailSampleRate);
+        this.nextSummaryAt = System.nanoTime() + summaryIntervalNanos;
+        this.consumer = Thread.ofPlatform().name("retry-event-pipeline").daemon(true).start(this::consume);
+    }
+
+    /**
+     * Event consumer for {@code retry.getEventPublisher().onEvent(...)}
+     */
+    public void onRetryEvent(RetryEvent event) {
+        Kind kind = switch (event.getEventType()) {
+            case RETRY -> Kind.RETRY;
+            case ERROR -> Kind.EXHAUSTED;
+            case IGNORED_ERROR -> Kind.IGNORED_ERROR;
+            // Resilience4j publishes SUCCESS only for calls that needed a retry, first-try successes emit no event
+            case SUCCESS -> Kind.RETRY_SUCCESS;
+        };
+        long wait = event instanceof RetryOnRetryEvent retryEvent ? retryEvent.getWaitInterval().toMillis() : 0;
+        publish(event.getName(), kind, event.getLastThrowable(), event.getNumberOfRetryAttempts(), wait);
+    }
+
+    /**
+     * Event consumer for {@code circuitBreaker.getEventPublisher().onEvent(...)}.
+     * Only rejected calls and state transitions are published, failures already show up as retry events.
+     */
+    public void onCircuitBreakerEvent(CircuitBreakerEvent event) {
+        Kind kind = switch (event.getEventType()) {
+            case NOT_PERMITTED -> Kind.CALL_NOT_PERMITTED;
+            case STATE_TRANSITION -> switch (((CircuitBreakerOnStateTransitionEvent) event).getStateTransition().getToState()) {
+                case OPEN, FORCED_OPEN -> Kind.CIRCUIT_OPENED;
+                case HALF_OPEN -> Kind.CIRCUIT_HALF_OPENED;
+                case CLOSED -> Kind.CIRCUIT_CLOSED;
+                default -> null;
+            };
+            default -> null;
+        };
+        if (kind != null) {
+            publish(event.getCircuitBreakerName(), kind, null, 0, 0);
+        }
+    }
+
+    /**
+     * Puts the event into the ring buffer, or drops it if the consumer is behind
+     */
+    public void publish(String instance, Kind kind, Throwable throwable, int attempt, long waitMs) {
+        published.increment();
+        int instanceId = instanceId(instance);
+        int exceptionId = throwable == null ? NO_EXCEPTION : exceptionIdsByType.get(throwable.getClass());
+        double sampleRate = detailSampleRate;
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    instanceIds[index] = instanceId;
+                    kinds[index] = kind.ordinal();
+                    exceptionIds[index] = exceptionId;
+                    attempts[index] = attempt;
+                    waitMillis[index] = waitMs;
+                    sampledThrowables[index] = sampled ? throwable : null;
+                    sequences.set(index, position + 1); // publishes the slot to the consumer
+                    return;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private int instanceId(String instance) {
+        Integer id = instanceIdsByName.get(instance);
+        if (id != null) {
+            return id;
+        }
+        return instanceIdsByName.computeIfAbsent(instance, name -> {
+            synchronized (instanceNames) {
+                instanceNames.add(name);
+                return instanceNames.size() - 1;
+            }
+        });
+    }
+
+    private void consume() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            long now = System.nanoTime();
+            if (now - nextSummaryAt >= 0) {
+                logSummaries();
+                nextSummaryAt = now + summaryIntervalNanos;
+            }
+        }
+        drain();
+        logSummaries();
+    }
+
+    private int drain() {
+        int drained = 0;
+        while (true) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                return drained;
+            }
+            InstanceCounters instance = countersFor(instanceIds[index]);
+            Kind kind = Kind.VALUES[kinds[index]];
+            instance.record(kind, exceptionIds[index], waitMillis[index]);
+            if (kind.isStateTransition()) {
+                logger.warn("⚡ [CIRCUIT-BREAKER] Name: {} | {}", instance.name, kind.label());
+            }
+            Throwable sampled = sampledThrowables[index];
+            if (sampled != null) {
+                sampledThrowables[index] = null;
+                logger.warn("🔍 [RETRY-DETAIL] Name: {} | Event: {} | Attempt: {} | Exception: {} | Message: {}",
+                        instance.name, kind, attempts[index], exceptionNames.get(exceptionIds[index]), sampled.getMessage());
+            }
+            sequences.set(index, head + mask + 1); // frees the slot for the next lap
+            head++;
+            drained++;
+        }
+    }
+
+    private InstanceCounters countersFor(int instanceId) {
+        while (counters.size() <= instanceId) {
+            counters.add(new InstanceCounters(instanceNames.get(counters.size())));
+        }
+        return counters.get(instanceId);
+    }
+
+    private void logSummaries() {
+        long droppedSoFar = dropped.sum();
+        Map<String, Object> totals = new LinkedHashMap<>();
+        for (InstanceCounters instance : counters) {
+            if (instance.hasWarnings()) {
+                logger.warn("📊 [RETRY-SUMMARY] {} | last {}s", instance.summary(exceptionNames),
+                        TimeUnit.NANOSECONDS.toSeconds(summaryIntervalNanos));
+            } else if (instance.hasEvents()) {
+                logger.debug("📊 [RETRY-SUMMARY] {} | last {}s", instance.summary(exceptionNames),
+                        TimeUnit.NANOSECONDS.toSeconds(summaryIntervalNanos));
+            }
+            instance.closeInterval();
+            totals.put(instance.name, instance.totals(exceptionNames));
+        }
+        if (droppedSoFar > 0) {
+            logger.warn("📊 [RETRY-SUMMARY] {} events dropped so far, the pipeline buffer was full", droppedSoFar);
+        }
+        totalsSnapshot = totals;
+    }
+
+    public void setDetailSampleRate(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("detail sample rate must be between 0 and 1: " + rate);
+        }
+        this.detailSampleRate = rate;
+    }
+
+    public double getDetailSampleRate() {
+        return detailSampleRate;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Cumulative counters per instance as of the last summary
+     */
+    public Map<String, Object> getTotals() {
+        return totalsSnapshot;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(consumer);
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Counters of one instance, only touched by the consumer thread
+     */
+    private static final class InstanceCounters {
+
+        private final String name;
+        private final long[] interval = new long[Kind.VALUES.length];
+        private final long[] total = new long[Kind.VALUES.length];
+        private long[] intervalFailuresByException = new long[8];
+        private long[] totalFailuresByException = new long[8];
+        private long intervalWaitMillis;
+
+        private InstanceCounters(String name) {
+            this.name = name;
+        }
+
+        private void record(Kind kind, int exceptionId, long waitMs) {
+            interval[kind.ordinal()]++;
+            total[kind.ordinal()]++;
+            if (kind.isFailure()) {
+                if (exceptionId >= intervalFailuresByException.length) {
+                    int size = Integer.highestOneBit(exceptionId) << 1;
+                    intervalFailuresByException = Arrays.copyOf(intervalFailuresByException, size);
+                    totalFailuresByException = Arrays.copyOf(totalFailuresByException, size);
+                }
+                intervalFailuresByException[exceptionId]++;
+                totalFailuresByException[exceptionId]++;
+            }
+            if (kind == Kind.RETRY) {
+                intervalWaitMillis += waitMs;
+            }
+        }
+
+        private boolean hasEvents() {
+            for (long count : interval) {
+                if (count > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasWarnings() {
+            for (Kind kind : Kind.VALUES) {
+                if (kind.isWarning() && interval[kind.ordinal()] > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String summary(List<String> exceptionNames) {
+            StringBuilder summary = new StringBuilder(name).append(':');
+            String separator = " ";
+            for (Kind kind : Kind.VALUES) {
+                if (interval[kind.ordinal()] > 0) {
+                    summary.append(separator).append(interval[kind.ordinal()]).append(' ').append(kind.label());
+                    separator = ", ";
+                }
+            }
+            long retries = interval[Kind.RETRY.ordinal()];
+            if (retries > 0) {
+                summary.append(", avg backoff ").append(intervalWaitMillis / retries).append("ms");
+            }
+            long failures = 0;
+            int topException = NO_EXCEPTION;
+            for (int id = 0; id < intervalFailuresByException.length; id++) {
+                failures += intervalFailuresByException[id];
+                if (intervalFailuresByException[id] > intervalFailuresByException[topException]) {
+                    topException = id;
+                }
+            }
+            if (failures > 0) {
+                summary.append(" | ")
+                        .append(Math.round(100.0 * intervalFailuresByException[topException] / failures))
+                        .append("% ").append(exceptionNames.get(topException));
+            }
+            return summary.toString();
+        }
+
+        private Map<String, Object> totals(List<String> exceptionNames) {
+            Map<String, Object> totals = new LinkedHashMap<>();
+            for (Kind kind : Kind.VALUES) {
+                totals.put(kind.name(), total[kind.ordinal()]);
+            }
+            Map<String, Long> failuresByException = new LinkedHashMap<>();
+            for (int id = 0; id < totalFailuresByException.length; id++) {
+                if (totalFailuresByException[id] > 0) {
+                    failuresByException.put(exceptionNames.get(id), totalFailuresByException[id]);
+                }
+            }
+            totals.put("failuresByException", failuresByException);
+            return totals;
+        }
+
+        private void closeInterval() {
+            Arrays.fill(interval, 0);
+            Arrays.fill(intervalFailuresByException, 0);
+            intervalWaitMillis = 0;
+        }
+    }
+}
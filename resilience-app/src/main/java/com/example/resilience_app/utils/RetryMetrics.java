@@ -0,0 +1,218 @@
+package com.example.resilience_app.utils;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Latency and attempt histograms per retry instance:
+ * total latency of a call including all retries and backoff waits, latency of every single attempt,
+ * backoff waits between attempts, and attempts per call.
+ * Latencies are recorded in microseconds and reported in milliseconds.
+ */
+public final class RetryMetrics {
+
+    private static final double MICROS_PER_MILLI = 1000d;
+
+    // attempts of the calls closed on the current thread while countAttempts runs
+    private static final ThreadLocal<int[]> attemptCount = new ThreadLocal<>();
+
+    // call of the current thread, for attempts recorded deep inside a blocking client
+    private static final ThreadLocal<Call> boundCall = new ThreadLocal<>();
+
+    private final ConcurrentHashMap<String, Instance> instances = new ConcurrentHashMap<>();
+
+    public Instance instance(String name) {
+        return instances.computeIfAbsent(name, Instance::new);
+    }
+
+    /**
+     * Values since the last reset, per instance and histogram
+     */
+    public Map<String, Object> cumulative() {
+        return snapshot(IntervalHistogram::cumulative);
+    }
+
+    /**
+     * Values since the previous interval snapshot, per instance and histogram
+     */
+    public Map<String, Object> interval() {
+        return snapshot(IntervalHistogram::interval);
+    }
+
+    public void reset() {
+        instances.values().forEach(Instance::reset);
+    }
+
+    /**
+     * Runs a blocking call and reports the attempts of all retry calls closed on the current thread meanwhile,
+     * also if the call fails. Calls answered without a call of their own (e.g. coalesced) report 0.
+     */
+    public static <T> T countAttempts(Supplier<T> call, IntConsumer attempts) {
+        int[] previous = attemptCount.get();
+        int[] count = new int[1];
+        attemptCount.set(count);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                previous[0] += count[0];
+                attemptCount.set(previous);
+            } else {
+                attemptCount.remove();
+            }
+            attempts.accept(count[0]);
+        }
+    }
+
+    /**
+     * @return the call bound to the current thread, null if none
+     */
+    public static Call currentCall() {
+        return boundCall.get();
+    }
+
+    /**
+     * Binds a call captured on another thread (or none) to the current thread until the returned scope is
+     * closed, so attempts made on behalf of the caller, e.g. hedges, count for the caller's call
+     */
+    public static Scope bind(Call call) {
+        Call previous = boundCall.get();
+        setBoundCall(call);
+        return () -> setBoundCall(previous);
+    }
+
+    private static void setBoundCall(Call call) {
+        if (call != null) {
+            boundCall.set(call);
+        } else {
+            boundCall.remove();
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private Map<String, Object> snapshot(Function<IntervalHistogram, Histogram> view) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        instances.values().forEach(instance -> snapshot.put(instance.name, instance.snapshot(view)));
+        return snapshot;
+    }
+
+    public static final class Instance {
+
+        private final String name;
+        private final IntervalHistogram totalLatency = new IntervalHistogram();
+        private final IntervalHistogram attemptLatency = new IntervalHistogram();
+        private final IntervalHistogram backoffWait = new IntervalHistogram();
+        private final IntervalHistogram attemptsPerCall = new IntervalHistogram();
+
+        private Instance(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Starts a call that is finished from another thread, e.g. when its CompletionStage completes
+         */
+        public Call startCall() {
+            return new Call(this, false, null);
+        }
+
+        /**
+         * Starts a call on the current thread; attempts recorded by this thread until {@link Call#close()}
+         * are counted for it
+         */
+        public Call startBoundCall() {
+            Call call = new Call(this, true, boundCall.get());
+            boundCall.set(call);
+            return call;
+        }
+
+        /**
+         * Records one attempt for the call of this instance bound to the current thread, if any
+         */
+        public void recordAttempt(long durationNanos) {
+            Call call = boundCall.get();
+            if (call != null && call.instance == this) {
+                call.attempts.incrementAndGet();
+            }
+            attemptLatency.record(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        }
+
+        public void recordBackoff(long waitMillis) {
+            backoffWait.record(TimeUnit.MILLISECONDS.toMicros(waitMillis));
+        }
+
+        private void reset() {
+            totalLatency.reset();
+            attemptLatency.reset();
+            backoffWait.reset();
+            attemptsPerCall.reset();
+        }
+
+        private Map<String, Object> snapshot(Function<IntervalHistogram, Histogram> view) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("totalLatencyMs", IntervalHistogram.summarize(view.apply(totalLatency), MICROS_PER_MILLI));
+            snapshot.put("attemptLatencyMs", IntervalHistogram.summarize(view.apply(attemptLatency), MICROS_PER_MILLI));
+            snapshot.put("backoffWaitMs", IntervalHistogram.summarize(view.apply(backoffWait), MICROS_PER_MILLI));
+            snapshot.put("attemptsPerCall", IntervalHistogram.summarize(view.apply(attemptsPerCall), 1));
+            return snapshot;
+        }
+    }
+
+    /**
+     * One logical call through a retry instance, finished with {@link #close()}
+     */
+    public static final class Call implements AutoCloseable {
+
+        private final Instance instance;
+        private final boolean bound;
+        private final Call previous; // bound call this one replaced, restored on close
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private Call(Instance instance, boolean bound, Call previous) {
+            this.instance = instance;
+            this.bound = bound;
+            this.previous = previous;
+        }
+
+        /**
+         * Runs and records one attempt of this call, on any thread
+         */
+        public <T> T attempt(Supplier<T> attempt) {
+            long attemptStart = System.nanoTime();
+            try {
+                return attempt.get();
+            } finally {
+                attempts.incrementAndGet();
+                instance.attemptLatency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - attemptStart));
+            }
+        }
+
+        /**
+         * Records total latency and attempts, calls finished by the fallback without any attempt count as 0
+         */
+        @Override
+        public void close() {
+            if (bound) {
+                setBoundCall(previous);
+            }
+            instance.totalLatency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+            instance.attemptsPerCall.record(attempts.get());
+            int[] count = attemptCount.get();
+            if (count != null) {
+                count[0] += attempts.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.resilience_app.utils;
+
+import com.example.resilience_app.model.RetryStrategy;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies retry strategies from a JSON file of the form {"programmaticRetry": {...}, "annotationRetryConfig": {...}}
+ * at start-up and whenever the file changes. A file is applied as a whole or not at all: with an invalid strategy
+ * or an unknown instance the current strategies stay in place. Unchanged strategies are not swapped again.
+ */
+public final class RetryStrategyFileWatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryStrategyFileWatcher.class);
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final Map<String, SwappableRetry> retries;
+    private WatchService watchService;
+
+    /**
+     * @param file watched file, null disables the watcher
+     */
+    public RetryStrategyFileWatcher(Path file, ObjectMapper objectMapper, List<SwappableRetry> retries) {
+        this.file = file != null ? file.toAbsolutePath().normalize() : null;
+        this.objectMapper = objectMapper;
+        this.retries = retries.stream().collect(Collectors.toMap(SwappableRetry::getName, Function.identity()));
+    }
+
+    /**
+     * Applies the file if it exists and starts watching its directory, does nothing when disabled
+     */
+    public synchronized void start() throws IOException {
+        if (file == null || watchService != null) {
+            return;
+        }
+        if (Files.exists(file)) {
+            apply();
+        }
+        WatchService service = FileSystems.getDefault().newWatchService();
+        file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchService = service;
+        Thread.ofPlatform().name("retry-strategy-watcher").daemon(true).start(() -> watch(service));
+        logger.info("🔧 [RETRY-STRATEGY] Watching {} for retry strategies", file);
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                // Editors write a file in several steps, all events of one batch lead to one reload
+                boolean changed = key.pollEvents().stream()
+                        .anyMatch(event -> file.getFileName().equals(event.context()));
+                key.reset();
+                if (changed && Files.exists(file)) {
+                    apply();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed on shutdown
+        }
+    }
+
+    /**
+     * Reads the file and swaps every strategy that differs from the current one
+     *
+     * @return number of instances swapped, -1 if the file was rejected
+     */
+    public int apply() {
+        Map<String, RetryStrategy> strategies;
+        try {
+            strategies = objectMapper.readValue(file.toFile(), new TypeReference<Map<String, RetryStrategy>>() {
+            });
+        } catch (IOException e) {
+            // Invalid strategies fail in the RetryStrategy constructor and end up here as well
+            logger.error("❌ [RETRY-STRATEGY] Ignoring {}, current strategies stay in place: {}", file, e.getMessage());
+            return -1;
+        }
+        List<String> unknown = strategies.keySet().stream().filter(name -> !retries.containsKey(name)).toList();
+        if (!unknown.isEmpty()) {
+            logger.error("❌ [RETRY-STRATEGY] Ignoring {}, unknown retry instances {} (known: {})", file, unknown, retries.keySet());
+            return -1;
+        }
+        int swapped = 0;
+        for (Map.Entry<String, RetryStrategy> entry : strategies.entrySet()) {
+            if (retries.get(entry.getKey()).swap(entry.getValue())) {
+                logger.info("🔄 [RETRY-STRATEGY] {} swapped to {} from {}", entry.getKey(), entry.getValue(), file);
+                swapped++;
+            }
+        }
+        return swapped;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+}
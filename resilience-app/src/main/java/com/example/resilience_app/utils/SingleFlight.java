@@ -0,0 +1,205 @@
+package com.example.resilience_app.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical calls: the first caller of a key (the leader) executes the call including all
+ * its retries, callers arriving while it is in flight wait for the leader's result or failure instead of
+ * running their own. A key is in flight only until its call completes, later callers start a new call.
+ * <p>
+ * The in-flight table is split into stripes with one lock each, held only to look up or register a key.
+ * The table is bounded: when maxInFlight keys are in flight, further calls run uncoalesced.
+ * Followers wait at most until the deadline bound to their own thread.
+ */
+public final class SingleFlight<K, V> {
+
+    private static final class Stripe<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, CompletableFuture<V>> calls = new HashMap<>();
+    }
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final Stripe<K, V>[] stripes;
+    private final int stripeMask;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    /**
+     * @param stripes number of lock stripes, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public SingleFlight(boolean enabled, int maxInFlight, int stripes) {
+        if (maxInFlight < 1 || stripes < 1) {
+            throw new IllegalArgumentException("maxInFlight and stripes must be at least 1: " + maxInFlight + ", " + stripes);
+        }
+        this.enabled = enabled;
+        this.maxInFlight = maxInFlight;
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[Math.max(1, size)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe<>();
+        }
+        this.stripeMask = this.stripes.length - 1;
+    }
+
+    /**
+     * Runs the call on the calling thread, or waits for the identical call already in flight
+     */
+    public V execute(K key, Supplier<V> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        Stripe<K, V> stripe = stripeFor(key);
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> registered = register(stripe, key, flight);
+        if (registered == null) {
+            return call.get();
+        }
+        if (registered != flight) {
+            return await(registered);
+        }
+        try {
+            V result = call.get();
+            land(stripe, key, flight, result, null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            land(stripe, key, flight, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the call, or joins the identical call already in flight. Every caller gets its own future,
+     * so completing or cancelling it does not affect the others.
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<? extends CompletionStage<V>> call) {
+        if (!enabled) {
+            return call.get().toCompletableFuture();
+        }
+        Stripe<K, V> stripe = stripeFor(key);
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> registered = register(stripe, key, flight);
+        if (registered == null) {
+            return call.get().toCompletableFuture();
+        }
+        if (registered != flight) {
+            return Deadline.current().within(registered.copy());
+        }
+        try {
+            call.get().whenComplete((result, throwable) -> land(stripe, key, flight, result, throwable));
+        } catch (RuntimeException | Error e) {
+            land(stripe, key, flight, null, e);
+        }
+        return flight.copy();
+    }
+
+    /**
+     * @return the flight already registered for the key, the given flight if the caller leads it,
+     * or null if the table is full and the caller runs uncoalesced
+     */
+    private CompletableFuture<V> register(Stripe<K, V> stripe, K key, CompletableFuture<V> flight) {
+        stripe.lock.lock();
+        try {
+            CompletableFuture<V> existing = stripe.calls.get(key);
+            if (existing != null) {
+                coalesced.increment();
+                return existing;
+            }
+            if (!tryIncrementInFlight()) {
+                bypassed.increment();
+                return null;
+            }
+            stripe.calls.put(key, flight);
+            leaders.increment();
+            return flight;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the finished flight before completing it, so nobody joins a result that is already handed out
+     */
+    private void land(Stripe<K, V> stripe, K key, CompletableFuture<V> flight, V result, Throwable throwable) {
+        stripe.lock.lock();
+        try {
+            stripe.calls.remove(key, flight);
+        } finally {
+            stripe.lock.unlock();
+        }
+        inFlight.decrementAndGet();
+        if (throwable != null) {
+            flight.completeExceptionally(throwable);
+        } else {
+            flight.complete(result);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return Deadline.current().within(flight.copy()).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private boolean tryIncrementInFlight() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private Stripe<K, V> stripeFor(K key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getLeaders() {
+        return leaders.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.resilience_app.utils;
+
+import com.example.resilience_app.model.RetryStrategy;
+import io.github.resilience4j.feign.FeignDecorator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Retry instance whose config can be replaced at runtime. A swap builds a new Retry and puts it into the
+ * RetryRegistry (where the @Retry aspect looks it up on every call) and into {@link #decorator()}.
+ * Every call reads the current Retry once when it starts, so calls in flight finish on the config they
+ * started with.
+ */
+public final class SwappableRetry {
+
+    private final RetryRegistry registry;
+    private final String name;
+    private final UnaryOperator<RetryConfig> decoration;
+    private final Consumer<Retry> instrumentation;
+
+    private volatile Retry current;
+    private volatile RetryStrategy strategy;
+    private volatile Instant swappedAt;
+    private long swaps;
+
+    /**
+     * @param strategy        strategy the base config was built from, null if it comes from elsewhere (YAML)
+     * @param decoration      applied to every config before its Retry is built (deadline, retry budget)
+     * @param instrumentation event consumers attached to every Retry built
+     */
+    public SwappableRetry(RetryRegistry registry, String name, RetryConfig baseConfig, RetryStrategy strategy,
+                          UnaryOperator<RetryConfig> decoration, Consumer<Retry> instrumentation) {
+        this.registry = registry;
+        this.name = name;
+        this.decoration = decoration;
+        this.instrumentation = instrumentation;
+        this.current = register(baseConfig);
+        this.strategy = strategy;
+    }
+
+    /**
+     * Builds the strategy's config and makes it current for all calls that start from now on
+     *
+     * @return false if the strategy is already the current one
+     */
+    public synchronized boolean swap(RetryStrategy newStrategy) {
+        if (newStrategy.equals(strategy)) {
+            return false;
+        }
+        current = register(RetryConfigUtil.createFromStrategy(newStrategy));
+        strategy = newStrategy;
+        swappedAt = Instant.now();
+        swaps++;
+        return true;
+    }
+
+    private Retry register(RetryConfig baseConfig) {
+        Retry retry = Retry.of(name, decoration.apply(baseConfig));
+        instrumentation.accept(retry);
+        registry.retry(name, retry.getRetryConfig()); // replace needs an existing entry
+        registry.replace(name, retry);
+        return retry;
+    }
+
+    /**
+     * Retries the Feign invocation with the Retry current when the call starts
+     */
+    public FeignDecorator decorator() {
+        return (invocationCall, method, methodHandler, target) ->
+                args -> Retry.decorateCheckedFunction(current, invocationCall).apply(args);
+    }
+
+    public Retry current() {
+        return current;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RetryStrategy getStrategy() {
+        return strategy;
+    }
+
+    public Instant getSwappedAt() {
+        return swappedAt;
+    }
+
+    public synchronized long getSwaps() {
+        return swaps;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.resilience_app.adapter.http.adapter;
+
+import com.example.resilience_app.model.ErrorTestRequest;
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.example.resilience_app.utils.SwappableRetry;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Both circuit breakers in the real call chain, against a local stand-in for trouble-maker that counts requests
+ */
+@SpringBootTest
+class TroubleMakerAdapterCircuitBreakerTest {
+
+    private static final AtomicInteger backendRequests = new AtomicInteger();
+    private static final HttpServer troubleMaker = startTroubleMaker();
+
+    @Autowired
+    private TroubleMakerAdapter adapter;
+
+    @Autowired
+    @Qualifier("programmaticCircuitBreaker")
+    private CircuitBreaker programmaticCircuitBreaker;
+
+    @Autowired
+    @Qualifier("annotationCircuitBreakerBean")
+    private CircuitBreaker annotationCircuitBreaker;
+
+    @Autowired
+    @Qualifier("programmaticRetry")
+    private SwappableRetry programmaticRetry;
+
+    @Autowired
+    @Qualifier("annotationRetry")
+    private SwappableRetry annotationRetry;
+
+    @DynamicPropertySource
+    static void troubleMakerUrl(DynamicPropertyRegistry registry) {
+        registry.add("app.troubleMaker.url", () -> "http://localhost:" + troubleMaker.getAddress().getPort());
+    }
+
+    @AfterEach
+    void closeCircuits() {
+        programmaticCircuitBreaker.reset();
+        annotationCircuitBreaker.reset();
+        backendRequests.set(0);
+    }
+
+    @AfterAll
+    static void stopTroubleMaker() {
+        troubleMaker.stop(0);
+    }
+
+    @Test
+    void openProgrammaticCircuitFallsBackWithoutCallingTheBackend() {
+        assertThat(adapter.simulateErrorWithProgrammaticRetry(request("500")).getStatus()).isEqualTo("SUCCESS");
+        assertThat(backendRequests).hasValue(1);
+        backendRequests.set(0);
+        Retry.Metrics retryMetrics = programmaticRetry.current().getMetrics();
+        long failedWithoutRetry = retryMetrics.getNumberOfFailedCallsWithoutRetryAttempt();
+        long failedWithRetry = retryMetrics.getNumberOfFailedCallsWithRetryAttempt();
+
+        programmaticCircuitBreaker.transitionToOpenState();
+        TroubleMakerResponse response = adapter.simulateErrorWithProgrammaticRetry(request("503"));
+
+        assertThat(response.getStatus()).isEqualTo(TroubleMakerResponse.STATUS_FALLBACK);
+        assertThat(response.getMessage()).isEqualTo("Circuit open");
+        assertThat(backendRequests).hasValue(0);
+        // CallNotPermittedException ends the call after its first attempt, no retry is scheduled
+        assertThat(retryMetrics.getNumberOfFailedCallsWithoutRetryAttempt()).isEqualTo(failedWithoutRetry + 1);
+        assertThat(retryMetrics.getNumberOfFailedCallsWithRetryAttempt()).isEqualTo(failedWithRetry);
+        assertThat(programmaticCircuitBreaker.getMetrics().getNumberOfNotPermittedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void openAnnotationCircuitFallsBackWithoutCallingTheBackend() {
+        assertThat(adapter.simulateErrorWithAnnotationRetry(request("500")).getStatus()).isEqualTo("SUCCESS");
+        assertThat(backendRequests).hasValue(1);
+        backendRequests.set(0);
+        Retry.Metrics retryMetrics = annotationRetry.current().getMetrics();
+        long failedWithoutRetry = retryMetrics.getNumberOfFailedCallsWithoutRetryAttempt();
+        long failedWithRetry = retryMetrics.getNumberOfFailedCallsWithRetryAttempt();
+
+        annotationCircuitBreaker.transitionToOpenState();
+        TroubleMakerResponse response = adapter.simulateErrorWithAnnotationRetry(request("503"));
+
+        assertThat(response.getStatus()).isEqualTo(TroubleMakerResponse.STATUS_FALLBACK);
+        assertThat(response.getErrorType()).isEqualTo("CallNotPermittedException");
+        assertThat(backendRequests).hasValue(0);
+        assertThat(retryMetrics.getNumberOfFailedCallsWithoutRetryAttempt()).isEqualTo(failedWithoutRetry + 1);
+        assertThat(retryMetrics.getNumberOfFailedCallsWithRetryAttempt()).isEqualTo(failedWithRetry);
+        assertThat(annotationCircuitBreaker.getMetrics().getNumberOfNotPermittedCalls()).isEqualTo(1);
+    }
+
+    private static ErrorTestRequest request(String errorCode) {
+        return new ErrorTestRequest(errorCode, 0.0, 0, 0, 0, true, "circuit breaker test");
+    }
+
+    private static HttpServer startTroubleMaker() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/api/errors", exchange -> {
+                backendRequests.incrementAndGet();
+                exchange.getRequestBody().readAllBytes();
+                byte[] body = "{\"status\": \"SUCCESS\", \"message\": \"no error simulated\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
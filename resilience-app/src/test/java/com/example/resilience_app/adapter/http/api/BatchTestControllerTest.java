@@ -0,0 +1,163 @@
+package com.example.resilience_app.adapter.http.api;
+
+import com.example.resilience_app.adapter.http.adapter.TroubleMakerAdapter;
+import com.example.resilience_app.model.ErrorTestRequest;
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.example.resilience_app.utils.Deadline;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class BatchTestControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final TroubleMakerAdapter adapter = mock(TroubleMakerAdapter.class);
+    private final BatchTestController controller = new BatchTestController(adapter, objectMapper);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+    @BeforeEach
+    void settings() {
+        ReflectionTestUtils.setField(controller, "defaultParallelism", 32);
+        ReflectionTestUtils.setField(controller, "maxParallelism", 4);
+        ReflectionTestUtils.setField(controller, "maxItems", 1_000);
+        ReflectionTestUtils.setField(controller, "timeout", 30_000L);
+        ReflectionTestUtils.setField(controller, "deadlineEnabled", true);
+        ReflectionTestUtils.setField(controller, "deadlineBudget", 2_000L);
+    }
+
+    @Test
+    void streamsOneLinePerItemAndCountsTheOutcomes() throws Exception {
+        when(adapter.simulateErrorWithProgrammaticRetry(any())).thenAnswer(invocation -> {
+            ErrorTestRequest request = invocation.getArgument(0);
+            return switch (request.getErrorCode()) {
+                case "503" -> TroubleMakerResponse.fallback("Circuit open", null);
+                case "500" -> response(TroubleMakerResponse.STATUS_STALE);
+                case "400" -> throw new IllegalStateException("broken");
+                default -> response("success");
+            };
+        });
+
+        List<JsonNode> lines = batch("""
+                {"path": "programmatic", "requests": [
+                  {"errorCode": "200"}, {"errorCode": "503"}, {"errorCode": "500"},
+                  {"errorCode": "400"}, {"errorCode": "200"}]}""");
+
+        List<JsonNode> results = lines.subList(0, lines.size() - 1);
+        assertThat(results).hasSize(5).allMatch(line -> line.get("type").asText().equals("result"));
+        assertThat(results).extracting(line -> line.get("index").asInt()).containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+        assertThat(results).filteredOn(line -> line.get("index").asInt() == 3).singleElement()
+                .satisfies(line -> {
+                    assertThat(line.get("outcome").asText()).isEqualTo("ERROR");
+                    assertThat(line.get("error").asText()).isEqualTo("IllegalStateException: broken");
+                });
+
+        JsonNode summary = lines.getLast();
+        assertThat(summary.get("type").asText()).isEqualTo("summary");
+        assertThat(summary.get("path").asText()).isEqualTo("programmatic");
+        assertThat(summary.get("calls").asInt()).isEqualTo(5);
+        assertThat(summary.get("success").asInt()).isEqualTo(2);
+        assertThat(summary.get("stale").asInt()).isEqualTo(1);
+        assertThat(summary.get("fallback").asInt()).isEqualTo(1);
+        assertThat(summary.get("error").asInt()).isEqualTo(1);
+        assertThat(summary.get("aborted").asBoolean()).isFalse();
+    }
+
+    @Test
+    void keepsAtMostParallelismCallsInFlight() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(adapter.simulateErrorWithAnnotationRetry(any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return response("success");
+        });
+
+        List<JsonNode> requested = batch("""
+                {"path": "annotation", "request": {"errorCode": "503"}, "count": 30, "parallelism": 3}""");
+        assertThat(requested).hasSize(31);
+        assertThat(maxInFlight).hasValue(3);
+
+        // Above app.batch.max-parallelism the batch runs with the maximum
+        maxInFlight.set(0);
+        List<JsonNode> capped = batch("""
+                {"path": "annotation", "request": {"errorCode": "503"}, "count": 30, "parallelism": 100}""");
+        assertThat(capped.getLast().get("success").asInt()).isEqualTo(30);
+        assertThat(maxInFlight).hasValue(4);
+    }
+
+    @Test
+    void everyCallGetsItsOwnDeadline() throws Exception {
+        Queue<Deadline> deadlines = new ConcurrentLinkedQueue<>();
+        when(adapter.simulateErrorWithProgrammaticRetry(any())).thenAnswer(invocation -> {
+            deadlines.add(Deadline.current());
+            return response("success");
+        });
+
+        batch("""
+                {"request": {"errorCode": "503"}, "count": 10, "parallelism": 2}""");
+
+        assertThat(deadlines).hasSize(10).doesNotHaveDuplicates()
+                .allSatisfy(deadline -> {
+                    assertThat(deadline.isBounded()).isTrue();
+                    assertThat(deadline.remainingMillis()).isBetween(1L, 2_000L);
+                });
+    }
+
+    @Test
+    void rejectsUnknownPathsAndEmptyBatches() throws Exception {
+        assertThat(rejected("{\"path\": \"hedged\", \"request\": {\"errorCode\": \"503\"}, \"count\": 1}"))
+                .isEqualTo("path must be programmatic or annotation");
+        assertThat(rejected("{\"requests\": []}"))
+                .isEqualTo("Send 1 to 1000 requests, or one request with a count in that range");
+    }
+
+    private List<JsonNode> batch(String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/test/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(10_000);
+        MockHttpServletResponse response = result.getResponse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.getContentAsString().split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+
+    private String rejected(String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/test/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn();
+        result.getAsyncResult(10_000);
+        assertThat(result.getResponse().getStatus()).isEqualTo(400);
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("error").asText();
+    }
+
+    private static TroubleMakerResponse response(String status) {
+        return new TroubleMakerResponse(status, "ok", null, LocalDateTime.now(), null);
+    }
+}
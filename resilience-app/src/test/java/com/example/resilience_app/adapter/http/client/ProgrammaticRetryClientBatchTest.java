@@ -0,0 +1,113 @@
+package com.example.resilience_app.adapter.http.client;
+
+import com.example.resilience_app.model.ErrorTestRequest;
+import com.example.resilience_app.model.SimulationOutcome;
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The decorated programmatic client with hedging on, against a local stand-in for trouble-maker that answers
+ * slowly with 503 and counts requests
+ */
+@SpringBootTest(properties = {
+        "app.programmaticRetryConfig.max-attempts=3",
+        "app.programmaticRetryConfig.hedging.enabled=true",
+        "app.programmaticRetryConfig.hedging.delay=20"
+})
+class ProgrammaticRetryClientBatchTest {
+
+    private static final AtomicInteger singleRequests = new AtomicInteger();
+    private static final AtomicInteger batchRequests = new AtomicInteger();
+    private static final HttpServer troubleMaker = startTroubleMaker();
+
+    @Autowired
+    @Qualifier("programmaticRetryClientBean")
+    private ProgrammaticRetryClient client;
+
+    @DynamicPropertySource
+    static void troubleMakerUrl(DynamicPropertyRegistry registry) {
+        registry.add("app.troubleMaker.url", () -> "http://localhost:" + troubleMaker.getAddress().getPort());
+    }
+
+    @AfterEach
+    void resetCounts() {
+        singleRequests.set(0);
+        batchRequests.set(0);
+    }
+
+    @AfterAll
+    static void stopTroubleMaker() {
+        troubleMaker.stop(0);
+    }
+
+    @Test
+    void singleCallsAreHedgedAndRetried() {
+        TroubleMakerResponse response = client.simulateError("503", request("503"));
+
+        assertThat(response.getStatus()).isEqualTo(TroubleMakerResponse.STATUS_FALLBACK);
+        assertThat(singleRequests.get()).isGreaterThan(3);
+    }
+
+    @Test
+    void failedBatchIsSentOnceAndEveryItemFallsBack() {
+        List<ErrorTestRequest> items = List.of(request("503"), request("500"), request("429"));
+
+        List<SimulationOutcome> outcomes = client.simulateErrorBatch(items);
+
+        assertThat(batchRequests).hasValue(1);
+        assertThat(outcomes).hasSize(3).allSatisfy(outcome -> {
+            assertThat(outcome.isFallback()).isTrue();
+            assertThat(outcome.isError()).isTrue();
+            assertThat(outcome.getMessage()).isEqualTo("Batch failed: ServiceUnavailable");
+        });
+        assertThat(outcomes).extracting(SimulationOutcome::getIndex).containsExactly(0, 1, 2);
+        assertThat(outcomes).extracting(SimulationOutcome::getErrorCode).containsExactly("503", "500", "429");
+    }
+
+    private static ErrorTestRequest request(String errorCode) {
+        return new ErrorTestRequest(errorCode, 1.0, 0, 0, 0, true, "batch test");
+    }
+
+    private static HttpServer startTroubleMaker() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/api/errors/batch", exchange -> slowServiceUnavailable(exchange, batchRequests));
+            server.createContext("/api/errors", exchange -> slowServiceUnavailable(exchange, singleRequests));
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void slowServiceUnavailable(HttpExchange exchange, AtomicInteger requests) throws IOException {
+        requests.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            Thread.sleep(100); // well past the hedge delay
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(503, -1);
+        exchange.close();
+    }
+}
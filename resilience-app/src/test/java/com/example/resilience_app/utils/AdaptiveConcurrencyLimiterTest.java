@@ -0,0 +1,120 @@
+package com.example.resilience_app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long BASE_RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int BACKEND_CAPACITY = 10;
+
+    private static AdaptiveConcurrencyLimiter limiter(AdaptiveConcurrencyLimiter.Algorithm algorithm, int initialLimit) {
+        // AIMD counts calls 50% slower than the unloaded backend as overload
+        return new AdaptiveConcurrencyLimiter("test", true, algorithm, initialLimit, 1, 200, 0.9, 15,
+                throwable -> throwable instanceof UncheckedIOException);
+    }
+
+    @Test
+    void rejectsCallsOverTheLimitUntilAPermitIsReleased() {
+        AdaptiveConcurrencyLimiter limiter = limiter(AdaptiveConcurrencyLimiter.Algorithm.AIMD, 1);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        limiter.executeCompletionStage(() -> pending);
+
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThatThrownBy(() -> limiter.execute(() -> "second"))
+                .isInstanceOf(AdaptiveConcurrencyLimiter.LimitExceededException.class);
+        assertThat(limiter.getRejected()).isEqualTo(1);
+
+        pending.complete("first");
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.execute(() -> "third")).isEqualTo("third");
+    }
+
+    @Test
+    void aimdBacksOffOnOverloadErrorsOnly() {
+        AdaptiveConcurrencyLimiter limiter = limiter(AdaptiveConcurrencyLimiter.Algorithm.AIMD, 20);
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new IllegalStateException("not an overload");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(limiter.getLimit()).isEqualTo(20);
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new UncheckedIOException(new IOException("connection refused"));
+        })).isInstanceOf(UncheckedIOException.class);
+        assertThat(limiter.getLimit()).isEqualTo(18);
+        assertThat(limiter.getOverloadSignals()).isEqualTo(1);
+    }
+
+    @Test
+    void aimdSettlesNearTheBackendCapacityUnderOverload() {
+        AdaptiveConcurrencyLimiter limiter = limiter(AdaptiveConcurrencyLimiter.Algorithm.AIMD, 100);
+        driveOverload(limiter);
+        assertThat(limiter.getLimit()).isBetween(BACKEND_CAPACITY / 2, BACKEND_CAPACITY * 2);
+    }
+
+    @Test
+    void gradientSettlesNearTheBackendCapacityUnderOverload() {
+        AdaptiveConcurrencyLimiter limiter = limiter(AdaptiveConcurrencyLimiter.Algorithm.GRADIENT, 100);
+        driveOverload(limiter);
+        assertThat(limiter.getLimit()).isBetween(BACKEND_CAPACITY / 2, BACKEND_CAPACITY * 2);
+    }
+
+    @Test
+    void gradientGrowsWhileLatencyStaysFlat() {
+        AdaptiveConcurrencyLimiter limiter = limiter(AdaptiveConcurrencyLimiter.Algorithm.GRADIENT, 10);
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(BASE_RTT_NANOS, false, limiter.getLimit());
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    void concurrentCompletionsUpdateTheLimitWithoutLosingSamples() throws InterruptedException {
+        // AIMD without overload grows by 1/limit per fully used sample: 20 -> 21 takes 20 samples, and so on
+        AdaptiveConcurrencyLimiter limiter = limiter(AdaptiveConcurrencyLimiter.Algorithm.AIMD, 20);
+        int threads = 4;
+        int samplesPerThread = 5_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < samplesPerThread; i++) {
+                    limiter.onSample(BASE_RTT_NANOS, false, 200);
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        AdaptiveConcurrencyLimiter sequential = limiter(AdaptiveConcurrencyLimiter.Algorithm.AIMD, 20);
+        for (int i = 0; i < threads * samplesPerThread; i++) {
+            sequential.onSample(BASE_RTT_NANOS, false, 200);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(sequential.getLimit()).isGreaterThan(20);
+    }
+
+    /**
+     * Light load first, then 100 callers against a backend that serves 10 calls at once: every call beyond
+     * its capacity waits in the backend's queue, so latency grows with the calls in flight
+     */
+    private static void driveOverload(AdaptiveConcurrencyLimiter limiter) {
+        for (int call = 0; call < 50; call++) {
+            limiter.onSample(BASE_RTT_NANOS, false, 1);
+        }
+        for (int round = 0; round < 2_000; round++) {
+            int admitted = Math.min(100, limiter.getLimit());
+            long rtt = BASE_RTT_NANOS * Math.max(BACKEND_CAPACITY, admitted) / BACKEND_CAPACITY;
+            for (int call = 0; call < admitted; call++) {
+                limiter.onSample(rtt, false, admitted);
+            }
+        }
+    }
+}
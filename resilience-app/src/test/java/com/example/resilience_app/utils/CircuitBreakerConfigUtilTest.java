@@ -0,0 +1,84 @@
+package com.example.resilience_app.utils;
+
+import com.example.resilience_app.model.RetryStrategy;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.retry.Retry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerConfigUtilTest {
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfigUtil.createCircuitBreaker(
+            CircuitBreakerConfig.SlidingWindowType.COUNT_BASED, 4, 4, 50, 60_000, 1));
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @Test
+    void serverErrorsOpenTheCircuitAndFurtherCallsNeverReachTheBackend() {
+        circuitBreaker.executeSupplier(this::backend);
+        circuitBreaker.executeSupplier(this::backend);
+        failTwice(() -> errorStatus(503));
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        backendCalls.set(0);
+
+        assertThatThrownBy(() -> circuitBreaker.executeSupplier(this::backend))
+                .isInstanceOf(CallNotPermittedException.class);
+        assertThat(backendCalls).hasValue(0);
+    }
+
+    @Test
+    void clientErrorsAndLocalRejectionsDoNotOpenTheCircuit() {
+        failTwice(() -> errorStatus(429));
+        failTwice(() -> new AdaptiveConcurrencyLimiter.LimitExceededException("test", 10));
+        failTwice(() -> new Deadline.DeadlineExceededException("Deadline exceeded"));
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+
+    @Test
+    void callNotPermittedIsNotRetried() {
+        Retry retry = Retry.of("test", RetryConfigUtil.createFromStrategy(
+                new RetryStrategy("random-backoff", 5, 10, 1.5, 0.5, 1_000, 1_000)));
+        circuitBreaker.transitionToOpenState();
+
+        assertThatThrownBy(() -> retry.executeSupplier(() -> circuitBreaker.executeSupplier(this::backend)))
+                .isInstanceOf(CallNotPermittedException.class);
+
+        assertThat(backendCalls).hasValue(0);
+        assertThat(circuitBreaker.getMetrics().getNumberOfNotPermittedCalls()).isEqualTo(1);
+        assertThat(retry.getMetrics().getNumberOfFailedCallsWithoutRetryAttempt()).isEqualTo(1);
+        assertThat(retry.getMetrics().getNumberOfFailedCallsWithRetryAttempt()).isZero();
+    }
+
+    private String backend() {
+        backendCalls.incrementAndGet();
+        return "ok";
+    }
+
+    private void failTwice(Supplier<RuntimeException> failure) {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> circuitBreaker.executeSupplier(() -> {
+                throw failure.get();
+            })).isInstanceOf(RuntimeException.class);
+        }
+    }
+
+    private static FeignException errorStatus(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "http://trouble-maker/api/errors", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("simulateError", Response.builder()
+                .status(status).reason("error").request(request).headers(Map.of()).build());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.core.ContextAwareScheduledThreadPoolExecutor;
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.functions.Either;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineTest {
+
+    @Test
+    void bindingIsScopedToTheThread() {
+        Deadline deadline = Deadline.after(5_000);
+        assertThat(Deadline.current()).isSameAs(Deadline.NONE);
+        try (Deadline.Scope ignored = deadline.bind()) {
+            assertThat(Deadline.current()).isSameAs(deadline);
+        }
+        assertThat(Deadline.current()).isSameAs(Deadline.NONE);
+        assertThat(Deadline.NONE.isExpired()).isFalse();
+    }
+
+    @Test
+    void backoffEndingPastTheDeadlineIsSkippedAndTheDeadlineAbandoned() {
+        IntervalBiFunction<Object> backoff = IntervalFunctionUtils.deadlineAware((attempt, either) -> 2_000L);
+        Either<Throwable, Object> failure = Either.left(new IOException("timeout"));
+
+        Deadline roomy = Deadline.after(60_000);
+        try (Deadline.Scope ignored = roomy.bind()) {
+            assertThat(backoff.apply(1, failure)).isEqualTo(2_000L);
+            assertThat(roomy.isExpired()).isFalse();
+        }
+
+        Deadline tight = Deadline.after(1_000);
+        try (Deadline.Scope ignored = tight.bind()) {
+            assertThat(backoff.apply(1, failure)).isZero();
+            assertThat(tight.isExpired()).isTrue();
+            assertThatThrownBy(tight::checkNotExpired).isInstanceOf(Deadline.DeadlineExceededException.class);
+        }
+    }
+
+    @Test
+    void withinFailsAPendingStageAtTheDeadline() {
+        CompletableFuture<String> bounded = Deadline.after(20).within(new CompletableFuture<>());
+        assertThatThrownBy(bounded::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(Deadline.DeadlineExceededException.class);
+    }
+
+    @Test
+    void withinCancelsThePendingStageAtTheDeadline() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        Deadline deadline = Deadline.after(20);
+        assertThatThrownBy(deadline.within(pending)::join)
+                .hasCauseInstanceOf(Deadline.DeadlineExceededException.class);
+        assertThat(pending).isCancelled();
+        assertThat(deadline.isExpired()).isTrue();
+    }
+
+    @Test
+    void withinCompletesLikeTheStageBeforeTheDeadline() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> bounded = Deadline.after(60_000).within(pending);
+        pending.complete("ok");
+        assertThat(bounded.join()).isEqualTo("ok");
+    }
+
+    @Test
+    void asyncRetryStopsAtTheDeadlineOfTheCaller() throws Exception {
+        ContextAwareScheduledThreadPoolExecutor scheduler = ContextAwareScheduledThreadPoolExecutor.newScheduledThreadPool()
+                .corePoolSize(1)
+                .contextPropagators(new Deadline.Propagator())
+                .build();
+        ExecutorService attempts = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Retry retry = Retry.of("deadline", RetryConfigUtil.withDeadline(RetryConfig.custom()
+                    .maxAttempts(100)
+                    .waitDuration(Duration.ofMillis(20))
+                    .retryExceptions(UncheckedIOException.class)
+                    .build()));
+            AtomicInteger calls = new AtomicInteger();
+            Deadline deadline = Deadline.after(200);
+
+            CompletableFuture<String> result = retry.executeCompletionStage(scheduler, () -> deadline.<String>supplyAsync(() -> {
+                calls.incrementAndGet();
+                assertThat(Deadline.current()).isSameAs(deadline);
+                throw new UncheckedIOException(new IOException("timeout"));
+            }, attempts)).toCompletableFuture();
+
+            assertThatThrownBy(result::get).hasCauseInstanceOf(UncheckedIOException.class);
+            // with the deadline lost on the scheduler thread all 100 attempts would run
+            assertThat(calls.get()).isBetween(2, 11);
+        } finally {
+            scheduler.shutdownNow();
+            attempts.shutdownNow();
+        }
+    }
+}
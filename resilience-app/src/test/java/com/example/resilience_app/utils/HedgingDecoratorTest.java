@@ -0,0 +1,103 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.core.functions.CheckedFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingDecoratorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void primaryAndHedgeRunWithTheCallersDeadlineAndMetricsCall() throws Throwable {
+        HedgingDecorator hedging = new HedgingDecorator(HedgingDecorator.DelayMode.FIXED, 200, 1, executor);
+        RetryMetrics metrics = new RetryMetrics();
+        RetryMetrics.Instance instance = metrics.instance("programmaticRetry");
+        List<Deadline> deadlines = new CopyOnWriteArrayList<>();
+        List<RetryMetrics.Call> calls = new CopyOnWriteArrayList<>();
+        AtomicInteger invocations = new AtomicInteger();
+        CheckedFunction<Object[], Object> invocation = args -> {
+            deadlines.add(Deadline.current());
+            calls.add(RetryMetrics.currentCall());
+            instance.recordAttempt(1_000_000);
+            if (invocations.getAndIncrement() == 0) {
+                Thread.sleep(5_000); // the primary, started well within the hedge delay, is slower than it
+            }
+            return "ok";
+        };
+
+        Deadline deadline = Deadline.after(10_000);
+        RetryMetrics.Call call;
+        Object result;
+        try (Deadline.Scope ignored = deadline.bind(); RetryMetrics.Call bound = instance.startBoundCall()) {
+            call = bound;
+            result = hedging.decorate(invocation, null, null, null).apply(new Object[0]);
+        }
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(hedging.getHedgesWon()).isEqualTo(1);
+        assertThat(deadlines).hasSize(2).containsOnly(deadline);
+        assertThat(calls).hasSize(2).containsOnly(call);
+        assertThat(attemptsPerCall(metrics)).containsEntry("max", 2.0);
+        assertThat(RetryMetrics.currentCall()).isNull();
+    }
+
+    @Test
+    void primariesCancelledByAWinningHedgeStillCountTowardsTheP95Delay() throws Throwable {
+        HedgingDecorator hedging = new HedgingDecorator(HedgingDecorator.DelayMode.P95, 30, 1, executor);
+        AtomicInteger invocations = new AtomicInteger();
+        CheckedFunction<Object[], Object> hedged = hedging.decorate(args -> {
+            if (invocations.getAndIncrement() % 2 == 0) {
+                Thread.sleep(5_000); // every primary is slow and loses to its hedge
+            }
+            return "ok";
+        }, null, null, null);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(hedged.apply(new Object[0])).isEqualTo("ok");
+        }
+        hedging.updateObservedP95();
+
+        assertThat(hedging.getHedgesWon()).isEqualTo(20);
+        // cancelled primaries took at least the 30ms delay, the fast hedges alone would give about 0ms
+        assertThat(hedging.getCurrentDelayMillis()).isGreaterThanOrEqualTo(30);
+    }
+
+    @Test
+    void failedAttemptsCountTowardsTheP95Delay() {
+        HedgingDecorator hedging = new HedgingDecorator(HedgingDecorator.DelayMode.P95, 1_000, 1, executor);
+        CheckedFunction<Object[], Object> hedged = hedging.decorate(args -> {
+            Thread.sleep(40);
+            throw new IllegalStateException("unavailable");
+        }, null, null, null);
+
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> hedged.apply(new Object[0])).isInstanceOf(IllegalStateException.class);
+        }
+        hedging.updateObservedP95();
+
+        assertThat(hedging.getHedgesFired()).isZero();
+        assertThat(hedging.getCurrentDelayMillis()).isBetween(40L, 999L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> attemptsPerCall(RetryMetrics metrics) {
+        Map<String, Object> histograms = (Map<String, Object>) metrics.cumulative().get("programmaticRetry");
+        return (Map<String, Object>) histograms.get("attemptsPerCall");
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.resilience_app.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpTransportTest {
+
+    private static final HttpTransport.PoolSettings POOL = new HttpTransport.PoolSettings(2, 2, 30_000, 2_000, 200);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger slowRequests = new AtomicInteger();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/fast", exchange -> respond(exchange, false));
+        server.createContext("/slow", exchange -> respond(exchange, true));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        release.countDown();
+        callers.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void perRouteLimitMayNotExceedTheTotal() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new HttpTransport.PoolSettings(50, 200, 30_000, 2_000, 1_000));
+        assertThatIllegalArgumentException().isThrownBy(() -> new HttpTransport.PoolSettings(50, 0, 30_000, 2_000, 1_000));
+    }
+
+    @Test
+    void hc5CallsBeyondThePoolWaitAtMostTheConnectionRequestTimeout() throws Exception {
+        try (HttpTransport transport = HttpTransport.create("test", HttpTransport.Type.HC5, POOL, 1_000, 5_000)) {
+            Future<Integer> first = callers.submit(() -> status(transport, "/slow"));
+            Future<Integer> second = callers.submit(() -> status(transport, "/slow"));
+            await(() -> (int) transport.getPoolStats().get("leased"), 2);
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> status(transport, "/fast")).isInstanceOf(IOException.class);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(150L, 2_000L);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+            assertThat(slowRequests).hasValue(2);
+            assertThat(transport.getPoolStats())
+                    .containsEntry("max", 2)
+                    .containsEntry("maxPerRoute", 2)
+                    .containsEntry("leased", 0);
+        }
+    }
+
+    @Test
+    void hc5ReadTimeoutEndsASlowResponse() throws Exception {
+        try (HttpTransport transport = HttpTransport.create("test", HttpTransport.Type.HC5, POOL, 1_000, 200)) {
+            assertThat(transport.options().readTimeoutMillis()).isEqualTo(200);
+            assertThat(transport.options().connectTimeoutMillis()).isEqualTo(1_000);
+            assertThat(status(transport, "/fast")).isEqualTo(200);
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> status(transport, "/slow")).isInstanceOf(SocketTimeoutException.class);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(150L, 2_000L);
+        }
+    }
+
+    @Test
+    void jdkReadTimeoutEndsASlowResponse() throws Exception {
+        try (HttpTransport transport = HttpTransport.create("test", HttpTransport.Type.JDK, POOL, 1_000, 200)) {
+            assertThat(transport.options().readTimeoutMillis()).isEqualTo(200);
+            assertThat(status(transport, "/fast")).isEqualTo(200);
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> status(transport, "/slow")).isInstanceOf(HttpTimeoutException.class);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(150L, 2_000L);
+        }
+    }
+
+    @Test
+    void jdkPoolIsManagedByTheJdk() throws Exception {
+        try (HttpTransport transport = HttpTransport.create("test", HttpTransport.Type.JDK, POOL, 1_000, 5_000)) {
+            Future<Integer> first = callers.submit(() -> status(transport, "/slow"));
+            Future<Integer> second = callers.submit(() -> status(transport, "/slow"));
+            Future<Integer> third = callers.submit(() -> status(transport, "/slow"));
+
+            // No pool limit of ours applies, all three calls reach the server at once
+            await(slowRequests::get, 3);
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+            assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+            assertThat(transport.getPoolStats()).isEmpty();
+        }
+    }
+
+    private int status(HttpTransport transport, String path) throws IOException {
+        Request request = Request.create(Request.HttpMethod.GET, "http://localhost:" + server.getAddress().getPort() + path,
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        try (Response response = transport.client().execute(request, transport.options())) {
+            if (response.body() != null) {
+                response.body().asInputStream().readAllBytes();
+            }
+            return response.status();
+        }
+    }
+
+    private void respond(HttpExchange exchange, boolean slow) throws IOException {
+        try {
+            if (slow) {
+                slowRequests.incrementAndGet();
+                release.await(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+        try {
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException ignored) {
+            // the client gave up waiting
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void await(IntSupplier value, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (value.getAsInt() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(value.getAsInt()).isEqualTo(expected);
+    }
+}
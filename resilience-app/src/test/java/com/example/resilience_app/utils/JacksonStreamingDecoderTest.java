@@ -0,0 +1,49 @@
+package com.example.resilience_app.utils;
+
+import com.example.resilience_app.model.TroubleMakerResponse;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JacksonStreamingDecoderTest {
+
+    private static final String BODY = "{\"status\":\"success\",\"message\":\"No error simulated\","
+            + "\"timestamp\":\"2025-01-01T12:00:00.123\",\"data\":\"Resource successfully retrieved\",\"extra\":1}";
+
+    private final JacksonStreamingDecoder decoder = new JacksonStreamingDecoder(JsonMapper.builder().findAndAddModules().build());
+
+    @Test
+    void decodesTheTypedResponseAndIgnoresUnknownFields() throws Exception {
+        TroubleMakerResponse response = (TroubleMakerResponse) decoder.decode(response(200, BODY), TroubleMakerResponse.class);
+
+        assertThat(response.getStatus()).isEqualTo("success");
+        assertThat(response.getData()).isEqualTo("Resource successfully retrieved");
+        assertThat(response.getTimestamp()).isEqualTo(LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_000_000));
+    }
+
+    @Test
+    void stringReturnTypeGetsTheRawBodyAndEmptyBodiesDecodeToNull() throws Exception {
+        assertThat(decoder.decode(response(200, BODY), String.class)).isEqualTo(BODY);
+        assertThat(decoder.decode(response(204, null), TroubleMakerResponse.class)).isNull();
+    }
+
+    private static Response response(int status, String body) {
+        Request request = Request.create(Request.HttpMethod.POST, "http://localhost:8081/api/errors",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        Response.Builder builder = Response.builder()
+                .status(status)
+                .request(request)
+                .headers(Map.of());
+        if (body != null) {
+            builder.body(body, StandardCharsets.UTF_8);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.resilience_app.utils;
+
+import com.example.resilience_app.model.TroubleMakerResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LastKnownGoodCacheTest {
+
+    private static final TroubleMakerResponse SUCCESS = new TroubleMakerResponse("success", "No error simulated",
+            "Resource successfully retrieved", LocalDateTime.of(2025, 1, 1, 12, 0), null);
+
+    @Test
+    void storedResponseIsServedMarkedAsStale() {
+        LastKnownGoodCache cache = new LastKnownGoodCache(true, false, 100, Duration.ofMinutes(5), Runnable::run);
+        cache.store("errorCode=503", SUCCESS);
+
+        TroubleMakerResponse stale = cache.serveStale("errorCode=503", new IOException("timeout")).orElseThrow();
+        assertThat(stale.getStatus()).isEqualTo(TroubleMakerResponse.STATUS_STALE);
+        assertThat(stale.getData()).isEqualTo(SUCCESS.getData());
+        assertThat(stale.getErrorType()).isEqualTo("IOException");
+        assertThat(stale.getOriginalError()).isEqualTo("timeout");
+        assertThat(stale.getStaleAgeMs()).isNotNull();
+        assertThat(SUCCESS.getStatus()).isEqualTo("success");
+
+        assertThat(cache.serveStale("errorCode=500", null)).isEmpty();
+        assertThat(cache.getStaleServed()).isEqualTo(1);
+        assertThat(cache.getStats().hitCount()).isEqualTo(1);
+        assertThat(cache.getStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void servesWhileTheCircuitIsOpenOnlyWhenEnabled() {
+        LastKnownGoodCache cacheFirst = new LastKnownGoodCache(true, true, 100, Duration.ofMinutes(5), Runnable::run);
+        LastKnownGoodCache staleOnly = new LastKnownGoodCache(true, false, 100, Duration.ofMinutes(5), Runnable::run);
+        cacheFirst.store("key", SUCCESS);
+        staleOnly.store("key", SUCCESS);
+
+        assertThat(cacheFirst.serveWhileOpen("key")).isPresent();
+        assertThat(cacheFirst.getServedWhileOpen()).isEqualTo(1);
+        assertThat(staleOnly.serveWhileOpen("key")).isEmpty();
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        LastKnownGoodCache cache = new LastKnownGoodCache(false, true, 100, Duration.ofMinutes(5), Runnable::run);
+        cache.store("key", SUCCESS);
+
+        assertThat(cache.getSize()).isZero();
+        assertThat(cache.serveStale("key", null)).isEmpty();
+    }
+}
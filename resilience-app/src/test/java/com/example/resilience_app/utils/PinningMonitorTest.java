@@ -0,0 +1,63 @@
+package com.example.resilience_app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PinningMonitorTest {
+
+    private final Object monitor = new Object();
+
+    @Test
+    void reportsTheSiteOfAVirtualThreadBlockingInsideSynchronized() throws Exception {
+        try (PinningMonitor pinningMonitor = new PinningMonitor(true, Duration.ofMillis(10), 10)) {
+            pinningMonitor.start();
+            Thread.ofVirtual().start(this::sleepWhileHoldingTheMonitor).join();
+
+            // JFR streams events with a delay of about a second
+            long giveUp = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (pinningMonitor.getEvents() == 0 && System.nanoTime() < giveUp) {
+                Thread.sleep(100);
+            }
+
+            assertThat(pinningMonitor.getEvents()).isEqualTo(1);
+            assertThat(sites(pinningMonitor)).singleElement()
+                    .extracting(site -> site.get("site"))
+                    .asString()
+                    .startsWith(PinningMonitorTest.class.getName() + ".sleepWhileHoldingTheMonitor:");
+        }
+    }
+
+    @Test
+    void countsEventsBeyondMaxSitesAsUntracked() {
+        PinningMonitor pinningMonitor = new PinningMonitor(false, Duration.ofMillis(20), 1);
+
+        assertThat(pinningMonitor.record("a", 1_000_000)).isTrue();
+        assertThat(pinningMonitor.record("a", 3_000_000)).isFalse();
+        assertThat(pinningMonitor.record("b", 1_000_000)).isFalse();
+
+        Map<String, Object> stats = pinningMonitor.getStats();
+        assertThat(stats).containsEntry("events", 3L).containsEntry("untrackedEvents", 1L);
+        assertThat(sites(pinningMonitor)).singleElement()
+                .satisfies(site -> assertThat(site).containsEntry("events", 2L).containsEntry("maxPinnedMs", 3.0));
+    }
+
+    private void sleepWhileHoldingTheMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> sites(PinningMonitor pinningMonitor) {
+        return (List<Map<String, Object>>) pinningMonitor.getStats().get("sites");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.resilience_app.utils;
+
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryAfterHeaderTest {
+
+    private static final Instant NOW = Instant.parse("2025-07-01T12:00:00Z");
+
+    @Test
+    void parsesDelaySeconds() {
+        assertThat(RetryAfterHeader.parseDelayMillis("5", NOW)).isEqualTo(5000L);
+        assertThat(RetryAfterHeader.parseDelayMillis(" 0 ", NOW)).isZero();
+    }
+
+    @Test
+    void parsesHttpDate() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(NOW.plusSeconds(30).atOffset(ZoneOffset.UTC));
+        assertThat(RetryAfterHeader.parseDelayMillis(date, NOW)).isEqualTo(30_000L);
+    }
+
+    @Test
+    void httpDateInThePastMeansNoDelay() {
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(NOW.minusSeconds(30).atOffset(ZoneOffset.UTC));
+        assertThat(RetryAfterHeader.parseDelayMillis(date, NOW)).isZero();
+    }
+
+    @Test
+    void invalidValuesAreAbsent() {
+        assertThat(RetryAfterHeader.parseDelayMillis("", NOW)).isEqualTo(RetryAfterHeader.ABSENT);
+        assertThat(RetryAfterHeader.parseDelayMillis("soon", NOW)).isEqualTo(RetryAfterHeader.ABSENT);
+        assertThat(RetryAfterHeader.parseDelayMillis("99999999999999999999", NOW)).isEqualTo(RetryAfterHeader.ABSENT);
+    }
+
+    @Test
+    void parsesMillisecondHeader() {
+        assertThat(RetryAfterHeader.parseMillis("250")).isEqualTo(250L);
+        assertThat(RetryAfterHeader.parseMillis(null)).isEqualTo(RetryAfterHeader.ABSENT);
+        assertThat(RetryAfterHeader.parseMillis("-5")).isEqualTo(RetryAfterHeader.ABSENT);
+    }
+
+    @Test
+    void headerLookupIsCaseInsensitive() {
+        assertThat(RetryAfterHeader.headerValue(Map.of("retry-after", List.of("7")), "Retry-After")).isEqualTo("7");
+        assertThat(RetryAfterHeader.headerValue(Map.of(), "Retry-After")).isNull();
+    }
+
+    @Test
+    void retryableExceptionRetryAfterWinsOverTheHeader() {
+        RetryableException exception = retryable(NOW.plusSeconds(3).toEpochMilli(), Map.of("Retry-After", List.of("30")));
+        assertThat(RetryAfterHeader.delayMillis(exception, NOW)).isEqualTo(3000L);
+    }
+
+    @Test
+    void millisecondHeaderWinsOverRetryableExceptionRetryAfter() {
+        RetryableException exception = retryable(NOW.plusSeconds(3).toEpochMilli(), Map.of("X-Retry-After-Ms", List.of("250")));
+        assertThat(RetryAfterHeader.delayMillis(exception, NOW)).isEqualTo(250L);
+    }
+
+    @Test
+    void retryableExceptionWithoutRetryAfterFallsBackToTheHeader() {
+        RetryableException exception = retryable(null, Map.of("Retry-After", List.of("2")));
+        assertThat(RetryAfterHeader.delayMillis(exception, NOW)).isEqualTo(2000L);
+        assertThat(RetryAfterHeader.delayMillis(retryable(null, Map.of()), NOW)).isEqualTo(RetryAfterHeader.ABSENT);
+    }
+
+    private static RetryableException retryable(Long retryAfter, Map<String, Collection<String>> headers) {
+        Request request = Request.create(Request.HttpMethod.POST, "http://localhost:8081/api/errors",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        return new RetryableException(503, "unavailable", Request.HttpMethod.POST, retryAfter, request, null, headers);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.resilience_app.utils;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryBudgetTest {
+
+    @Test
+    void retriesSpendTokensAndSuccessesRefillThem() {
+        RetryBudget budget = new RetryBudget(true, 0.5, 2);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+        assertThat(budget.getRejectedRetries()).isEqualTo(1);
+
+        budget.onSuccess();
+        budget.onSuccess();
+        assertThat(budget.getAvailableTokens()).isEqualTo(1.0);
+        assertThat(budget.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void tokensNeverExceedMaximum() {
+        RetryBudget budget = new RetryBudget(true, 1.0, 3);
+        for (int i = 0; i < 10; i++) {
+            budget.onSuccess();
+            budget.refund();
+        }
+        assertThat(budget.getAvailableTokens()).isEqualTo(3.0);
+    }
+
+    @Test
+    void exhaustedBudgetStopsRetryingImmediately() {
+        RetryBudget budget = new RetryBudget(true, 0.1, 1);
+        RetryConfig config = budget.applyTo(RetryConfig.custom()
+                .maxAttempts(5)
+                .waitDuration(Duration.ofMillis(1))
+                .retryExceptions(IllegalStateException.class)
+                .build());
+        Retry retry = Retry.of("budgetTest", config);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> failing = Retry.decorateSupplier(retry, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("down");
+        });
+
+        // one token -> one retry, then the failure is handed to the caller
+        assertThatThrownBy(failing::get).isInstanceOf(IllegalStateException.class);
+        assertThat(calls).hasValue(2);
+        assertThat(budget.getAvailableTokens()).isZero();
+        assertThat(budget.getRejectedRetries()).isEqualTo(1);
+    }
+
+    @Test
+    void successfulCallsEarnTokens() {
+        RetryBudget budget = new RetryBudget(true, 0.5, 1);
+        budget.tryAcquire();
+        Retry retry = Retry.of("budgetTest", budget.applyTo(RetryConfig.ofDefaults()));
+
+        retry.executeSupplier(() -> "ok");
+
+        assertThat(budget.getAvailableTokens()).isEqualTo(0.5);
+    }
+
+    @Test
+    void disabledBudgetLeavesConfigUntouched() {
+        RetryConfig config = RetryConfig.ofDefaults();
+        assertThat(new RetryBudget(false, 0.1, 10).applyTo(config)).isSameAs(config);
+    }
+}
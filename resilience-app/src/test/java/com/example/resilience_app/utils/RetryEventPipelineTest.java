@@ -0,0 +1,80 @@
+package com.example.resilience_app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryEventPipelineTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countsEventsPerInstanceKindAndException() throws InterruptedException {
+        RetryEventPipeline pipeline = new RetryEventPipeline(64, Duration.ofHours(1), 0.0);
+        pipeline.publish("programmaticRetry", RetryEventPipeline.Kind.RETRY, new ConnectException(), 1, 200);
+        pipeline.publish("programmaticRetry", RetryEventPipeline.Kind.RETRY, new ConnectException(), 2, 300);
+        pipeline.publish("programmaticRetry", RetryEventPipeline.Kind.EXHAUSTED, new IOException(), 3, 0);
+        pipeline.publish("annotationRetryConfig", RetryEventPipeline.Kind.RETRY_SUCCESS, null, 1, 0);
+
+        pipeline.close(); // drains the buffer and publishes the totals
+
+        Map<String, Object> programmatic = (Map<String, Object>) pipeline.getTotals().get("programmaticRetry");
+        assertThat(programmatic).containsEntry("RETRY", 2L).containsEntry("EXHAUSTED", 1L);
+        assertThat((Map<String, Long>) programmatic.get("failuresByException"))
+                .containsEntry("ConnectException", 2L)
+                .containsEntry("IOException", 1L);
+        Map<String, Object> annotation = (Map<String, Object>) pipeline.getTotals().get("annotationRetryConfig");
+        assertThat(annotation).containsEntry("RETRY_SUCCESS", 1L);
+        assertThat(pipeline.getPublished()).isEqualTo(4);
+        assertThat(pipeline.getDropped()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void dropsAndCountsEventsWhileTheBufferIsFull() throws InterruptedException {
+        CountDownLatch consumerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Detail logging reads the message on the consumer thread, which keeps the first slot occupied
+        ConnectException blocking = new ConnectException() {
+            @Override
+            public String getMessage() {
+                consumerBlocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "blocked";
+            }
+        };
+        RetryEventPipeline pipeline = new RetryEventPipeline(16, Duration.ofHours(1), 1.0);
+        pipeline.publish("programmaticRetry", RetryEventPipeline.Kind.RETRY, blocking, 1, 0);
+        assertThat(consumerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < pipeline.getCapacity() + 5; i++) {
+            pipeline.publish("programmaticRetry", RetryEventPipeline.Kind.RETRY, null, 1, 0);
+        }
+
+        assertThat(pipeline.getPublished()).isEqualTo(pipeline.getCapacity() + 6);
+        assertThat(pipeline.getDropped()).isEqualTo(6);
+
+        release.countDown();
+        pipeline.close();
+
+        Map<String, Object> totals = (Map<String, Object>) pipeline.getTotals().get("programmaticRetry");
+        assertThat(totals).containsEntry("RETRY", (long) pipeline.getCapacity());
+    }
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() throws InterruptedException {
+        RetryEventPipeline pipeline = new RetryEventPipeline(100, Duration.ofSeconds(5), 0.0);
+        pipeline.close();
+        assertThat(pipeline.getCapacity()).isEqualTo(128);
+    }
+}
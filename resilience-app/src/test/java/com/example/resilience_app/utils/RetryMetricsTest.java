@@ -0,0 +1,81 @@
+package com.example.resilience_app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryMetricsTest {
+
+    @Test
+    void callRecordsTotalLatencyAndAttempts() {
+        RetryMetrics metrics = new RetryMetrics();
+        try (RetryMetrics.Call call = metrics.instance("programmaticRetry").startCall()) {
+            call.attempt(() -> "failed");
+            call.attempt(() -> "ok");
+        }
+
+        Map<String, Object> instance = histograms(metrics.cumulative(), "programmaticRetry");
+        assertThat(summary(instance, "totalLatencyMs")).containsEntry("count", 1L);
+        assertThat(summary(instance, "attemptLatencyMs")).containsEntry("count", 2L);
+        assertThat(summary(instance, "attemptsPerCall")).containsEntry("max", 2.0);
+    }
+
+    @Test
+    void boundCallCountsAttemptsOfItsThread() {
+        RetryMetrics metrics = new RetryMetrics();
+        RetryMetrics.Instance instance = metrics.instance("programmaticRetry");
+        try (RetryMetrics.Call ignored = instance.startBoundCall()) {
+            instance.recordAttempt(1_000_000);
+            instance.recordAttempt(2_000_000);
+            instance.recordAttempt(3_000_000);
+        }
+        instance.recordAttempt(1_000_000); // outside of a call
+
+        Map<String, Object> histograms = histograms(metrics.cumulative(), "programmaticRetry");
+        assertThat(summary(histograms, "attemptsPerCall")).containsEntry("max", 3.0);
+        assertThat(summary(histograms, "attemptLatencyMs")).containsEntry("count", 4L);
+    }
+
+    @Test
+    void countAttemptsReportsTheAttemptsOfCallsClosedOnItsThread() {
+        RetryMetrics.Instance instance = new RetryMetrics().instance("annotationRetryConfig");
+        int[] counted = new int[1];
+
+        String result = RetryMetrics.countAttempts(() -> {
+            try (RetryMetrics.Call call = instance.startCall()) {
+                call.attempt(() -> "failed");
+                return call.attempt(() -> "ok");
+            }
+        }, attempts -> counted[0] = attempts);
+        assertThat(result).isEqualTo("ok");
+        assertThat(counted[0]).isEqualTo(2);
+
+        RetryMetrics.countAttempts(() -> "coalesced", attempts -> counted[0] = attempts);
+        assertThat(counted[0]).isZero();
+    }
+
+    @Test
+    void intervalSnapshotsStartOverWhileCumulativeKeepsCounting() {
+        RetryMetrics metrics = new RetryMetrics();
+        metrics.instance("annotationRetryConfig").recordBackoff(500);
+
+        assertThat(summary(histograms(metrics.interval(), "annotationRetryConfig"), "backoffWaitMs")).containsEntry("count", 1L);
+        assertThat(summary(histograms(metrics.interval(), "annotationRetryConfig"), "backoffWaitMs")).containsEntry("count", 0L);
+        assertThat(summary(histograms(metrics.cumulative(), "annotationRetryConfig"), "backoffWaitMs")).containsEntry("count", 1L);
+
+        metrics.reset();
+        assertThat(summary(histograms(metrics.cumulative(), "annotationRetryConfig"), "backoffWaitMs")).containsEntry("count", 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> histograms(Map<String, Object> snapshot, String instance) {
+        return (Map<String, Object>) snapshot.get(instance);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> summary(Map<String, Object> histograms, String name) {
+        return (Map<String, Object>) histograms.get(name);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.resilience_app.utils;
+
+import com.example.resilience_app.model.RetryStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryStrategyFileWatcherTest {
+
+    private static final RetryStrategy RANDOM_BACKOFF = new RetryStrategy("random-backoff", 5, 200, 1.5, 0.5, 10_000, 10_000);
+    private static final String RETRY_AFTER_JSON = """
+            {"strategy": "retry-after", "maxAttempts": 3, "initialInterval": 100, "multiplier": 2.0,
+             "randomizationFactor": 0.2, "maxInterval": 5000, "maxRetryAfter": 2000}""";
+
+    @TempDir
+    Path directory;
+
+    private final RetryRegistry registry = RetryRegistry.ofDefaults();
+    private final SwappableRetry programmatic = swappable("programmaticRetry");
+    private final SwappableRetry annotation = swappable("annotationRetryConfig");
+
+    @Test
+    void swapsChangedStrategiesOnly() throws IOException {
+        RetryStrategyFileWatcher watcher = watcher("""
+                {"programmaticRetry": %s}""".formatted(RETRY_AFTER_JSON));
+
+        assertThat(watcher.apply()).isEqualTo(1);
+        assertThat(programmatic.getStrategy().strategy()).isEqualTo("retry-after");
+        assertThat(programmatic.current().getRetryConfig().getMaxAttempts()).isEqualTo(3);
+        assertThat(annotation.getSwaps()).isZero();
+
+        // Applying the same file again, e.g. after an editor touched it, swaps nothing
+        assertThat(watcher.apply()).isZero();
+        assertThat(programmatic.getSwaps()).isEqualTo(1);
+    }
+
+    @Test
+    void fileWithAnUnknownInstanceIsRejectedAsAWhole() throws IOException {
+        RetryStrategyFileWatcher watcher = watcher("""
+                {"programmaticRetry": %s, "feignRetry": %s}""".formatted(RETRY_AFTER_JSON, RETRY_AFTER_JSON));
+
+        assertThat(watcher.apply()).isEqualTo(-1);
+        assertThat(programmatic.getStrategy()).isEqualTo(RANDOM_BACKOFF);
+        assertThat(programmatic.getSwaps()).isZero();
+    }
+
+    @Test
+    void fileWithAnInvalidStrategyIsRejectedAsAWhole() throws IOException {
+        RetryStrategyFileWatcher watcher = watcher("""
+                {"programmaticRetry": %s,
+                 "annotationRetryConfig": {"strategy": "linear", "maxAttempts": 3, "initialInterval": 100,
+                  "multiplier": 2.0, "randomizationFactor": 0.2, "maxInterval": 5000, "maxRetryAfter": 0}}"""
+                .formatted(RETRY_AFTER_JSON));
+
+        assertThat(watcher.apply()).isEqualTo(-1);
+        assertThat(programmatic.getSwaps()).isZero();
+        assertThat(annotation.getSwaps()).isZero();
+    }
+
+    @Test
+    void partialOrInvalidWritesKeepTheCurrentStrategy() throws IOException {
+        RetryStrategyFileWatcher watcher = watcher("""
+                {"programmaticRetry": %s}""".formatted(RETRY_AFTER_JSON));
+        assertThat(watcher.apply()).isEqualTo(1);
+        RetryStrategy applied = programmatic.getStrategy();
+
+        // An editor saving in several steps: truncated, empty, then not JSON at all
+        String complete = Files.readString(file());
+        for (String write : List.of(complete.substring(0, complete.length() / 2), "", "maxAttempts: 3")) {
+            Files.writeString(file(), write);
+            assertThat(watcher.apply()).isEqualTo(-1);
+            assertThat(programmatic.getStrategy()).isEqualTo(applied);
+            assertThat(registry.retry("programmaticRetry")).isSameAs(programmatic.current());
+        }
+        assertThat(programmatic.getSwaps()).isEqualTo(1);
+    }
+
+    private RetryStrategyFileWatcher watcher(String json) throws IOException {
+        Files.writeString(file(), json);
+        return new RetryStrategyFileWatcher(file(), new ObjectMapper(), List.of(programmatic, annotation));
+    }
+
+    private Path file() {
+        return directory.resolve("retry-strategies.json");
+    }
+
+    private SwappableRetry swappable(String name) {
+        return new SwappableRetry(registry, name, RetryConfigUtil.createFromStrategy(RANDOM_BACKOFF), RANDOM_BACKOFF,
+                UnaryOperator.identity(), instance -> {
+                });
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.resilience_app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallsOfOneKeyShareOneExecution() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(true, 16, 4);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "response";
+                })));
+            }
+            while (singleFlight.getLeaders() + singleFlight.getCoalesced() < 10) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("response");
+            }
+        }
+
+        assertThat(executions).hasValue(1);
+        assertThat(singleFlight.getCoalesced()).isEqualTo(9);
+        assertThat(singleFlight.getInFlight()).isZero();
+    }
+
+    @Test
+    void failureOfTheLeaderReachesEveryWaiter() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(true, 16, 4);
+        CompletableFuture<String> leaderCall = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = singleFlight.executeAsync("key", () -> leaderCall);
+        CompletableFuture<String> follower = singleFlight.executeAsync("key", () -> CompletableFuture.completedFuture("own"));
+        leaderCall.completeExceptionally(new IllegalStateException("trouble-maker down"));
+
+        assertThat(leader).isCompletedExceptionally();
+        assertThatThrownBy(follower::join).hasCauseInstanceOf(IllegalStateException.class);
+        // the failed flight is gone, the next call starts a new one
+        assertThat(singleFlight.execute("key", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void callsBeyondTheTableBoundRunOnTheirOwn() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(true, 1, 1);
+        CompletableFuture<String> first = singleFlight.executeAsync("a", CompletableFuture::new);
+
+        assertThat(singleFlight.execute("b", () -> "b")).isEqualTo("b");
+        assertThat(singleFlight.getBypassed()).isEqualTo(1);
+        assertThat(first).isNotDone();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.resilience_app.utils;
+
+import com.example.resilience_app.model.RetryStrategy;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.core.functions.Either;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class SwappableRetryTest {
+
+    private static final RetryStrategy RANDOM_BACKOFF = new RetryStrategy("random-backoff", 5, 200, 1.5, 0.5, 10_000, 10_000);
+
+    @Test
+    void swapReplacesTheRetryInTheRegistryAndKeepsTheOldOneForCallsInFlight() {
+        RetryRegistry registry = RetryRegistry.ofDefaults();
+        AtomicInteger instrumented = new AtomicInteger();
+        SwappableRetry retry = new SwappableRetry(registry, "programmaticRetry",
+                RetryConfigUtil.createFromStrategy(RANDOM_BACKOFF), RANDOM_BACKOFF,
+                UnaryOperator.identity(), instance -> instrumented.incrementAndGet());
+        Retry inFlight = retry.current();
+
+        RetryStrategy retryAfter = new RetryStrategy("Retry-After", 3, 100, 2.0, 0.2, 5_000, 2_000);
+        assertThat(retry.swap(retryAfter)).isTrue();
+        assertThat(retry.swap(retryAfter)).isFalse();
+
+        assertThat(retry.current()).isNotSameAs(inFlight).isSameAs(registry.retry("programmaticRetry"));
+        assertThat(retry.current().getRetryConfig().getMaxAttempts()).isEqualTo(3);
+        assertThat(inFlight.getRetryConfig().getMaxAttempts()).isEqualTo(5);
+        assertThat(retry.getStrategy().strategy()).isEqualTo("retry-after");
+        assertThat(retry.getSwaps()).isEqualTo(1);
+        assertThat(instrumented).hasValue(2);
+    }
+
+    @Test
+    void swapsAnInstanceConfiguredElsewhereAndRejectsInvalidStrategies() {
+        RetryRegistry registry = RetryRegistry.ofDefaults();
+        registry.retry("annotationRetryConfig", RetryConfig.custom().maxAttempts(5).build());
+        SwappableRetry retry = new SwappableRetry(registry, "annotationRetryConfig",
+                registry.retry("annotationRetryConfig").getRetryConfig(), null,
+                UnaryOperator.identity(), instance -> {
+                });
+        assertThat(retry.getStrategy()).isNull();
+
+        retry.swap(RANDOM_BACKOFF);
+        assertThat(registry.retry("annotationRetryConfig")).isSameAs(retry.current());
+
+        assertThatIllegalArgumentException().isThrownBy(() -> new RetryStrategy("linear", 3, 200, 1.5, 0.5, 10_000, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new RetryStrategy("random-backoff", 0, 200, 1.5, 0.5, 10_000, 0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new RetryStrategy("random-backoff", 3, 200, 1.5, 1.0, 10_000, 0));
+    }
+
+    @Test
+    void decorationKeepsExceptionsAndRetryAfterOfTheBaseConfigAcrossSwaps() {
+        RetryRegistry registry = RetryRegistry.ofDefaults();
+        RetryConfig yamlConfig = RetryConfig.custom().retryExceptions(RetryableException.class).build();
+        SwappableRetry retry = new SwappableRetry(registry, "annotationRetryConfig", yamlConfig, null,
+                config -> RetryConfigUtil.withRetryAfter(RetryConfigUtil.withExceptionsOf(config, yamlConfig), 2_000),
+                instance -> {
+                });
+
+        retry.swap(RANDOM_BACKOFF);
+
+        RetryConfig swapped = retry.current().getRetryConfig();
+        RetryableException unavailable = new RetryableException(503, "unavailable", Request.HttpMethod.POST, (Long) null,
+                Request.create(Request.HttpMethod.POST, "http://localhost:8081/api/errors", Map.of(), null, StandardCharsets.UTF_8, null),
+                null, Map.of("Retry-After", List.of("5")));
+        assertThat(swapped.getMaxAttempts()).isEqualTo(5);
+        assertThat(swapped.getExceptionPredicate().test(unavailable)).isTrue();
+        // Retried by the random-backoff strategy on its own, but not part of the YAML retry-exceptions
+        assertThat(swapped.getExceptionPredicate().test(new IOException("reset"))).isFalse();
+        assertThat(swapped.getIntervalBiFunction().apply(1, Either.left(unavailable))).isEqualTo(2_000L);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.trouble_maker.service;
+
+import com.example.trouble_maker.model.ErrorConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cost of the per-request outcome decision under load from all cores.
+ * Random configs only touch ThreadLocalRandom, seeded and scripted configs advance a sequence cursor - either
+ * one cursor shared by every thread (worst case, one hot key) or one cursor per thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ErrorConfigurationServiceBenchmark {
+
+    private ErrorConfigurationService service;
+    private ErrorConfig random;
+    private ErrorConfig seeded;
+    private ErrorConfig scripted;
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        final String key = "thread-" + NEXT.getAndIncrement();
+    }
+
+    @Setup
+    public void setUp() {
+        service = new ErrorConfigurationService(new FaultSequenceCursors(10_000, 600));
+        random = config();
+        seeded = config();
+        seeded.setSeed(42L);
+        scripted = config();
+        scripted.setScript("F*3,S*7");
+    }
+
+    private static ErrorConfig config() {
+        ErrorConfig config = new ErrorConfig();
+        config.setErrorRate(0.3);
+        return config;
+    }
+
+    @Benchmark
+    public boolean random() {
+        return service.shouldSimulateError(random);
+    }
+
+    @Benchmark
+    public boolean randomWithSequenceKey() {
+        return service.shouldSimulateError(random, "shared");
+    }
+
+    @Benchmark
+    public boolean seededSharedKey() {
+        return service.shouldSimulateError(seeded, "shared");
+    }
+
+    @Benchmark
+    public boolean seededPerThreadKey(ThreadKey threadKey) {
+        return service.shouldSimulateError(seeded, threadKey.key);
+    }
+
+    @Benchmark
+    public boolean scriptedSharedKey() {
+        return service.shouldSimulateError(scripted, "shared");
+    }
+
+    @Benchmark
+    public boolean scriptedPerThreadKey(ThreadKey threadKey) {
+        return service.shouldSimulateError(scripted, threadKey.key);
+    }
+}
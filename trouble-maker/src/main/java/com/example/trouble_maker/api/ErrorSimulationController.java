@@ -1,16 +1,34 @@
 package com.example.trouble_maker.api;
 
+import com.example.trouble_maker.model.BatchItem;
+import com.example.trouble_maker.model.CallerDeadline;
 import com.example.trouble_maker.model.ErrorConfig;
+import com.example.trouble_maker.model.OverloadSettings;
+import com.example.trouble_maker.service.CallerDeadlines;
+import com.example.trouble_maker.service.CapacityModel;
+import com.example.trouble_maker.service.ClientRateLimiter;
 import com.example.trouble_maker.service.ErrorConfigurationService;
+import com.example.trouble_maker.service.FaultProfileRegistry;
+import com.example.trouble_maker.service.ResponseTimer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/errors")
@@ -18,46 +36,319 @@ public class ErrorSimulationController {
 
     private static final Logger logger = LoggerFactory.getLogger(ErrorSimulationController.class);
 
+    // Deterministic sequences are counted per key: this header, else the profile name, else one shared sequence
+    static final String FAULT_KEY_HEADER = "X-Fault-Key";
+    private static final String DEFAULT_SEQUENCE_KEY = "default";
+
+    // Exact wait of a rate limited request, Retry-After itself only has whole seconds
+    static final String RETRY_AFTER_MS_HEADER = "X-Retry-After-Ms";
+
     private final ErrorConfigurationService errorConfigService;
+    private final FaultProfileRegistry profileRegistry;
+    private final ResponseTimer responseTimer;
+    private final CapacityModel capacityModel;
+    private final ClientRateLimiter rateLimiter;
+    private final CallerDeadlines callerDeadlines;
+    private final ObjectMapper objectMapper;
 
-    public ErrorSimulationController(ErrorConfigurationService errorConfigService) {
+    public ErrorSimulationController(ErrorConfigurationService errorConfigService,
+                                     FaultProfileRegistry profileRegistry,
+                                     ResponseTimer responseTimer,
+                                     CapacityModel capacityModel,
+                                     ClientRateLimiter rateLimiter,
+                                     CallerDeadlines callerDeadlines,
+                                     ObjectMapper objectMapper) {
         this.errorConfigService = errorConfigService;
+        this.profileRegistry = profileRegistry;
+        this.responseTimer = responseTimer;
+        this.capacityModel = capacityModel;
+        this.rateLimiter = rateLimiter;
+        this.callerDeadlines = callerDeadlines;
+        this.objectMapper = objectMapper;
+    }
+
+    private record SimulatedResponse(long delayMs, Supplier<ResponseEntity<Map<String, Object>>> response) {
     }
 
     /**
-     * 503 Service Unavailable
-     * Simulates temporary overload or scheduled maintenance
+     * Simulates the requested error code (503 temporary overload, 504/408 timeouts, ...).
+     * The config comes either from the request body or, without body, from a named profile (?profile=name).
+     * Delayed responses are completed asynchronously, no servlet thread waits for them.
+     * In overload mode the request additionally competes for the limited capacity of {@link CapacityModel},
+     * with rate limiting enabled each client first needs a token of {@link ClientRateLimiter}.
+     * Requests whose caller has already given up ({@link CallerDeadlines#HEADER_NAME}) are dropped, and delays
+     * the caller would not wait for are skipped.
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> serviceUnavailable(
+    public DeferredResult<ResponseEntity<Map<String, Object>>> serviceUnavailable(
             @RequestParam Map<String, String> requestParams,
-            @RequestBody ErrorConfig errorConfig) {
-        if (!requestParams.containsKey("errorCode")) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Missing required parameter: errorCode"));
+            @RequestHeader(value = FAULT_KEY_HEADER, required = false) String faultKey,
+            @RequestHeader(value = CallerDeadlines.HEADER_NAME, required = false) String deadlineHeader,
+            @RequestBody(required = false) ErrorConfig requestConfig,
+            HttpServletRequest request) {
+        CallerDeadline deadline = callerDeadlines.of(deadlineHeader);
+        if (deadline.isExpired(System.nanoTime())) {
+            callerDeadlines.recordDroppedOnArrival();
+            logger.info("⏱️ Dropping request, the caller's deadline passed before it arrived");
+            return responseTimer.completed(deadlineExceededResponse("caller deadline exceeded on arrival"));
+        }
+        if (rateLimiter.isEnabled()) {
+            String clientHeader = rateLimiter.getSettings().clientHeader();
+            String clientKey = request.getHeader(clientHeader) != null ? request.getHeader(clientHeader) : request.getRemoteAddr();
+            ClientRateLimiter.Decision decision = rateLimiter.tryAcquire(clientKey);
+            if (!decision.allowed()) {
+                logger.info("🚦 Rate limited client {} - next token in {}ms", clientKey, decision.retryAfterMs());
+                return responseTimer.completed(rateLimitedResponse(decision.retryAfterMs()));
+            }
+        }
+        String profile = requestParams.get("profile");
+        ErrorConfig errorConfig = profile != null ? profileRegistry.get(profile).orElse(null) : requestConfig;
+        if (profile != null && errorConfig == null) {
+            return responseTimer.completed(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Unknown profile: " + profile)));
+        }
+        if (errorConfig == null) {
+            return responseTimer.completed(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Missing request body or parameter: profile")));
+        }
+        String errorCode = requestParams.getOrDefault("errorCode", errorConfig.getErrorCode());
+        if (errorCode == null) {
+            return responseTimer.completed(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Missing required parameter: errorCode")));
         }
-        String errorCode = requestParams.get("errorCode");
 
 
         HttpStatus httpErrorStatus = errorConfigService.getErrorCode(errorCode);
+        String sequenceKey = faultKey != null ? faultKey : profile != null ? profile : DEFAULT_SEQUENCE_KEY;
+        if (capacityModel.isEnabled()) {
+            return simulateWithCapacity(errorConfig, errorCode, httpErrorStatus, sequenceKey, deadline);
+        }
+        SimulatedResponse simulated = simulate(errorConfig, errorCode, httpErrorStatus, sequenceKey);
+        if (!deadline.allows(simulated.delayMs(), System.nanoTime())) {
+            return responseTimer.completed(skippedDelayResponse(simulated.delayMs(), deadline));
+        }
+        return responseTimer.completeAfter(simulated.delayMs(), simulated.response());
+    }
+
+    /**
+     * Evaluates a JSON array of items (inline configs or {"profile":"name"}) in one pass and answers with
+     * one outcome per item, in order: {"index","errorCode","status","error","delayMs"} plus "retryAfter"
+     * for simulated errors and "message" for items that could not be evaluated.
+     * Items are read from the request stream and outcomes written to the response stream one at a time,
+     * so the batch is never held in memory. Only the decision is simulated: delays are reported, not waited,
+     * and capacity, rate limiting and caller deadlines don't apply. Seeded and scripted items advance the same
+     * sequences as single requests.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void simulateBatch(@RequestHeader(value = FAULT_KEY_HEADER, required = false) String faultKey,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(request.getInputStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), Map.of("error", "Expected a JSON array of items"));
+                return;
+            }
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            int items = 0;
+            int errors = 0;
+            try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+                generator.writeStartArray();
+                try {
+                    JsonToken token;
+                    while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                        if (writeOutcome(generator, items++, parser.readValueAs(BatchItem.class), faultKey)) {
+                            errors++;
+                        }
+                    }
+                    if (token != JsonToken.END_ARRAY) {
+                        writeRejected(generator, items, HttpStatus.BAD_REQUEST, "Expected an object, got " + token);
+                    }
+                } catch (JsonProcessingException e) {
+                    // Outcomes already written stay valid, the batch ends at the malformed item
+                    writeRejected(generator, items, HttpStatus.BAD_REQUEST, "Malformed item: " + e.getOriginalMessage());
+                }
+                generator.writeEndArray();
+            }
+            logger.info("📦 Evaluated batch of {} items - {} simulated errors", items, errors);
+        }
+    }
+
+    /**
+     * Writes the outcome of one batch item, true if an error was simulated
+     */
+    private boolean writeOutcome(JsonGenerator generator, int index, BatchItem item, String faultKey) throws IOException {
+        String profile = item.getProfile();
+        ErrorConfig errorConfig = profile != null ? profileRegistry.get(profile).orElse(null) : item;
+        if (errorConfig == null) {
+            writeRejected(generator, index, HttpStatus.NOT_FOUND, "Unknown profile: " + profile);
+            return false;
+        }
+        String errorCode = item.getErrorCode() != null ? item.getErrorCode() : errorConfig.getErrorCode();
+        if (errorCode == null) {
+            writeRejected(generator, index, HttpStatus.BAD_REQUEST, "Missing required field: errorCode");
+            return false;
+        }
+
+        HttpStatus httpErrorStatus = errorConfigService.getErrorCode(errorCode);
+        String sequenceKey = faultKey != null ? faultKey : profile != null ? profile : DEFAULT_SEQUENCE_KEY;
+        boolean error = errorConfigService.shouldSimulateError(errorConfig, sequenceKey);
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeStringField("errorCode", errorCode);
+        if (error) {
+            generator.writeNumberField("status", httpErrorStatus.value());
+            generator.writeBooleanField("error", true);
+            generator.writeNumberField("delayMs", errorConfigService.getErrorDelayMs(errorConfig, httpErrorStatus));
+            generator.writeNumberField("retryAfter", errorConfig.getRetryAfterSeconds());
+        } else {
+            generator.writeNumberField("status", HttpStatus.OK.value());
+            generator.writeBooleanField("error", false);
+            generator.writeNumberField("delayMs", errorConfigService.getSuccessDelayMs(errorConfig));
+        }
+        generator.writeEndObject();
+        return error;
+    }
+
+    private static void writeRejected(JsonGenerator generator, int index, HttpStatus status, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeNumberField("status", status.value());
+        generator.writeBooleanField("error", true);
+        generator.writeStringField("message", message);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Overload mode: the request needs a service slot, holds it for its delay and waits in the queue while
+     * all slots are busy. Requests beyond slots + queue are rejected right away, queued requests expire at
+     * maxQueueWaitMs or their caller's deadline, and those whose response timed out leave the queue right away.
+     */
+    private DeferredResult<ResponseEntity<Map<String, Object>>> simulateWithCapacity(ErrorConfig errorConfig,
+                                                                                     String errorCode,
+                                                                                     HttpStatus httpErrorStatus,
+                                                                                     String sequenceKey,
+                                                                                     CallerDeadline deadline) {
+        OverloadSettings settings = capacityModel.getSettings();
+        DeferredResult<ResponseEntity<Map<String, Object>>> result = responseTimer.newResult(
+                settings.maxQueueWaitMs() + Math.max(errorConfigService.getMaxDelayMs(errorConfig), settings.minServiceTimeMs()));
+
+        CapacityModel.Admission admission = new CapacityModel.Admission() {
+            @Override
+            public void start(long queueWaitMs) {
+                SimulatedResponse simulated = simulate(errorConfig, errorCode, httpErrorStatus, sequenceKey);
+                long serviceTimeMs = Math.max(simulated.delayMs(), settings.minServiceTimeMs());
+                if (!deadline.allows(serviceTimeMs, System.nanoTime())) {
+                    result.setResult(skippedDelayResponse(serviceTimeMs, deadline));
+                    capacityModel.release();
+                    return;
+                }
+                responseTimer.completeAfter(result, serviceTimeMs, simulated.response(), capacityModel::release);
+            }
+
+            @Override
+            public void expire(long queueWaitMs) {
+                logger.info("⏳ Request expired after {}ms in the queue", queueWaitMs);
+                result.setResult(overloadResponse(settings, "queue wait exceeded " + settings.maxQueueWaitMs() + "ms"));
+            }
+
+            @Override
+            public void deadlineExceeded(long queueWaitMs) {
+                callerDeadlines.recordDroppedInQueue();
+                logger.info("⏱️ Dropping request after {}ms in the queue, the caller's deadline passed", queueWaitMs);
+                result.setResult(deadlineExceededResponse("caller deadline exceeded in the queue"));
+            }
+        };
+        CapacityModel.Ticket ticket = capacityModel.submit(admission,
+                deadline.bounded() ? deadline.deadlineNanos() : CapacityModel.NO_DEADLINE);
+        if (ticket.result() == CapacityModel.Result.QUEUED) {
+            // a request that timed out or whose client went away must not take a slot later
+            result.onTimeout(() -> capacityModel.cancel(ticket));
+            result.onCompletion(() -> capacityModel.cancel(ticket));
+        }
+        if (ticket.result() == CapacityModel.Result.REJECTED) {
+            logger.info("🚫 Overloaded - {} slots busy, {} queued, rejecting with {}",
+                    capacityModel.getBusySlots(), capacityModel.getQueued(), settings.rejectStatus());
+            result.setResult(overloadResponse(settings, "all slots busy and queue full"));
+        }
+        return result;
+    }
+
+    private SimulatedResponse simulate(ErrorConfig errorConfig, String errorCode, HttpStatus httpErrorStatus,
+                                       String sequenceKey) {
         logger.info("🎲 Using error rate to random if error should be simulated or return succes: {}", errorConfig.getErrorRate());
-        if (errorConfigService.shouldSimulateError(errorConfig)) {
+        if (errorConfigService.shouldSimulateError(errorConfig, sequenceKey)) {
             logger.info("❌ Simulating error code {} - config: {}",errorCode, errorConfig);
-            errorConfigService.simulateDelay(errorConfig);
-
-            Map<String, Object> errorResponse = Map.of(
-                    "error", httpErrorStatus.value(),
-                    "message", httpErrorStatus.getReasonPhrase(),
-                    "timestamp", LocalDateTime.now(),
-                    "retryAfter", errorConfig.getRetryAfterSeconds()
-            );
-
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                    .header("Retry-After", String.valueOf(errorConfig.getRetryAfterSeconds()))
-                    .body(errorResponse);
+            long delay = errorConfigService.getErrorDelayMs(errorConfig, httpErrorStatus);
+            return new SimulatedResponse(delay, () -> errorResponse(httpErrorStatus, errorConfig));
         }
         logger.info("✅ Simulating success response - no error");
-        return successResponse("service available - no error");
+        long delay = errorConfigService.getSuccessDelayMs(errorConfig);
+        return new SimulatedResponse(delay, () -> successResponse("service available - no error"));
+    }
+
+    private ResponseEntity<Map<String, Object>> overloadResponse(OverloadSettings settings, String reason) {
+        HttpStatus status = HttpStatus.valueOf(settings.rejectStatus());
+        Map<String, Object> errorResponse = Map.of(
+                "error", status.value(),
+                "message", status.getReasonPhrase(),
+                "reason", reason,
+                "timestamp", LocalDateTime.now(),
+                "retryAfter", 1
+        );
+        return ResponseEntity.status(status)
+                .header("Retry-After", "1")
+                .body(errorResponse);
+    }
+
+    private ResponseEntity<Map<String, Object>> skippedDelayResponse(long delayMs, CallerDeadline deadline) {
+        callerDeadlines.recordSkippedDelay();
+        long remainingMs = deadline.remainingMillis(System.nanoTime());
+        logger.info("⏱️ Skipping delay of {}ms, the caller gives up in {}ms", delayMs, remainingMs);
+        return deadlineExceededResponse("response delay of " + delayMs + "ms exceeds the caller's remaining " + remainingMs + "ms");
+    }
+
+    /**
+     * Answer for requests nobody waits for anymore, cheap to produce and not meant to be read
+     */
+    private ResponseEntity<Map<String, Object>> deadlineExceededResponse(String reason) {
+        Map<String, Object> errorResponse = Map.of(
+                "error", HttpStatus.GATEWAY_TIMEOUT.value(),
+                "message", HttpStatus.GATEWAY_TIMEOUT.getReasonPhrase(),
+                "reason", reason,
+                "timestamp", LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(errorResponse);
+    }
+
+    private ResponseEntity<Map<String, Object>> rateLimitedResponse(long retryAfterMs) {
+        long retryAfterSeconds = Math.max(1, (retryAfterMs + 999) / 1000);
+        Map<String, Object> errorResponse = Map.of(
+                "error", HttpStatus.TOO_MANY_REQUESTS.value(),
+                "message", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                "timestamp", LocalDateTime.now(),
+                "retryAfter", retryAfterSeconds,
+                "retryAfterMs", retryAfterMs
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .header(RETRY_AFTER_MS_HEADER, String.valueOf(retryAfterMs))
+                .body(errorResponse);
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(HttpStatus httpErrorStatus, ErrorConfig errorConfig) {
+        Map<String, Object> errorResponse = Map.of(
+                "error", httpErrorStatus.value(),
+                "message", httpErrorStatus.getReasonPhrase(),
+                "timestamp", LocalDateTime.now(),
+                "retryAfter", errorConfig.getRetryAfterSeconds()
+        );
+
+        return ResponseEntity.status(httpErrorStatus)
+                .header("Retry-After", String.valueOf(errorConfig.getRetryAfterSeconds()))
+                .body(errorResponse);
     }
 
     private ResponseEntity<Map<String, Object>> successResponse(String message) {
@@ -69,4 +360,4 @@ public class ErrorSimulationController {
         );
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+}
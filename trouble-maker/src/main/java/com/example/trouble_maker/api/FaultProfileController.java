@@ -0,0 +1,47 @@
+package com.example.trouble_maker.api;
+
+import com.example.trouble_maker.model.ErrorConfig;
+import com.example.trouble_maker.service.FaultProfileRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Admin endpoint for named fault profiles, used via POST /api/errors?profile=name
+ */
+@RestController
+@RequestMapping("/api/profiles")
+public class FaultProfileController {
+
+    private final FaultProfileRegistry profileRegistry;
+
+    public FaultProfileController(FaultProfileRegistry profileRegistry) {
+        this.profileRegistry = profileRegistry;
+    }
+
+    @PutMapping("/{name}")
+    public ResponseEntity<ErrorConfig> putProfile(@PathVariable String name, @RequestBody ErrorConfig errorConfig) {
+        boolean existed = profileRegistry.put(name, errorConfig).isPresent();
+        return ResponseEntity.status(existed ? HttpStatus.OK : HttpStatus.CREATED)
+                .body(profileRegistry.get(name).orElse(errorConfig));
+    }
+
+    @GetMapping
+    public Map<String, ErrorConfig> getProfiles() {
+        return profileRegistry.getAll();
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<ErrorConfig> getProfile(@PathVariable String name) {
+        return ResponseEntity.of(profileRegistry.get(name));
+    }
+
+    @DeleteMapping("/{name}")
+    public ResponseEntity<Void> deleteProfile(@PathVariable String name) {
+        return profileRegistry.remove(name).isPresent()
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
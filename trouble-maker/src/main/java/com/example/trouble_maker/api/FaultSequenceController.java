@@ -0,0 +1,39 @@
+package com.example.trouble_maker.api;
+
+import com.example.trouble_maker.service.FaultSequenceCursors;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Cursors of deterministic (seeded or scripted) fault sequences, reset them before each benchmark run
+ */
+@RestController
+@RequestMapping("/api/sequences")
+public class FaultSequenceController {
+
+    private final FaultSequenceCursors cursors;
+
+    public FaultSequenceController(FaultSequenceCursors cursors) {
+        this.cursors = cursors;
+    }
+
+    @GetMapping
+    public Map<String, Long> getPositions() {
+        return cursors.getPositions();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> resetAll() {
+        cursors.resetAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{key}")
+    public ResponseEntity<Void> reset(@PathVariable String key) {
+        return cursors.reset(key)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
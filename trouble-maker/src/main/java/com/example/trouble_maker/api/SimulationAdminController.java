@@ -0,0 +1,112 @@
+package com.example.trouble_maker.api;
+
+import com.example.trouble_maker.model.OverloadSettings;
+import com.example.trouble_maker.model.RateLimitSettings;
+import com.example.trouble_maker.service.CallerDeadlines;
+import com.example.trouble_maker.service.CapacityModel;
+import com.example.trouble_maker.service.ClientRateLimiter;
+import com.example.trouble_maker.service.PinningMonitor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Server-wide simulation settings that are not part of a single request's ErrorConfig
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class SimulationAdminController {
+
+    private final CapacityModel capacityModel;
+    private final ClientRateLimiter rateLimiter;
+    private final CallerDeadlines callerDeadlines;
+    private final PinningMonitor pinningMonitor;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    public SimulationAdminController(CapacityModel capacityModel, ClientRateLimiter rateLimiter,
+                                     CallerDeadlines callerDeadlines, PinningMonitor pinningMonitor) {
+        this.capacityModel = capacityModel;
+        this.rateLimiter = rateLimiter;
+        this.callerDeadlines = callerDeadlines;
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    @GetMapping("/overload")
+    public Map<String, Object> getOverload() {
+        Map<String, Object> overload = new LinkedHashMap<>();
+        overload.put("settings", capacityModel.getSettings());
+        overload.put("busySlots", capacityModel.getBusySlots());
+        overload.put("queued", capacityModel.getQueued());
+        overload.put("admitted", capacityModel.getAdmitted());
+        overload.put("rejected", capacityModel.getRejected());
+        overload.put("expired", capacityModel.getExpired());
+        overload.put("deadlineExpired", capacityModel.getDeadlineExpired());
+        overload.put("cancelled", capacityModel.getCancelled());
+        overload.put("totalQueueWaitMs", capacityModel.getTotalQueueWaitMs());
+        return overload;
+    }
+
+    @PutMapping("/overload")
+    public ResponseEntity<OverloadSettings> updateOverload(@RequestBody OverloadSettings settings) {
+        // invalid settings fail in the record constructor and are answered with 400 by Spring
+        capacityModel.updateSettings(settings);
+        return ResponseEntity.ok(settings);
+    }
+
+    @GetMapping("/rate-limit")
+    public Map<String, Object> getRateLimit() {
+        Map<String, Object> rateLimit = new LinkedHashMap<>();
+        rateLimit.put("settings", rateLimiter.getSettings());
+        rateLimit.put("trackedClients", rateLimiter.getTrackedClients());
+        rateLimit.put("allowed", rateLimiter.getAllowedRequests());
+        rateLimit.put("rejected", rateLimiter.getRejectedRequests());
+        rateLimit.put("evictedBuckets", rateLimiter.getEvictedBuckets());
+        rateLimit.put("overflowRequests", rateLimiter.getOverflowRequests());
+        return rateLimit;
+    }
+
+    /**
+     * Work saved by honoring the callers' deadlines
+     */
+    @GetMapping("/deadlines")
+    public Map<String, Object> getDeadlines() {
+        Map<String, Object> deadlines = new LinkedHashMap<>();
+        deadlines.put("enabled", callerDeadlines.isEnabled());
+        deadlines.put("droppedOnArrival", callerDeadlines.getDroppedOnArrival());
+        deadlines.put("skippedDelays", callerDeadlines.getSkippedDelays());
+        deadlines.put("droppedInQueue", callerDeadlines.getDroppedInQueue());
+        return deadlines;
+    }
+
+    /**
+     * Execution mode, platform threads (carriers included, virtual threads are not counted), heap
+     * and virtual threads pinned to their carrier per site
+     */
+    @GetMapping("/threads")
+    public Map<String, Object> getThreads() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Map<String, Object> threads = new LinkedHashMap<>();
+        threads.put("virtualThreads", virtualThreads);
+        threads.put("platformThreads", threadBean.getThreadCount());
+        threads.put("peakPlatformThreads", threadBean.getPeakThreadCount());
+        threads.put("heapUsedBytes", heap.getUsed());
+        threads.put("heapCommittedBytes", heap.getCommitted());
+        threads.put("pinning", pinningMonitor.getStats());
+        return threads;
+    }
+
+    @PutMapping("/rate-limit")
+    public ResponseEntity<RateLimitSettings> updateRateLimit(@RequestBody RateLimitSettings settings) {
+        rateLimiter.updateSettings(settings);
+        return ResponseEntity.ok(settings);
+    }
+}
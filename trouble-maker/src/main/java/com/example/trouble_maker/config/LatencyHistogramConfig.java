@@ -0,0 +1,40 @@
+package com.example.trouble_maker.config;
+
+import com.example.trouble_maker.model.LatencyHistograms;
+import com.fasterxml.jackson.databind.InjectableValues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Loads the empirical latency histograms once at start-up and hands them to Jackson, which resolves
+ * {@code {"type": "empirical", "histogram": "<name>"}} against them
+ */
+@Configuration
+public class LatencyHistogramConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyHistogramConfig.class);
+
+    @Bean
+    public LatencyHistograms latencyHistograms(@Value("${app.fault-simulation.latency-histograms-dir:}") String directory) {
+        if (directory.isBlank() || !Files.isDirectory(Path.of(directory))) {
+            logger.info("📊 No latency histogram directory '{}', empirical latency is not available", directory);
+            return LatencyHistograms.NONE;
+        }
+        LatencyHistograms histograms = LatencyHistograms.load(Path.of(directory));
+        logger.info("📊 Loaded latency histograms {} from {}", histograms.names(), directory);
+        return histograms;
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer latencyHistogramInjection(LatencyHistograms histograms) {
+        return builder -> builder.postConfigurer(objectMapper ->
+                objectMapper.setInjectableValues(new InjectableValues.Std().addValue(LatencyHistograms.class, histograms)));
+    }
+}
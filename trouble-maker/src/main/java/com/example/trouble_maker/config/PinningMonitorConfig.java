@@ -0,0 +1,28 @@
+package com.example.trouble_maker.config;
+
+import com.example.trouble_maker.service.PinningMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Reports virtual threads pinned to their carrier, on by default in virtual-thread mode
+ * (spring.threads.virtual.enabled). Event counts per site only, resilience-app's monitor also keeps stacks and times.
+ */
+@Configuration
+public class PinningMonitorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinningMonitorConfig.class);
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public PinningMonitor pinningMonitor(@Value("${app.pinning-monitor.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+                                         @Value("${app.pinning-monitor.threshold:20}") long threshold,
+                                         @Value("${app.pinning-monitor.max-sites:100}") int maxSites) {
+        logger.info("🔧 [VIRTUAL-THREADS] Pinning Monitor: {}, Threshold: {}ms, Max sites: {}", enabled, threshold, maxSites);
+        return new PinningMonitor(enabled, Duration.ofMillis(threshold), maxSites);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.trouble_maker.model;
+
+/**
+ * One item of a simulation batch: an inline config, or a named profile (errorCode of the item overrides
+ * the one of the profile, like the errorCode parameter of a single request)
+ */
+public class BatchItem extends ErrorConfig {
+
+    private String profile;
+
+    // Default constructor
+    public BatchItem() {}
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public void setProfile(String profile) {
+        this.profile = profile;
+    }
+}
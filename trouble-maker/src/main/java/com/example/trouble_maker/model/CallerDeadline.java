@@ -0,0 +1,34 @@
+package com.example.trouble_maker.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time after which the caller no longer waits for the response, taken from the remaining budget the
+ * caller sends with the request. Work for an expired request is wasted, so it is dropped instead.
+ *
+ * @param deadlineNanos System.nanoTime() of the deadline, only meaningful if bounded
+ * @param bounded       false if the caller sent no deadline
+ */
+public record CallerDeadline(long deadlineNanos, boolean bounded) {
+
+    public static final CallerDeadline NONE = new CallerDeadline(0, false);
+
+    public static CallerDeadline afterMillis(long remainingMs, long nowNanos) {
+        return new CallerDeadline(nowNanos + TimeUnit.MILLISECONDS.toNanos(remainingMs), true);
+    }
+
+    public long remainingMillis(long nowNanos) {
+        return bounded ? TimeUnit.NANOSECONDS.toMillis(deadlineNanos - nowNanos) : Long.MAX_VALUE;
+    }
+
+    public boolean isExpired(long nowNanos) {
+        return bounded && nowNanos - deadlineNanos >= 0;
+    }
+
+    /**
+     * @return whether a response delayed by delayMs still reaches the caller in time
+     */
+    public boolean allows(long delayMs, long nowNanos) {
+        return delayMs < remainingMillis(nowNanos);
+    }
+}
@@ -1,15 +1,22 @@
 package com.example.trouble_maker.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ErrorConfig {
     
+    private String errorCode; // Optional, used by named profiles so callers don't have to pass it
     private double errorRate = 1.0; // Default to 100% error rate
     private int responseDelayMs = 0; // No delay by default
     private int retryAfterSeconds = 30; // Retry-After header value for 429 and 503
     private long timeoutDelayMs = 5000; // Timeout delay for 504 and 408
     private boolean enabled = true;
+    private Long seed; // Deterministic mode: outcome of the Nth request derived from seed and N
+    private String script; // Deterministic mode: scripted outcomes like "FFFS" or "F*3,S*10", wins over seed
+    private FaultScript compiledScript;
+    private LatencyModel successLatency; // Delay distribution of success responses, none if not set
+    private LatencyModel errorLatency; // Delay distribution of error responses, responseDelayMs if not set
 
     // Default constructor
     public ErrorConfig() {}
@@ -24,7 +31,29 @@ public class ErrorConfig {
         this.enabled = enabled;
     }
 
+    /**
+     * Copy used when storing a profile, so later changes to the request object can't leak into it
+     */
+    public ErrorConfig copy() {
+        ErrorConfig copy = new ErrorConfig(errorRate, responseDelayMs, retryAfterSeconds, timeoutDelayMs, enabled);
+        copy.errorCode = errorCode;
+        copy.seed = seed;
+        copy.script = script;
+        copy.compiledScript = compiledScript;
+        copy.successLatency = successLatency;
+        copy.errorLatency = errorLatency;
+        return copy;
+    }
+
     // Getters and Setters
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(String errorCode) {
+        this.errorCode = errorCode;
+    }
+
     public double getErrorRate() {
         return errorRate;
     }
@@ -65,14 +94,66 @@ public class ErrorConfig {
         this.enabled = enabled;
     }
 
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public String getScript() {
+        return script;
+    }
+
+    public void setScript(String script) {
+        // Parsed once here, so the hot path only does a lookup
+        this.compiledScript = script == null ? null : FaultScript.parse(script);
+        this.script = script;
+    }
+
+    @JsonIgnore
+    public FaultScript getCompiledScript() {
+        return compiledScript;
+    }
+
+    public LatencyModel getSuccessLatency() {
+        return successLatency;
+    }
+
+    public void setSuccessLatency(LatencyModel successLatency) {
+        this.successLatency = successLatency;
+    }
+
+    public LatencyModel getErrorLatency() {
+        return errorLatency;
+    }
+
+    public void setErrorLatency(LatencyModel errorLatency) {
+        this.errorLatency = errorLatency;
+    }
+
+    /**
+     * Seeded or scripted configs produce the same outcome sequence on every run
+     */
+    @JsonIgnore
+    public boolean isDeterministic() {
+        return compiledScript != null || seed != null;
+    }
+
     @Override
     public String toString() {
         return "ErrorConfig{" +
-                "errorRate=" + errorRate +
+                "errorCode='" + errorCode + '\'' +
+                ", errorRate=" + errorRate +
                 ", responseDelayMs=" + responseDelayMs +
                 ", retryAfterSeconds=" + retryAfterSeconds +
                 ", timeoutDelayMs=" + timeoutDelayMs +
                 ", enabled=" + enabled +
+                (seed != null ? ", seed=" + seed : "") +
+                (script != null ? ", script='" + script + '\'' : "") +
+                (successLatency != null ? ", successLatency=" + successLatency : "") +
+                (errorLatency != null ? ", errorLatency=" + errorLatency : "") +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.example.trouble_maker.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Scripted sequence of outcomes, e.g. {@code FFFS} or {@code F*3,S*10} (F = fail, S = success).
+ * The script repeats, so request n gets the outcome at position {@code n % length}.
+ * Stored run-length encoded, so long runs like {@code S*1000000} stay small.
+ */
+public final class FaultScript {
+
+    private final String source;
+    private final long[] runEnds; // exclusive end position of each run
+    private final boolean[] runFails;
+    private final long length;
+
+    private FaultScript(String source, long[] runEnds, boolean[] runFails) {
+        this.source = source;
+        this.runEnds = runEnds;
+        this.runFails = runFails;
+        this.length = runEnds[runEnds.length - 1];
+    }
+
+    /**
+     * @throws IllegalArgumentException if the script is empty or malformed
+     */
+    public static FaultScript parse(String script) {
+        if (script == null || script.isBlank()) {
+            throw new IllegalArgumentException("Fault script must not be empty");
+        }
+        List<Long> ends = new ArrayList<>();
+        List<Boolean> fails = new ArrayList<>();
+        long position = 0;
+        for (String token : script.toUpperCase(Locale.ROOT).split("[,\\s]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            int star = token.indexOf('*');
+            if (star >= 0) {
+                if (star != 1) {
+                    throw new IllegalArgumentException("Invalid fault script token '" + token + "', expected e.g. F*3");
+                }
+                long count = parseCount(token.substring(star + 1), token);
+                position = Math.addExact(position, count);
+                addRun(ends, fails, position, outcome(token.charAt(0), token));
+            } else {
+                for (int i = 0; i < token.length(); i++) {
+                    addRun(ends, fails, ++position, outcome(token.charAt(i), token));
+                }
+            }
+        }
+        if (ends.isEmpty()) {
+            throw new IllegalArgumentException("Fault script must not be empty");
+        }
+        long[] runEnds = ends.stream().mapToLong(Long::longValue).toArray();
+        boolean[] runFails = new boolean[fails.size()];
+        for (int i = 0; i < runFails.length; i++) {
+            runFails[i] = fails.get(i);
+        }
+        return new FaultScript(script, runEnds, runFails);
+    }
+
+    private static void addRun(List<Long> ends, List<Boolean> fails, long end, boolean fail) {
+        int last = ends.size() - 1;
+        if (last >= 0 && fails.get(last) == fail) {
+            ends.set(last, end); // merge with the previous run
+        } else {
+            ends.add(end);
+            fails.add(fail);
+        }
+    }
+
+    private static boolean outcome(char c, String token) {
+        return switch (c) {
+            case 'F' -> true;
+            case 'S' -> false;
+            default -> throw new IllegalArgumentException(
+                    "Invalid outcome '" + c + "' in fault script token '" + token + "', expected F or S");
+        };
+    }
+
+    private static long parseCount(String count, String token) {
+        try {
+            long value = Long.parseLong(count);
+            if (value < 1) {
+                throw new IllegalArgumentException("Repeat count must be positive in fault script token '" + token + "'");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid repeat count in fault script token '" + token + "'", e);
+        }
+    }
+
+    /**
+     * @param sequenceNumber zero-based number of the request within its sequence key
+     */
+    public boolean shouldFail(long sequenceNumber) {
+        long position = Math.floorMod(sequenceNumber, length);
+        int run = Arrays.binarySearch(runEnds, position + 1);
+        return runFails[run >= 0 ? run : -run - 1];
+    }
+
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
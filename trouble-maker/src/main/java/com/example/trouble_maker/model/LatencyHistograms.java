@@ -0,0 +1,63 @@
+package com.example.trouble_maker.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Empirical latency histograms available to {@link LatencyModel.Empirical}, read once from the files of one
+ * directory: {@code <name>.csv} or {@code <name>.txt} becomes the histogram {@code name}. Subdirectories are
+ * ignored, so a configured name can never resolve to a file outside the directory.
+ */
+public final class LatencyHistograms {
+
+    public static final LatencyHistograms NONE = new LatencyHistograms(Map.of());
+
+    private final Map<String, LatencyModel.Empirical> histograms;
+
+    public LatencyHistograms(Map<String, LatencyModel.Empirical> histograms) {
+        this.histograms = Map.copyOf(histograms);
+    }
+
+    /**
+     * Loads every histogram file of the directory, an invalid file fails the whole load
+     */
+    public static LatencyHistograms load(Path directory) {
+        Map<String, LatencyModel.Empirical> histograms = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                String fileName = file.getFileName().toString();
+                int dot = fileName.lastIndexOf('.');
+                String extension = dot < 0 ? "" : fileName.substring(dot + 1);
+                if (dot > 0 && (extension.equals("csv") || extension.equals("txt"))) {
+                    String name = fileName.substring(0, dot);
+                    histograms.put(name, LatencyModel.Empirical.parse(name, Files.readAllLines(file)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read latency histograms from " + directory, e);
+        }
+        return new LatencyHistograms(histograms);
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no histogram with this name
+     */
+    public LatencyModel.Empirical get(String name) {
+        LatencyModel.Empirical histogram = name == null ? null : histograms.get(name);
+        if (histogram == null) {
+            throw new IllegalArgumentException("Unknown latency histogram '" + name + "', available: " + names());
+        }
+        return histogram;
+    }
+
+    public Set<String> names() {
+        return new TreeSet<>(histograms.keySet());
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.trouble_maker.model;
+
+import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution the simulated response delay is sampled from, e.g.
+ * {@code {"type": "lognormal", "medianMs": 80, "sigma": 0.6}}.
+ * <p>
+ * Models are immutable and sampling only uses the passed generator, so the hot path does not allocate.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = LatencyModel.Fixed.class, name = "fixed"),
+        @JsonSubTypes.Type(value = LatencyModel.Uniform.class, name = "uniform"),
+        @JsonSubTypes.Type(value = LatencyModel.Normal.class, name = "normal"),
+        @JsonSubTypes.Type(value = LatencyModel.LogNormal.class, name = "lognormal"),
+        @JsonSubTypes.Type(value = LatencyModel.Pareto.class, name = "pareto"),
+        @JsonSubTypes.Type(value = LatencyModel.Bimodal.class, name = "bimodal"),
+        @JsonSubTypes.Type(value = LatencyModel.Empirical.class, name = "empirical")
+})
+public sealed interface LatencyModel {
+
+    /**
+     * @return a delay in milliseconds, never negative
+     */
+    long sampleMillis(RandomGenerator random);
+
+    /**
+     * Always the same delay
+     */
+    record Fixed(long delayMs) implements LatencyModel {
+        public Fixed {
+            requireNonNegative(delayMs, "delayMs");
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return delayMs;
+        }
+    }
+
+    /**
+     * Every delay in [minMs, maxMs] equally likely
+     */
+    record Uniform(long minMs, long maxMs) implements LatencyModel {
+        public Uniform {
+            requireNonNegative(minMs, "minMs");
+            if (maxMs < minMs) {
+                throw new IllegalArgumentException("maxMs must not be smaller than minMs");
+            }
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return minMs == maxMs ? minMs : random.nextLong(minMs, maxMs + 1);
+        }
+    }
+
+    /**
+     * Gaussian around meanMs, negative samples are cut to 0
+     */
+    record Normal(double meanMs, double stdDevMs) implements LatencyModel {
+        public Normal {
+            requireNonNegative(stdDevMs, "stdDevMs");
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return toMillis(meanMs + stdDevMs * random.nextGaussian());
+        }
+    }
+
+    /**
+     * Typical service time body: median medianMs, sigma is the standard deviation of ln(latency)
+     */
+    record LogNormal(double medianMs, double sigma) implements LatencyModel {
+        public LogNormal {
+            requirePositive(medianMs, "medianMs");
+            requireNonNegative(sigma, "sigma");
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return toMillis(medianMs * Math.exp(sigma * random.nextGaussian()));
+        }
+    }
+
+    /**
+     * Heavy tail: at least scaleMs, P(latency > x) = (scaleMs / x)^shape
+     */
+    record Pareto(double scaleMs, double shape) implements LatencyModel {
+        public Pareto {
+            requirePositive(scaleMs, "scaleMs");
+            requirePositive(shape, "shape");
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            double u = 1.0 - random.nextDouble(); // (0, 1]
+            return toMillis(scaleMs / Math.pow(u, 1.0 / shape));
+        }
+    }
+
+    /**
+     * Mixture of two models, e.g. cache hit (fast) and cache miss (slow)
+     */
+    record Bimodal(double fastProbability, LatencyModel fast, LatencyModel slow) implements LatencyModel {
+        public Bimodal {
+            if (fastProbability < 0.0 || fastProbability > 1.0) {
+                throw new IllegalArgumentException("fastProbability must be between 0 and 1");
+            }
+            if (fast == null || slow == null) {
+                throw new IllegalArgumentException("bimodal latency needs a fast and a slow model");
+            }
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return random.nextDouble() < fastProbability
+                    ? fast.sampleMillis(random)
+                    : slow.sampleMillis(random);
+        }
+    }
+
+    /**
+     * Histogram recorded from a real backend, referenced by name, e.g. {@code {"type": "empirical", "histogram": "orders"}}.
+     * Histograms are read once at start-up from the configured directory ({@link LatencyHistograms}), requests
+     * can only pick one of them and never touch the file system. Sampling picks a bucket weighted by its count.
+     */
+    final class Empirical implements LatencyModel {
+
+        private final String histogram;
+        private final long[] latencies;
+        private final long[] cumulativeCounts;
+
+        private Empirical(String histogram, long[] latencies, long[] cumulativeCounts) {
+            this.histogram = histogram;
+            this.latencies = latencies;
+            this.cumulativeCounts = cumulativeCounts;
+        }
+
+        /**
+         * The histogram loaded at start-up, shared by all configs that reference it
+         */
+        @JsonCreator
+        public static Empirical of(@JacksonInject LatencyHistograms histograms, @JsonProperty("histogram") String histogram) {
+            return histograms.get(histogram);
+        }
+
+        /**
+         * Parses one {@code latencyMs,count} pair per line, {@code #} starts a comment
+         */
+        public static Empirical parse(String histogram, List<String> lines) {
+            long[] parsedLatencies = new long[lines.size()];
+            long[] parsedCounts = new long[lines.size()];
+            int buckets = 0;
+            long total = 0;
+            for (String line : lines) {
+                String content = line.strip();
+                if (content.isEmpty() || content.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = content.split("[,;\\s]+");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid line in latency histogram " + histogram + ": " + line);
+                }
+                long latency = Long.parseLong(parts[0]);
+                long count = Long.parseLong(parts[1]);
+                requireNonNegative(latency, "latency");
+                requireNonNegative(count, "count");
+                if (count == 0) {
+                    continue;
+                }
+                total = Math.addExact(total, count);
+                parsedLatencies[buckets] = latency;
+                parsedCounts[buckets] = total;
+                buckets++;
+            }
+            if (buckets == 0) {
+                throw new IllegalArgumentException("Latency histogram " + histogram + " has no samples");
+            }
+            return new Empirical(histogram, Arrays.copyOf(parsedLatencies, buckets), Arrays.copyOf(parsedCounts, buckets));
+        }
+
+        @JsonProperty("histogram")
+        public String getHistogram() {
+            return histogram;
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            long target = random.nextLong(cumulativeCounts[cumulativeCounts.length - 1]);
+            int bucket = Arrays.binarySearch(cumulativeCounts, target + 1);
+            return latencies[bucket >= 0 ? bucket : -bucket - 1];
+        }
+
+        @Override
+        public String toString() {
+            return "Empirical[histogram=" + histogram + ", buckets=" + latencies.length + "]";
+        }
+    }
+
+    private static long toMillis(double millis) {
+        return millis <= 0 ? 0 : Math.round(millis);
+    }
+
+    private static void requireNonNegative(double value, String name) {
+        if (value < 0) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+    }
+
+    private static void requirePositive(double value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.trouble_maker.model;
+
+/**
+ * Capacity of the simulated backend in overload mode.
+ *
+ * @param enabled          requests go through the capacity model only when enabled
+ * @param slots            requests served concurrently, each one holds its slot for its service time
+ * @param queueCapacity    requests waiting for a free slot, beyond that they are rejected right away
+ * @param rejectStatus     status of rejected and expired requests (503 or 429)
+ * @param maxQueueWaitMs   queued requests waiting longer are answered with rejectStatus instead of being served
+ * @param minServiceTimeMs minimum time a request occupies its slot, used when the config has no delay
+ */
+public record OverloadSettings(boolean enabled,
+                               int slots,
+                               int queueCapacity,
+                               int rejectStatus,
+                               long maxQueueWaitMs,
+                               long minServiceTimeMs) {
+
+    public OverloadSettings {
+        if (slots < 1) {
+            throw new IllegalArgumentException("slots must be at least 1");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queueCapacity must not be negative");
+        }
+        if (rejectStatus != 503 && rejectStatus != 429) {
+            throw new IllegalArgumentException("rejectStatus must be 503 or 429");
+        }
+        if (maxQueueWaitMs < 1) {
+            throw new IllegalArgumentException("maxQueueWaitMs must be positive");
+        }
+        if (minServiceTimeMs < 0) {
+            throw new IllegalArgumentException("minServiceTimeMs must not be negative");
+        }
+    }
+}
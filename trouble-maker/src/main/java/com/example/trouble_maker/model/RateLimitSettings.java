@@ -0,0 +1,32 @@
+package com.example.trouble_maker.model;
+
+/**
+ * Per-client token bucket of the simulated API gateway.
+ *
+ * @param enabled       requests are rate limited only when enabled
+ * @param ratePerSecond tokens refilled per second and client
+ * @param burst         bucket size, requests a client may send at once after being idle
+ * @param clientHeader  header identifying the client, the remote address is used without it
+ * @param maxClients    buckets kept in memory, idle (full) buckets are evicted beyond that
+ */
+public record RateLimitSettings(boolean enabled,
+                                double ratePerSecond,
+                                int burst,
+                                String clientHeader,
+                                int maxClients) {
+
+    public RateLimitSettings {
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("ratePerSecond must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+        if (clientHeader == null || clientHeader.isBlank()) {
+            throw new IllegalArgumentException("clientHeader must not be blank");
+        }
+        if (maxClients < 1) {
+            throw new IllegalArgumentException("maxClients must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.trouble_maker.service;
+
+import com.example.trouble_maker.model.CallerDeadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads the caller's deadline from {@link #HEADER_NAME} and counts the work saved by honoring it:
+ * requests dropped on arrival, simulated delays skipped because the caller would have given up before,
+ * and queued requests dropped in overload mode.
+ */
+@Service
+public class CallerDeadlines {
+
+    private static final Logger logger = LoggerFactory.getLogger(CallerDeadlines.class);
+
+    /**
+     * Remaining budget of the caller in milliseconds when the request was sent
+     */
+    public static final String HEADER_NAME = "X-Request-Deadline-Ms";
+
+    private final boolean enabled;
+
+    private final LongAdder droppedOnArrival = new LongAdder();
+    private final LongAdder skippedDelays = new LongAdder();
+    private final LongAdder droppedInQueue = new LongAdder();
+
+    public CallerDeadlines(@Value("${app.fault-simulation.honor-deadlines:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the caller's deadline, or {@link CallerDeadline#NONE} without (valid) header or when disabled
+     */
+    public CallerDeadline of(String headerValue) {
+        if (!enabled || headerValue == null) {
+            return CallerDeadline.NONE;
+        }
+        try {
+            return CallerDeadline.afterMillis(Long.parseLong(headerValue.trim()), System.nanoTime());
+        } catch (NumberFormatException e) {
+            logger.warn("⏱️ Ignoring invalid {} header: {}", HEADER_NAME, headerValue);
+            return CallerDeadline.NONE;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordDroppedOnArrival() {
+        droppedOnArrival.increment();
+    }
+
+    public void recordSkippedDelay() {
+        skippedDelays.increment();
+    }
+
+    public void recordDroppedInQueue() {
+        droppedInQueue.increment();
+    }
+
+    public long getDroppedOnArrival() {
+        return droppedOnArrival.sum();
+    }
+
+    public long getSkippedDelays() {
+        return skippedDelays.sum();
+    }
+
+    public long getDroppedInQueue() {
+        return droppedInQueue.sum();
+    }
+}
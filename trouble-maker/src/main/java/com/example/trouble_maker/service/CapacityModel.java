@@ -0,0 +1,338 @@
+package com.example.trouble_maker.service;
+
+import com.example.trouble_maker.model.OverloadSettings;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Overload mode: a fixed number of service slots with a bounded waiting queue in front.
+ * Requests beyond slots + queue are rejected, queued requests wait for a slot, so error rate and latency
+ * emerge from the offered load (including client retries) instead of a fixed errorRate.
+ * <p>
+ * Slots and queue length are atomic counters, nothing blocks: a request that does not get a slot is parked
+ * in the queue and started by whoever frees the next slot. Only one thread drains the queue at a time, a
+ * release while draining (e.g. a request served in 0ms) makes that thread loop once more instead of recursing.
+ * <p>
+ * Every queued request has a ticket whose state leaves QUEUED exactly once, by CAS: started by the drain,
+ * cancelled by its caller, or expired by a timer at maxQueueWaitMs (or the caller's deadline, if earlier) while
+ * all slots stay busy. Cancelled and expired tickets stay in the queue until the drain or the next submit skips
+ * them, so no request ever scans the queue.
+ */
+@Service
+public class CapacityModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapacityModel.class);
+
+    public enum Result {
+        STARTED, QUEUED, REJECTED
+    }
+
+    /**
+     * Callbacks of a request going through the capacity model
+     */
+    public interface Admission {
+
+        /**
+         * Called once the request got a slot; the slot is held until {@link CapacityModel#release()}
+         */
+        void start(long queueWaitMs);
+
+        /**
+         * Called instead of start if the request waited longer than maxQueueWaitMs, no slot is held
+         */
+        void expire(long queueWaitMs);
+
+        /**
+         * Called instead of start if the caller's deadline passed while the request was queued, no slot is held
+         */
+        default void deadlineExceeded(long queueWaitMs) {
+            expire(queueWaitMs);
+        }
+    }
+
+    /**
+     * Deadline of requests whose caller sent none
+     */
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * One submitted request; cancel it via {@link CapacityModel#cancel(Ticket)} once its response is no longer needed
+     */
+    public static final class Ticket {
+
+        private static final int QUEUED = 0;
+        private static final int LEFT_QUEUE = 1;
+
+        private final Admission admission;
+        private final long enqueuedAt;
+        private final long deadlineNanos;
+        private final Result result;
+        private final AtomicInteger state;
+        private volatile ScheduledFuture<?> expiry;
+
+        private Ticket(Admission admission, long enqueuedAt, long deadlineNanos, Result result) {
+            this.admission = admission;
+            this.enqueuedAt = enqueuedAt;
+            this.deadlineNanos = deadlineNanos;
+            this.result = result;
+            this.state = new AtomicInteger(result == Result.QUEUED ? QUEUED : LEFT_QUEUE);
+        }
+
+        public Result result() {
+            return result;
+        }
+
+        private boolean isQueued() {
+            return state.get() == QUEUED;
+        }
+
+        /**
+         * True for the one caller (drain, cancel or expiry timer) that takes the ticket out of the queue
+         */
+        private boolean leaveQueue() {
+            if (!state.compareAndSet(QUEUED, LEFT_QUEUE)) {
+                return false;
+            }
+            ScheduledFuture<?> timer = expiry;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            return true;
+        }
+
+        private boolean isPastDeadline(long nowNanos) {
+            return deadlineNanos != NO_DEADLINE && nowNanos - deadlineNanos >= 0;
+        }
+    }
+
+    private final AtomicReference<OverloadSettings> settings;
+    private final AtomicInteger busySlots = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Ticket> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    // starts its thread with the first queued request
+    private final ScheduledThreadPoolExecutor expiryTimer;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder deadlineExpired = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder totalQueueWaitMs = new LongAdder();
+
+    public CapacityModel(@Value("${app.fault-simulation.overload.enabled:false}") boolean enabled,
+                         @Value("${app.fault-simulation.overload.slots:50}") int slots,
+                         @Value("${app.fault-simulation.overload.queue-capacity:100}") int queueCapacity,
+                         @Value("${app.fault-simulation.overload.reject-status:503}") int rejectStatus,
+                         @Value("${app.fault-simulation.overload.max-queue-wait-ms:30000}") long maxQueueWaitMs,
+                         @Value("${app.fault-simulation.overload.min-service-time-ms:20}") long minServiceTimeMs) {
+        this.settings = new AtomicReference<>(
+                new OverloadSettings(enabled, slots, queueCapacity, rejectStatus, maxQueueWaitMs, minServiceTimeMs));
+        this.expiryTimer = new ScheduledThreadPoolExecutor(1,
+                Thread.ofPlatform().name("capacity-queue-expiry").daemon(true).factory());
+        expiryTimer.setRemoveOnCancelPolicy(true);
+    }
+
+    public OverloadSettings getSettings() {
+        return settings.get();
+    }
+
+    /**
+     * Swaps the settings; requests already holding a slot or waiting keep going
+     */
+    public void updateSettings(OverloadSettings newSettings) {
+        settings.set(newSettings);
+        logger.info("⚙️ Overload settings updated: {}", newSettings);
+        drain();
+    }
+
+    public boolean isEnabled() {
+        return settings.get().enabled();
+    }
+
+    public Ticket submit(Admission admission) {
+        return submit(admission, NO_DEADLINE);
+    }
+
+    /**
+     * Starts the request if a slot is free, queues it if the queue has room, rejects it otherwise.
+     * A queued request expires at maxQueueWaitMs, or at its deadline (System.nanoTime()) if that comes first.
+     */
+    public Ticket submit(Admission admission, long deadlineNanos) {
+        OverloadSettings current = settings.get();
+        if (tryIncrement(busySlots, current.slots())) {
+            admitted.increment();
+            admission.start(0);
+            return new Ticket(admission, 0, deadlineNanos, Result.STARTED);
+        }
+        if (!tryIncrement(queued, current.queueCapacity())) {
+            rejected.increment();
+            return new Ticket(admission, 0, deadlineNanos, Result.REJECTED);
+        }
+        long now = System.nanoTime();
+        Ticket ticket = new Ticket(admission, now, deadlineNanos, Result.QUEUED);
+        skipLeftHeads();
+        queue.offer(ticket);
+        long expiresInNanos = TimeUnit.MILLISECONDS.toNanos(current.maxQueueWaitMs());
+        if (deadlineNanos != NO_DEADLINE) {
+            expiresInNanos = Math.min(expiresInNanos, Math.max(0, deadlineNanos - now));
+        }
+        ticket.expiry = expiryTimer.schedule(() -> expire(ticket), expiresInNanos, TimeUnit.NANOSECONDS);
+        if (!ticket.isQueued()) {
+            ticket.expiry.cancel(false); // started or cancelled before its timer was set
+        }
+        // a slot may have been freed between the failed acquire and the offer
+        drain();
+        return ticket;
+    }
+
+    /**
+     * Frees the slot of a finished request and hands it to the next waiting one
+     */
+    public void release() {
+        busySlots.decrementAndGet();
+        drain();
+    }
+
+    /**
+     * Drops a queued request whose response is no longer needed (its DeferredResult timed out or completed),
+     * so it neither holds a queue place nor gets a slot later
+     *
+     * @return false if the request was not waiting (started, expired, rejected or already cancelled)
+     */
+    public boolean cancel(Ticket ticket) {
+        if (!ticket.leaveQueue()) {
+            return false;
+        }
+        queued.decrementAndGet();
+        cancelled.increment();
+        return true;
+    }
+
+    /**
+     * Expiry timer of a queued request, does nothing if it left the queue in the meantime
+     */
+    private void expire(Ticket ticket) {
+        if (!ticket.leaveQueue()) {
+            return;
+        }
+        queued.decrementAndGet();
+        long now = System.nanoTime();
+        long queueWaitMs = TimeUnit.NANOSECONDS.toMillis(now - ticket.enqueuedAt);
+        totalQueueWaitMs.add(queueWaitMs);
+        if (ticket.isPastDeadline(now)) {
+            deadlineExpired.increment();
+            ticket.admission.deadlineExceeded(queueWaitMs);
+        } else {
+            expired.increment();
+            ticket.admission.expire(queueWaitMs);
+        }
+    }
+
+    /**
+     * Unlinks cancelled and expired tickets at the head, so they don't pile up while no slot frees
+     */
+    private void skipLeftHeads() {
+        Ticket head;
+        while ((head = queue.peek()) != null && !head.isQueued()) {
+            queue.remove(head);
+        }
+    }
+
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return; // the draining thread loops once more
+        }
+        int missed = 1;
+        do {
+            drainQueue();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainQueue() {
+        while (!queue.isEmpty() && tryIncrement(busySlots, settings.get().slots())) {
+            Ticket ticket = queue.poll();
+            if (ticket == null || !ticket.leaveQueue()) {
+                busySlots.decrementAndGet(); // cancelled or expired while waiting
+                continue;
+            }
+            queued.decrementAndGet();
+            long now = System.nanoTime();
+            long queueWaitMs = TimeUnit.NANOSECONDS.toMillis(now - ticket.enqueuedAt);
+            totalQueueWaitMs.add(queueWaitMs);
+            if (ticket.isPastDeadline(now)) {
+                busySlots.decrementAndGet();
+                deadlineExpired.increment();
+                ticket.admission.deadlineExceeded(queueWaitMs);
+            } else if (queueWaitMs > settings.get().maxQueueWaitMs()) {
+                busySlots.decrementAndGet();
+                expired.increment();
+                ticket.admission.expire(queueWaitMs);
+            } else {
+                admitted.increment();
+                ticket.admission.start(queueWaitMs);
+            }
+        }
+    }
+
+    private static boolean tryIncrement(AtomicInteger counter, int limit) {
+        while (true) {
+            int current = counter.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public int getBusySlots() {
+        return busySlots.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    public long getDeadlineExpired() {
+        return deadlineExpired.sum();
+    }
+
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    public long getTotalQueueWaitMs() {
+        return totalQueueWaitMs.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryTimer.shutdownNow();
+    }
+}
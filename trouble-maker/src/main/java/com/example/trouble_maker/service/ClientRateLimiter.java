@@ -0,0 +1,198 @@
+package com.example.trouble_maker.service;
+
+import com.example.trouble_maker.model.RateLimitSettings;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token bucket rate limiter, like the one of our API gateway.
+ * <p>
+ * Each bucket is stored as a single theoretical arrival time (GCRA), which behaves exactly like a token bucket
+ * refilled at ratePerSecond with burst tokens, but updates with one CAS and no refill bookkeeping.
+ * Buckets live in a ConcurrentHashMap (striped internally). While rate limiting is enabled, a background sweep
+ * evicts the buckets that are full again - dropping them loses no state - so the request path never scans the map.
+ * The sweep marks a bucket evicted by CAS before removing it, so a request racing with it retries on a new bucket
+ * instead of spending a token on the removed one. New clients arriving while maxClients buckets are in use pass
+ * unlimited until the next sweep and are counted as overflow requests, so memory stays bounded without clients
+ * sharing (and exhausting) one bucket.
+ */
+@Service
+public class ClientRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientRateLimiter.class);
+
+    // theoretical arrival time of a bucket the sweep is removing, never a System.nanoTime() value in practice
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    /**
+     * @param allowed      whether the request may pass
+     * @param remaining    tokens left after this request
+     * @param retryAfterMs time until the next token is available, 0 if allowed
+     */
+    public record Decision(boolean allowed, long remaining, long retryAfterMs) {
+    }
+
+    private volatile RateLimitSettings settings;
+    private volatile ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder allowedRequests = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder evictedBuckets = new LongAdder();
+    private final LongAdder overflowRequests = new LongAdder();
+    private final long evictionIntervalMs;
+    private ScheduledExecutorService evictor;
+
+    /**
+     * @param evictionIntervalMs period of the sweep evicting full buckets while enabled, 0 disables it
+     */
+    public ClientRateLimiter(@Value("${app.fault-simulation.rate-limit.enabled:false}") boolean enabled,
+                             @Value("${app.fault-simulation.rate-limit.rate-per-second:10}") double ratePerSecond,
+                             @Value("${app.fault-simulation.rate-limit.burst:20}") int burst,
+                             @Value("${app.fault-simulation.rate-limit.client-header:X-Client-Id}") String clientHeader,
+                             @Value("${app.fault-simulation.rate-limit.max-clients:10000}") int maxClients,
+                             @Value("${app.fault-simulation.rate-limit.eviction-interval-ms:1000}") long evictionIntervalMs) {
+        this.settings = new RateLimitSettings(enabled, ratePerSecond, burst, clientHeader, maxClients);
+        this.evictionIntervalMs = evictionIntervalMs;
+        updateEvictor(enabled);
+    }
+
+    /**
+     * Runs the sweep only while rate limiting is enabled
+     */
+    private synchronized void updateEvictor(boolean enabled) {
+        if (enabled && evictor == null && evictionIntervalMs > 0) {
+            evictor = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("rate-limit-evictor").daemon(true).factory());
+            evictor.scheduleWithFixedDelay(() -> evictIdle(System.nanoTime()),
+                    evictionIntervalMs, evictionIntervalMs, TimeUnit.MILLISECONDS);
+        } else if (!enabled && evictor != null) {
+            evictor.shutdownNow();
+            evictor = null;
+        }
+    }
+
+    public RateLimitSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Swaps the settings and starts every client with a full bucket
+     */
+    public void updateSettings(RateLimitSettings newSettings) {
+        settings = newSettings;
+        buckets = new ConcurrentHashMap<>();
+        updateEvictor(newSettings.enabled());
+        logger.info("⚙️ Rate limit settings updated: {}", newSettings);
+    }
+
+    public boolean isEnabled() {
+        return settings.enabled();
+    }
+
+    public Decision tryAcquire(String clientKey) {
+        return tryAcquire(clientKey, System.nanoTime());
+    }
+
+    Decision tryAcquire(String clientKey, long nowNanos) {
+        RateLimitSettings current = settings;
+        long emissionInterval = Math.max(1L, Math.round(TimeUnit.SECONDS.toNanos(1) / current.ratePerSecond()));
+        long burstWindow = emissionInterval * current.burst();
+        AtomicLong bucket = bucketFor(clientKey, nowNanos);
+        if (bucket == null) {
+            overflowRequests.increment();
+            return new Decision(true, current.burst() - 1, 0);
+        }
+        while (true) {
+            long theoreticalArrival = bucket.get();
+            if (theoreticalArrival == EVICTED) {
+                // removed by the sweep meanwhile, start over on the client's new bucket
+                return tryAcquire(clientKey, nowNanos);
+            }
+            long newArrival = Math.max(theoreticalArrival, nowNanos) + emissionInterval;
+            long backlog = newArrival - nowNanos;
+            if (backlog > burstWindow) {
+                rejectedRequests.increment();
+                long retryAfterNanos = backlog - burstWindow;
+                return new Decision(false, 0, ceilMillis(retryAfterNanos));
+            }
+            if (bucket.compareAndSet(theoreticalArrival, newArrival)) {
+                allowedRequests.increment();
+                return new Decision(true, (burstWindow - backlog) / emissionInterval, 0);
+            }
+        }
+    }
+
+    /**
+     * @return the client's bucket, null if maxClients buckets are in use and the client has none
+     */
+    private AtomicLong bucketFor(String clientKey, long nowNanos) {
+        ConcurrentHashMap<String, AtomicLong> current = buckets;
+        AtomicLong bucket = current.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (current.size() >= settings.maxClients()) {
+            return null;
+        }
+        return current.computeIfAbsent(clientKey, key -> new AtomicLong(nowNanos));
+    }
+
+    /**
+     * Evicts the buckets that are full again, called by the background sweep
+     */
+    void evictIdle(long nowNanos) {
+        // a theoretical arrival time in the past means the bucket is full: same as a new one
+        ConcurrentHashMap<String, AtomicLong> current = buckets;
+        current.forEach((clientKey, bucket) -> {
+            long theoreticalArrival = bucket.get();
+            if (theoreticalArrival != EVICTED && theoreticalArrival <= nowNanos
+                    && bucket.compareAndSet(theoreticalArrival, EVICTED)) {
+                current.remove(clientKey, bucket);
+                evictedBuckets.increment();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updateEvictor(false);
+    }
+
+    private static long ceilMillis(long nanos) {
+        return (nanos + TimeUnit.MILLISECONDS.toNanos(1) - 1) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    public long getAllowedRequests() {
+        return allowedRequests.sum();
+    }
+
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    public long getEvictedBuckets() {
+        return evictedBuckets.sum();
+    }
+
+    public long getOverflowRequests() {
+        return overflowRequests.sum();
+    }
+
+    synchronized boolean isEvictorRunning() {
+        return evictor != null;
+    }
+}
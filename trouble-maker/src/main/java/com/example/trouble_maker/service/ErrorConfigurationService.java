@@ -1,6 +1,8 @@
 package com.example.trouble_maker.service;
 
 import com.example.trouble_maker.model.ErrorConfig;
+import com.example.trouble_maker.model.FaultScript;
+import com.example.trouble_maker.model.LatencyModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -13,6 +15,14 @@ public class ErrorConfigurationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ErrorConfigurationService.class);
 
+    // Upper bound for sampled delays, heavy-tailed models can produce arbitrarily large values
+    static final long MAX_SAMPLED_DELAY_MS = 600_000;
+
+    private final FaultSequenceCursors sequenceCursors;
+
+    public ErrorConfigurationService(FaultSequenceCursors sequenceCursors) {
+        this.sequenceCursors = sequenceCursors;
+    }
 
     public HttpStatus getErrorCode(String errorCode) {
         return switch (errorCode) {
@@ -34,16 +44,67 @@ public class ErrorConfigurationService {
         return ThreadLocalRandom.current().nextDouble() < config.getErrorRate();
     }
 
-    public void simulateDelay(ErrorConfig config) {
-        int delay = config.getResponseDelayMs();
-        if (delay > 0) {
-            try {
-                logger.debug("Simulating response delay: {}ms", delay);
-                Thread.sleep(delay);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+    /**
+     * Like {@link #shouldSimulateError(ErrorConfig)}, but seeded and scripted configs are deterministic:
+     * the Nth request for a sequence key always gets the same outcome, independent of thread scheduling.
+     */
+    public boolean shouldSimulateError(ErrorConfig config, String sequenceKey) {
+        if (!config.isDeterministic()) {
+            return shouldSimulateError(config);
+        }
+        long sequenceNumber = sequenceCursors.next(sequenceKey);
+        FaultScript script = config.getCompiledScript();
+        if (script != null) {
+            return script.shouldFail(sequenceNumber);
         }
+        return seededUniform(config.getSeed(), sequenceNumber) < config.getErrorRate();
+    }
+
+    /**
+     * Stateless uniform value in [0, 1) for position n of the seed's sequence (SplitMix64 finalizer)
+     */
+    static double seededUniform(long seed, long n) {
+        long z = seed + (n + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * How long the simulated error response is held back.
+     * Timeout scenarios (504, 408) hang for timeoutDelayMs, all others are sampled from errorLatency
+     * or wait responseDelayMs.
+     */
+    public long getErrorDelayMs(ErrorConfig config, HttpStatus errorStatus) {
+        if (errorStatus == HttpStatus.GATEWAY_TIMEOUT || errorStatus == HttpStatus.REQUEST_TIMEOUT) {
+            return config.getTimeoutDelayMs();
+        }
+        LatencyModel latency = config.getErrorLatency();
+        return latency != null ? sample(latency) : config.getResponseDelayMs();
+    }
+
+    /**
+     * How long the success response is held back, sampled from successLatency (no delay if not set)
+     */
+    public long getSuccessDelayMs(ErrorConfig config) {
+        LatencyModel latency = config.getSuccessLatency();
+        return latency != null ? sample(latency) : 0;
+    }
+
+    /**
+     * Upper bound of any delay returned for this config
+     */
+    public long getMaxDelayMs(ErrorConfig config) {
+        long max = Math.max(config.getTimeoutDelayMs(), config.getResponseDelayMs());
+        if (config.getSuccessLatency() != null || config.getErrorLatency() != null) {
+            max = Math.max(max, MAX_SAMPLED_DELAY_MS);
+        }
+        return max;
+    }
+
+    private static long sample(LatencyModel latency) {
+        return Math.min(latency.sampleMillis(ThreadLocalRandom.current()), MAX_SAMPLED_DELAY_MS);
     }
 
-}
\ No newline at end of file
+}
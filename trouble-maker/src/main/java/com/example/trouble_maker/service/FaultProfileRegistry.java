@@ -0,0 +1,46 @@
+package com.example.trouble_maker.service;
+
+import com.example.trouble_maker.model.ErrorConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named ErrorConfig profiles, so hot-path requests can reference a profile instead of sending a JSON body.
+ * Profiles are stored as private copies and replaced as a whole (copy-on-write), readers always see a complete
+ * config. Readers get the stored instance without a per-request copy and must treat it as read-only.
+ */
+@Service
+public class FaultProfileRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaultProfileRegistry.class);
+
+    private final Map<String, ErrorConfig> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Creates or atomically replaces a profile
+     *
+     * @return the previous profile, if any
+     */
+    public Optional<ErrorConfig> put(String name, ErrorConfig config) {
+        ErrorConfig previous = profiles.put(name, config.copy());
+        logger.info("📝 Profile '{}' {}: {}", name, previous == null ? "created" : "updated", config);
+        return Optional.ofNullable(previous);
+    }
+
+    public Optional<ErrorConfig> get(String name) {
+        return Optional.ofNullable(profiles.get(name));
+    }
+
+    public Optional<ErrorConfig> remove(String name) {
+        return Optional.ofNullable(profiles.remove(name));
+    }
+
+    public Map<String, ErrorConfig> getAll() {
+        return Map.copyOf(profiles);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.trouble_maker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key request counters for deterministic fault sequences.
+ * Taking the next position is a single atomic increment, so concurrent server threads never block each other
+ * and the Nth request of a key always gets position N.
+ * Keys come from clients, so at most maxKeys cursors are kept and idle ones expire; a key that comes back
+ * after its cursor was dropped starts its sequence from position 0 again.
+ */
+@Service
+public class FaultSequenceCursors {
+
+    private final Cache<String, AtomicLong> cursors;
+
+    public FaultSequenceCursors(@Value("${app.fault-simulation.sequences.max-keys:10000}") long maxKeys,
+                                @Value("${app.fault-simulation.sequences.idle-expiry-seconds:600}") long idleExpirySeconds) {
+        this.cursors = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofSeconds(idleExpirySeconds))
+                .build();
+    }
+
+    /**
+     * @return the zero-based position of this request within the sequence of the given key
+     */
+    public long next(String key) {
+        return cursors.get(key, k -> new AtomicLong()).getAndIncrement();
+    }
+
+    public Map<String, Long> getPositions() {
+        Map<String, Long> positions = new TreeMap<>();
+        cursors.asMap().forEach((key, cursor) -> positions.put(key, cursor.get()));
+        return positions;
+    }
+
+    public boolean reset(String key) {
+        return cursors.asMap().remove(key) != null;
+    }
+
+    public void resetAll() {
+        cursors.invalidateAll();
+    }
+}
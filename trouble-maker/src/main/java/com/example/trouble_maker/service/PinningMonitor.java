@@ -0,0 +1,131 @@
+package com.example.trouble_maker.service;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts virtual threads pinned to their carrier thread in trouble-maker, e.g. by sleeping inside a
+ * synchronized block. Streams the JFR event jdk.VirtualThreadPinned in-process and counts the events per
+ * site, the first frame outside the JDK; the first event of a site is logged. Sites beyond maxSites are
+ * counted under {@link #OTHER_SITES}. resilience-app has the full monitor with stacks and pinned time per site,
+ * trouble-maker only needs to show whether and where its fault simulation pins.
+ */
+public final class PinningMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String OTHER_SITES = "other";
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final int maxSites;
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private RecordingStream stream;
+
+    /**
+     * @param threshold pinning shorter than this is not reported (JFR event threshold)
+     */
+    public PinningMonitor(boolean enabled, Duration threshold, int maxSites) {
+        if (threshold.isNegative() || maxSites < 1) {
+            throw new IllegalArgumentException("threshold must not be negative and maxSites at least 1: "
+                    + threshold + ", " + maxSites);
+        }
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxSites = maxSites;
+    }
+
+    /**
+     * Starts streaming pinned events in the background, does nothing when disabled
+     */
+    public synchronized void start() {
+        if (!enabled || stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        logger.info("📌 [PINNING] Monitoring virtual threads pinned for at least {}ms", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String site = frames.stream()
+                .filter(frame -> !isJdkType(frame.getMethod().getType().getName()))
+                .findFirst()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .orElse("unknown");
+        if (record(site, event.getDuration().toNanos())) {
+            logger.warn("📌 [PINNING] Virtual thread pinned for {}ms at {}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    /**
+     * Counts one pinned event, true if it is the first one of its site
+     */
+    boolean record(String site, long nanos) {
+        boolean[] first = new boolean[1];
+        LongAdder count = sites.get(site);
+        if (count == null) {
+            String key = sites.size() < maxSites ? site : OTHER_SITES;
+            count = sites.computeIfAbsent(key, ignored -> {
+                first[0] = !key.equals(OTHER_SITES);
+                return new LongAdder();
+            });
+        }
+        count.increment();
+        // Totals last, so a reader who sees the event also sees its site
+        pinnedNanos.add(nanos);
+        events.increment();
+        return first[0];
+    }
+
+    private static boolean isJdkType(String type) {
+        return type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.");
+    }
+
+    /**
+     * Totals and the event count per site, most events first
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Map.Entry.<String, LongAdder>comparingByValue(
+                        (a, b) -> Long.compare(b.sum(), a.sum())))
+                .forEach(entry -> counts.put(entry.getKey(), entry.getValue().sum()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("thresholdMs", threshold.toMillis());
+        stats.put("events", events.sum());
+        stats.put("pinnedMs", pinnedNanos.sum() / 1_000_000d);
+        stats.put("sites", counts);
+        return stats;
+    }
+
+    public long getEvents() {
+        return events.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
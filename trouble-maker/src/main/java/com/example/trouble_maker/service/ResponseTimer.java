@@ -0,0 +1,96 @@
+package com.example.trouble_maker.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Completes delayed responses from a timer instead of sleeping on the servlet thread.
+ * A delayed request only costs its DeferredResult and a timer entry, so one instance can hold
+ * tens of thousands of them open.
+ * With virtual delays, each delayed response instead sleeps on a virtual thread of its own, the
+ * thread-per-request style that virtual-thread mode makes affordable.
+ */
+@Service
+public class ResponseTimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseTimer.class);
+
+    // Extra time on top of the simulated delay before the servlet container gives up on the request
+    private static final long TIMEOUT_GRACE_MS = 30_000;
+
+    private final ScheduledExecutorService timer;
+    private final ThreadFactory delayThreads;
+
+    public ResponseTimer(@Value("${app.fault-simulation.timer-threads:2}") int timerThreads,
+                         @Value("${app.fault-simulation.virtual-delays:${spring.threads.virtual.enabled:false}}") boolean virtualDelays) {
+        this.timer = Executors.newScheduledThreadPool(timerThreads,
+                Thread.ofPlatform().name("response-timer-", 0).daemon(true).factory());
+        this.delayThreads = virtualDelays ? Thread.ofVirtual().name("response-delay-", 0).factory() : null;
+        logger.info("Response timer started with {} threads, virtual delays: {}", timerThreads, virtualDelays);
+    }
+
+    /**
+     * @return a DeferredResult that is completed with the response after delayMs, or right away without delay
+     */
+    public <T> DeferredResult<T> completeAfter(long delayMs, Supplier<T> response) {
+        DeferredResult<T> result = newResult(delayMs);
+        completeAfter(result, delayMs, response, null);
+        return result;
+    }
+
+    public <T> DeferredResult<T> completed(T response) {
+        return completeAfter(0, () -> response);
+    }
+
+    /**
+     * @param expectedDelayMs longest time the result may stay open before it is completed
+     */
+    public <T> DeferredResult<T> newResult(long expectedDelayMs) {
+        return new DeferredResult<>(expectedDelayMs + TIMEOUT_GRACE_MS);
+    }
+
+    /**
+     * Completes an existing result after delayMs and runs afterCompletion (if any) once the result is set
+     */
+    public <T> void completeAfter(DeferredResult<T> result, long delayMs, Supplier<T> response, Runnable afterCompletion) {
+        Runnable complete = () -> {
+            try {
+                result.setResult(response.get());
+            } finally {
+                if (afterCompletion != null) {
+                    afterCompletion.run();
+                }
+            }
+        };
+        if (delayMs <= 0) {
+            complete.run();
+        } else if (delayThreads != null) {
+            delayThreads.newThread(() -> {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                complete.run();
+            }).start();
+        } else {
+            logger.debug("Scheduling response in {}ms", delayMs);
+            timer.schedule(complete, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
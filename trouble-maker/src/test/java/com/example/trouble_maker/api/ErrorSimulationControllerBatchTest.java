@@ -0,0 +1,182 @@
+package com.example.trouble_maker.api;
+
+import com.example.trouble_maker.model.ErrorConfig;
+import com.example.trouble_maker.service.CallerDeadlines;
+import com.example.trouble_maker.service.CapacityModel;
+import com.example.trouble_maker.service.ClientRateLimiter;
+import com.example.trouble_maker.service.ErrorConfigurationService;
+import com.example.trouble_maker.service.FaultProfileRegistry;
+import com.example.trouble_maker.service.FaultSequenceCursors;
+import com.example.trouble_maker.service.ResponseTimer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.DelegatingServletInputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class ErrorSimulationControllerBatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger evaluated = new AtomicInteger();
+    private final ErrorConfigurationService errorConfigService =
+            new ErrorConfigurationService(new FaultSequenceCursors(10_000, 600)) {
+                @Override
+                public boolean shouldSimulateError(ErrorConfig config, String sequenceKey) {
+                    evaluated.incrementAndGet();
+                    return super.shouldSimulateError(config, sequenceKey);
+                }
+            };
+    private final FaultProfileRegistry profileRegistry = new FaultProfileRegistry();
+    private final ResponseTimer responseTimer = new ResponseTimer(1, false);
+    private final ErrorSimulationController controller = new ErrorSimulationController(errorConfigService,
+            profileRegistry, responseTimer, new CapacityModel(false, 50, 100, 503, 30_000, 20),
+            new ClientRateLimiter(false, 10, 20, "X-Client-Id", 10_000, 0), new CallerDeadlines(true), objectMapper);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+    @AfterEach
+    void shutdown() {
+        responseTimer.shutdown();
+    }
+
+    @Test
+    void writesOneOutcomePerItemInOrder() throws Exception {
+        profileRegistry.put("down", new ErrorConfig(1.0, 0, 7, 100, true));
+
+        JsonNode outcomes = batch("""
+                [{"errorCode": "503", "errorRate": 1.0, "retryAfterSeconds": 3},
+                 {"errorCode": "500", "errorRate": 0.0},
+                 {"profile": "down", "errorCode": "429"}]""");
+
+        assertThat(outcomes).hasSize(3);
+        assertThat(outcomes.get(0).get("index").asInt()).isZero();
+        assertThat(outcomes.get(0).get("status").asInt()).isEqualTo(503);
+        assertThat(outcomes.get(0).get("retryAfter").asInt()).isEqualTo(3);
+        assertThat(outcomes.get(1).get("index").asInt()).isEqualTo(1);
+        assertThat(outcomes.get(1).get("status").asInt()).isEqualTo(200);
+        assertThat(outcomes.get(1).get("error").asBoolean()).isFalse();
+        assertThat(outcomes.get(1).has("retryAfter")).isFalse();
+        assertThat(outcomes.get(2).get("index").asInt()).isEqualTo(2);
+        assertThat(outcomes.get(2).get("errorCode").asText()).isEqualTo("429");
+        assertThat(outcomes.get(2).get("retryAfter").asInt()).isEqualTo(7);
+    }
+
+    @Test
+    void emptyBatchHasNoOutcomes() throws Exception {
+        assertThat(batch("[]")).isEmpty();
+        assertThat(evaluated).hasValue(0);
+    }
+
+    @Test
+    void bodyThatIsNotAnArrayIsRejected() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/api/errors/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"errorCode\": \"503\"}"))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(objectMapper.readTree(response.getContentAsString()).get("error").asText())
+                .isEqualTo("Expected a JSON array of items");
+    }
+
+    @Test
+    void invalidItemsAreRejectedWithoutStoppingTheBatch() throws Exception {
+        JsonNode outcomes = batch("""
+                [{"profile": "missing"},
+                 {"errorRate": 1.0},
+                 {"errorCode": "502", "errorRate": 1.0}]""");
+
+        assertThat(outcomes).hasSize(3);
+        assertThat(outcomes.get(0).get("status").asInt()).isEqualTo(404);
+        assertThat(outcomes.get(0).get("message").asText()).isEqualTo("Unknown profile: missing");
+        assertThat(outcomes.get(1).get("status").asInt()).isEqualTo(400);
+        assertThat(outcomes.get(1).get("message").asText()).isEqualTo("Missing required field: errorCode");
+        assertThat(outcomes.get(2).get("status").asInt()).isEqualTo(502);
+        assertThat(evaluated).hasValue(1);
+    }
+
+    @Test
+    void batchEndsAtAnItemThatIsNotAnObjectOrIsMalformed() throws Exception {
+        JsonNode notAnObject = batch("""
+                [{"errorCode": "503"}, 42, {"errorCode": "503"}]""");
+        assertThat(notAnObject).hasSize(2);
+        assertThat(notAnObject.get(1).get("index").asInt()).isEqualTo(1);
+        assertThat(notAnObject.get(1).get("message").asText()).isEqualTo("Expected an object, got VALUE_NUMBER_INT");
+
+        JsonNode malformed = batch("""
+                [{"errorCode": "503"}, {"errorCode": "503", "errorRate": "often"}, {"errorCode": "503"}]""");
+        assertThat(malformed).hasSize(2);
+        assertThat(malformed.get(0).get("status").asInt()).isEqualTo(503);
+        assertThat(malformed.get(1).get("status").asInt()).isEqualTo(400);
+        assertThat(malformed.get(1).get("message").asText()).startsWith("Malformed item:");
+
+        JsonNode truncated = batch("""
+                [{"errorCode": "503"}, {"errorCode": \"""");
+        assertThat(truncated).hasSize(2);
+        assertThat(truncated.get(1).get("message").asText()).startsWith("Malformed item:");
+    }
+
+    @Test
+    void itemsAreEvaluatedWhileTheBodyIsStillBeingRead() throws Exception {
+        int items = 20_000;
+        int[] maxLag = new int[1];
+        InputStream body = new InputStream() {
+            private byte[] chunk = "[".getBytes(StandardCharsets.UTF_8);
+            private int position;
+            private int next;
+
+            @Override
+            public int read() {
+                if (position == chunk.length) {
+                    if (next > items) {
+                        return -1;
+                    }
+                    // Items already handed to the parser but not yet evaluated
+                    maxLag[0] = Math.max(maxLag[0], next - evaluated.get());
+                    chunk = (next == items ? "]" : (next > 0 ? "," : "") + "{\"errorCode\": \"503\", \"errorRate\": 0.0}")
+                            .getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                    next++;
+                }
+                return chunk[position++];
+            }
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/errors/batch") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return new DelegatingServletInputStream(body);
+            }
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.simulateBatch(null, request, response);
+
+        JsonNode outcomes = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(outcomes).hasSize(items);
+        assertThat(outcomes.get(items - 1).get("index").asInt()).isEqualTo(items - 1);
+        assertThat(evaluated).hasValue(items);
+        // The parser only looks ahead by its read buffer, never by the whole batch
+        assertThat(maxLag[0]).isLessThan(1_000);
+    }
+
+    private JsonNode batch(String body) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/api/errors/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        return objectMapper.readTree(response.getContentAsString());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.trouble_maker.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FaultScriptTest {
+
+    @Test
+    void plainScriptRepeats() {
+        FaultScript script = FaultScript.parse("FFFS");
+
+        assertThat(script.length()).isEqualTo(4);
+        assertThat(outcomes(script, 8)).isEqualTo("FFFSFFFS");
+    }
+
+    @Test
+    void repeatCountsAndMixedTokens() {
+        FaultScript script = FaultScript.parse("f*3, S*2 FS");
+
+        assertThat(script.length()).isEqualTo(7);
+        assertThat(outcomes(script, 7)).isEqualTo("FFFSSFS");
+    }
+
+    @Test
+    void longRunsStayCheap() {
+        FaultScript script = FaultScript.parse("F*2,S*1000000000");
+
+        assertThat(script.shouldFail(1)).isTrue();
+        assertThat(script.shouldFail(999_999_999L)).isFalse();
+        assertThat(script.shouldFail(1_000_000_002L)).isTrue();
+    }
+
+    @Test
+    void rejectsMalformedScripts() {
+        assertThatThrownBy(() -> FaultScript.parse("")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FaultScript.parse("FXS")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FaultScript.parse("F*0")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FaultScript.parse("FF*2")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String outcomes(FaultScript script, int count) {
+        StringBuilder outcomes = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            outcomes.append(script.shouldFail(i) ? 'F' : 'S');
+        }
+        return outcomes.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.trouble_maker.model;
+
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyModelTest {
+
+    private static final int SAMPLES = 10_000;
+
+    @Test
+    void parametricModelsStayInTheirRange() {
+        assertThat(samples(new LatencyModel.Fixed(40))).containsOnly(40L);
+        assertThat(LongStream.of(samples(new LatencyModel.Uniform(10, 20))).allMatch(ms -> ms >= 10 && ms <= 20)).isTrue();
+        assertThat(LongStream.of(samples(new LatencyModel.Normal(5, 50))).allMatch(ms -> ms >= 0)).isTrue();
+        assertThat(LongStream.of(samples(new LatencyModel.Pareto(30, 1.5))).allMatch(ms -> ms >= 30)).isTrue();
+    }
+
+    @Test
+    void logNormalIsCenteredOnItsMedian() {
+        long[] sorted = LongStream.of(samples(new LatencyModel.LogNormal(80, 0.6))).sorted().toArray();
+        assertThat(sorted[SAMPLES / 2]).isBetween(72L, 88L);
+    }
+
+    @Test
+    void bimodalMixesBothModelsByProbability() {
+        long fast = LongStream.of(samples(new LatencyModel.Bimodal(0.9,
+                new LatencyModel.Fixed(1), new LatencyModel.Fixed(500)))).filter(ms -> ms == 1).count();
+        assertThat(fast).isBetween(8_700L, 9_300L);
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        assertThatThrownBy(() -> new LatencyModel.Fixed(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LatencyModel.Uniform(20, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LatencyModel.LogNormal(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LatencyModel.Bimodal(1.5, new LatencyModel.Fixed(1), new LatencyModel.Fixed(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void empiricalSamplesBucketsWeightedByCount() {
+        LatencyModel.Empirical histogram = LatencyModel.Empirical.parse("orders",
+                List.of("# latencyMs,count", "10,3", "20 0", "500;1", ""));
+
+        long[] samples = samples(histogram);
+        assertThat(samples).containsOnly(10L, 500L);
+        assertThat(LongStream.of(samples).filter(ms -> ms == 10).count()).isBetween(7_200L, 7_800L);
+    }
+
+    @Test
+    void histogramsAreLoadedOnceFromTheDirectoryOnly(@TempDir Path directory) throws Exception {
+        Files.writeString(directory.resolve("orders.csv"), "10,1\n");
+        Files.writeString(directory.resolve("notes.md"), "not a histogram");
+        Files.createDirectory(directory.resolve("nested"));
+        Files.writeString(directory.resolve("nested").resolve("hidden.csv"), "10,1\n");
+
+        LatencyHistograms histograms = LatencyHistograms.load(directory);
+
+        assertThat(histograms.names()).containsExactly("orders");
+        assertThat(histograms.get("orders")).isSameAs(histograms.get("orders"));
+        assertThatThrownBy(() -> histograms.get("nested/hidden")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> histograms.get("../orders")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void jsonReferencesHistogramsByNameAndNeverByPath() throws Exception {
+        LatencyHistograms histograms = new LatencyHistograms(
+                Map.of("orders", LatencyModel.Empirical.parse("orders", List.of("10,1"))));
+        ObjectMapper objectMapper = new ObjectMapper()
+                .setInjectableValues(new InjectableValues.Std().addValue(LatencyHistograms.class, histograms));
+
+        LatencyModel model = objectMapper.readValue("{\"type\":\"empirical\",\"histogram\":\"orders\"}", LatencyModel.class);
+
+        assertThat(model).isSameAs(histograms.get("orders"));
+        assertThat(objectMapper.writeValueAsString(model)).isEqualTo("{\"type\":\"empirical\",\"histogram\":\"orders\"}");
+        assertThatThrownBy(() -> objectMapper.readValue("{\"type\":\"empirical\",\"histogram\":\"/etc/passwd\"}", LatencyModel.class))
+                .isInstanceOf(JsonMappingException.class)
+                .hasMessageContaining("Unknown latency histogram");
+    }
+
+    private static long[] samples(LatencyModel model) {
+        RandomGenerator random = new SplittableRandom(42);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = model.sampleMillis(random);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.trouble_maker.service;
+
+import com.example.trouble_maker.model.OverloadSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CapacityModelTest {
+
+    private static class RecordingAdmission implements CapacityModel.Admission {
+        boolean started;
+        boolean expired;
+        boolean deadlineExceeded;
+
+        @Override
+        public void start(long queueWaitMs) {
+            started = true;
+        }
+
+        @Override
+        public void expire(long queueWaitMs) {
+            expired = true;
+        }
+
+        @Override
+        public void deadlineExceeded(long queueWaitMs) {
+            deadlineExceeded = true;
+        }
+    }
+
+    @Test
+    void queuedRequestPastItsDeadlineIsDroppedAndTheSlotGoesToTheNextOne() {
+        CapacityModel model = new CapacityModel(true, 1, 2, 503, 30_000, 0);
+        model.submit(new RecordingAdmission());
+        RecordingAdmission abandoned = new RecordingAdmission();
+        RecordingAdmission waiting = new RecordingAdmission();
+        model.submit(abandoned, System.nanoTime() - 1);
+        model.submit(waiting, System.nanoTime() + 60_000_000_000L);
+
+        model.release();
+
+        assertThat(abandoned.started).isFalse();
+        assertThat(abandoned.deadlineExceeded).isTrue();
+        assertThat(waiting.started).isTrue();
+        assertThat(model.getDeadlineExpired()).isEqualTo(1);
+        assertThat(model.getBusySlots()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsBeyondSlotsAndQueueAreRejected() {
+        CapacityModel model = new CapacityModel(true, 2, 1, 503, 30_000, 0);
+        List<CapacityModel.Result> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(model.submit(new RecordingAdmission()).result());
+        }
+
+        assertThat(results).containsExactly(CapacityModel.Result.STARTED, CapacityModel.Result.STARTED,
+                CapacityModel.Result.QUEUED, CapacityModel.Result.REJECTED);
+        assertThat(model.getBusySlots()).isEqualTo(2);
+        assertThat(model.getQueued()).isEqualTo(1);
+        assertThat(model.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void releasedSlotStartsNextQueuedRequest() {
+        CapacityModel model = new CapacityModel(true, 1, 5, 503, 30_000, 0);
+        model.submit(new RecordingAdmission());
+        RecordingAdmission waiting = new RecordingAdmission();
+        model.submit(waiting);
+        assertThat(waiting.started).isFalse();
+
+        model.release();
+
+        assertThat(waiting.started).isTrue();
+        assertThat(model.getBusySlots()).isEqualTo(1);
+        assertThat(model.getQueued()).isZero();
+    }
+
+    @Test
+    void requestsWaitingTooLongExpireWithoutTakingTheSlot() throws InterruptedException {
+        CapacityModel model = new CapacityModel(true, 1, 5, 429, 1, 0);
+        model.submit(new RecordingAdmission());
+        RecordingAdmission waiting = new RecordingAdmission();
+        model.submit(waiting);
+        Thread.sleep(10);
+
+        model.release();
+
+        assertThat(waiting.expired).isTrue();
+        assertThat(waiting.started).isFalse();
+        assertThat(model.getBusySlots()).isZero();
+    }
+
+    @Test
+    void cancelledRequestLeavesTheQueueAndNeverGetsASlot() {
+        CapacityModel model = new CapacityModel(true, 1, 1, 503, 30_000, 0);
+        model.submit(new RecordingAdmission());
+        RecordingAdmission timedOut = new RecordingAdmission();
+        CapacityModel.Ticket ticket = model.submit(timedOut);
+
+        assertThat(model.cancel(ticket)).isTrue();
+        assertThat(model.cancel(ticket)).isFalse();
+        assertThat(model.getQueued()).isZero();
+        assertThat(model.submit(new RecordingAdmission()).result()).isEqualTo(CapacityModel.Result.QUEUED);
+
+        model.release();
+        assertThat(timedOut.started).isFalse();
+        assertThat(model.getCancelled()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsServedInstantlyDrainTheQueueWithoutRecursion() {
+        int waiting = 100_000;
+        CapacityModel model = new CapacityModel(true, 1, waiting, 503, 30_000, 0);
+        CapacityModel.Admission holder = new RecordingAdmission();
+        model.submit(holder);
+        int[] served = new int[1];
+        // each request releases its slot right away, like a response with 0ms service time
+        CapacityModel.Admission instant = new RecordingAdmission() {
+            @Override
+            public void start(long queueWaitMs) {
+                served[0]++;
+                model.release();
+            }
+        };
+        for (int i = 0; i < waiting; i++) {
+            model.submit(instant);
+        }
+
+        model.release();
+
+        assertThat(served[0]).isEqualTo(waiting);
+        assertThat(model.getQueued()).isZero();
+        assertThat(model.getBusySlots()).isZero();
+    }
+
+    @Test
+    void queuedRequestsExpireWhileAllSlotsStayBusy() throws InterruptedException {
+        CapacityModel model = new CapacityModel(true, 1, 5, 503, 20, 0);
+        model.submit(new RecordingAdmission());
+        RecordingAdmission waiting = new RecordingAdmission();
+        RecordingAdmission withDeadline = new RecordingAdmission();
+        model.submit(waiting);
+        model.submit(withDeadline, System.nanoTime() + 5_000_000L);
+
+        // nothing releases the slot, only the timers end the wait
+        long giveUp = System.nanoTime() + 5_000_000_000L;
+        while (model.getQueued() > 0 && System.nanoTime() < giveUp) {
+            Thread.sleep(5);
+        }
+
+        assertThat(waiting.expired).isTrue();
+        assertThat(withDeadline.deadlineExceeded).isTrue();
+        assertThat(model.getExpired()).isEqualTo(1);
+        assertThat(model.getDeadlineExpired()).isEqualTo(1);
+        assertThat(model.getBusySlots()).isEqualTo(1);
+
+        // the expired tickets left in the queue don't take the freed slot
+        model.release();
+        assertThat(waiting.started).isFalse();
+        assertThat(model.getBusySlots()).isZero();
+        model.shutdown();
+    }
+
+    @Test
+    void cancelledTicketsAreSkippedWithoutScanningTheQueue() {
+        int waiting = 100_000;
+        CapacityModel model = new CapacityModel(true, 1, waiting, 503, 30_000, 0);
+        model.submit(new RecordingAdmission());
+        List<CapacityModel.Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < waiting; i++) {
+            tickets.add(model.submit(new RecordingAdmission()));
+        }
+        RecordingAdmission last = new RecordingAdmission();
+
+        // cancelling from the back would scan the whole queue every time with a remove()
+        for (int i = waiting - 1; i >= 0; i--) {
+            assertThat(model.cancel(tickets.get(i))).isTrue();
+        }
+        model.submit(last);
+        model.release();
+
+        assertThat(last.started).isTrue();
+        assertThat(model.getCancelled()).isEqualTo(waiting);
+        assertThat(model.getQueued()).isZero();
+        model.shutdown();
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThatThrownBy(() -> new OverloadSettings(true, 1, 0, 500, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
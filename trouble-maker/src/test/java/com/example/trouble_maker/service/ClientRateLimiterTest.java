@@ -0,0 +1,104 @@
+package com.example.trouble_maker.service;
+
+import com.example.trouble_maker.model.RateLimitSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void burstIsAllowedThenRetryAfterIsTimeToNextToken() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 4, 2, "X-Client-Id", 100, 0);
+
+        assertThat(limiter.tryAcquire("a", 0).remaining()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("a", 0).remaining()).isZero();
+        ClientRateLimiter.Decision rejected = limiter.tryAcquire("a", 0);
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterMs()).isEqualTo(250);
+        assertThat(limiter.tryAcquire("a", SECOND / 4).allowed()).isTrue();
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 1, 1, "X-Client-Id", 100, 0);
+
+        assertThat(limiter.tryAcquire("a", 0).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("b", 0).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("a", 0).allowed()).isFalse();
+    }
+
+    @Test
+    void newClientsBeyondMaxClientsPassUnlimitedUntilTheSweepEvictsFullBuckets() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 1, 1, "X-Client-Id", 2, 0);
+        limiter.tryAcquire("a", 0);
+        limiter.tryAcquire("b", 0);
+
+        // unrelated clients don't share one exhausted bucket
+        assertThat(limiter.tryAcquire("c", 0).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("d", 0).allowed()).isTrue();
+        assertThat(limiter.getOverflowRequests()).isEqualTo(2);
+        assertThat(limiter.getTrackedClients()).isEqualTo(2);
+
+        limiter.evictIdle(10 * SECOND);
+        limiter.tryAcquire("e", 10 * SECOND);
+
+        assertThat(limiter.getEvictedBuckets()).isEqualTo(2);
+        assertThat(limiter.getTrackedClients()).isEqualTo(1);
+    }
+
+    @Test
+    void aRequestRacingWithTheSweepGetsNoExtraToken() throws Exception {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 1, 1, "X-Client-Id", 100, 0);
+        for (int round = 1; round <= 2_000; round++) {
+            long now = round * 10 * SECOND; // the bucket of the previous round is full again
+            CountDownLatch go = new CountDownLatch(1);
+            AtomicInteger allowed = new AtomicInteger();
+            Runnable request = () -> {
+                awaitQuietly(go);
+                if (limiter.tryAcquire("a", now).allowed()) {
+                    allowed.incrementAndGet();
+                }
+            };
+            Thread first = Thread.ofPlatform().start(request);
+            Thread second = Thread.ofPlatform().start(request);
+            Thread sweep = Thread.ofPlatform().start(() -> {
+                awaitQuietly(go);
+                limiter.evictIdle(now);
+            });
+            go.countDown();
+            first.join();
+            second.join();
+            sweep.join();
+
+            assertThat(allowed).as("round %d", round).hasValue(1);
+        }
+    }
+
+    @Test
+    void sweepRunsOnlyWhileRateLimitingIsEnabled() {
+        ClientRateLimiter limiter = new ClientRateLimiter(false, 1, 1, "X-Client-Id", 100, 1_000);
+        assertThat(limiter.isEvictorRunning()).isFalse();
+
+        limiter.updateSettings(new RateLimitSettings(true, 1, 1, "X-Client-Id", 100));
+        assertThat(limiter.isEvictorRunning()).isTrue();
+
+        limiter.updateSettings(new RateLimitSettings(false, 1, 1, "X-Client-Id", 100));
+        assertThat(limiter.isEvictorRunning()).isFalse();
+        limiter.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.trouble_maker.service;
+
+import com.example.trouble_maker.model.ErrorConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FaultProfileRegistryTest {
+
+    @Test
+    void storesAPrivateCopyAndHandsItOutWithoutCopying() {
+        FaultProfileRegistry registry = new FaultProfileRegistry();
+        ErrorConfig request = new ErrorConfig(0.5, 10, 1, 100, true);
+        registry.put("flaky", request);
+
+        // The request object of a PUT is not the stored profile
+        request.setErrorRate(1.0);
+        ErrorConfig stored = registry.get("flaky").orElseThrow();
+        assertThat(stored.getErrorRate()).isEqualTo(0.5);
+
+        // Hot-path reads share the stored instance instead of allocating a copy per request
+        assertThat(registry.get("flaky")).containsSame(stored);
+        assertThat(registry.getAll()).containsEntry("flaky", stored);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.trouble_maker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PinningMonitorTest {
+
+    private final Object monitor = new Object();
+
+    @Test
+    void countsAVirtualThreadSleepingInsideSynchronizedAtItsSite() throws Exception {
+        try (PinningMonitor pinningMonitor = new PinningMonitor(true, Duration.ofMillis(10), 10)) {
+            pinningMonitor.start();
+            Thread.ofVirtual().start(this::sleepWhileHoldingTheMonitor).join();
+            // Not pinned: sleeping outside the monitor unmounts the virtual thread
+            Thread.ofVirtual().start(() -> sleep(50)).join();
+
+            // JFR streams events with a delay of about a second
+            long giveUp = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (pinningMonitor.getEvents() == 0 && System.nanoTime() < giveUp) {
+                Thread.sleep(100);
+            }
+
+            assertThat(pinningMonitor.getEvents()).isEqualTo(1);
+            assertThat(sites(pinningMonitor).entrySet()).singleElement()
+                    .satisfies(site -> {
+                        assertThat(site.getKey())
+                                .startsWith(PinningMonitorTest.class.getName() + ".sleepWhileHoldingTheMonitor:");
+                        assertThat(site.getValue()).isEqualTo(1L);
+                    });
+        }
+    }
+
+    @Test
+    void sitesBeyondMaxSitesAreCountedAsOther() {
+        PinningMonitor pinningMonitor = new PinningMonitor(false, Duration.ofMillis(20), 2);
+
+        assertThat(pinningMonitor.record("a", 1_000_000)).isTrue();
+        assertThat(pinningMonitor.record("b", 1_000_000)).isTrue();
+        assertThat(pinningMonitor.record("b", 1_000_000)).isFalse();
+        assertThat(pinningMonitor.record("c", 1_000_000)).isFalse();
+        assertThat(pinningMonitor.record("d", 2_000_000)).isFalse();
+        assertThat(pinningMonitor.record("d", 2_000_000)).isFalse();
+
+        assertThat(pinningMonitor.getStats()).containsEntry("events", 6L).containsEntry("pinnedMs", 8.0);
+        assertThat(sites(pinningMonitor)).containsExactly(
+                Map.entry(PinningMonitor.OTHER_SITES, 3L), Map.entry("b", 2L), Map.entry("a", 1L));
+    }
+
+    @Test
+    void disabledMonitorDoesNotStream() {
+        try (PinningMonitor pinningMonitor = new PinningMonitor(false, Duration.ofMillis(20), 10)) {
+            pinningMonitor.start();
+            assertThat(pinningMonitor.getStats()).containsEntry("enabled", false).containsEntry("events", 0L);
+        }
+    }
+
+    private void sleepWhileHoldingTheMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Long> sites(PinningMonitor pinningMonitor) {
+        return (Map<String, Long>) pinningMonitor.getStats().get("sites");
+    }
+}